@@ -53,7 +53,9 @@ import pisco.batch.BatchSettings.ValSel;
 import pisco.batch.BatchSettings.VarSel;
 import pisco.batch.choco.branching.BatchDynRemovals;
 import pisco.batch.choco.branching.BatchFit;
+import pisco.batch.choco.constraints.BatchIndexSConstraint;
 import pisco.batch.choco.constraints.BatchManager;
+import pisco.batch.choco.constraints.FilteringProfiler;
 import pisco.batch.choco.constraints.set.SetIntCombManager;
 import pisco.batch.data.Batch;
 import pisco.batch.data.BatchParser;
@@ -74,6 +76,7 @@ import choco.cp.solver.search.integer.valselector.MinVal;
 import choco.cp.solver.search.integer.varselector.MinDomain;
 import choco.cp.solver.search.integer.varselector.RandomIntVarSelector;
 import choco.cp.solver.search.integer.varselector.StaticVarOrder;
+import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.common.util.tools.ArrayUtils;
 import choco.kernel.model.Model;
 import choco.kernel.model.ModelException;
@@ -112,6 +115,8 @@ public abstract class AbstractBatchingProblem extends AbstractMinimizeModel {
 	private int computedNbBatches;
 	protected Batch[] bestSolution;
 
+	private final FilteringProfiler profiler = new FilteringProfiler();
+
 	public AbstractBatchingProblem(Configuration settings) {
 		super(new BatchParser(), settings);
 		//settings.putTrue(BatchSettings.SOLUTION_REPORT);
@@ -136,12 +141,18 @@ public abstract class AbstractBatchingProblem extends AbstractMinimizeModel {
 		packCstr = null;
 		computedNbBatches = Choco.MAX_UPPER_BOUND;
 		bestSolution = null;
+		profiler.reset();
 	}
 
 	@Override
 	public Boolean preprocess() {
 		initM();
-		return super.preprocess();
+		final Boolean r = super.preprocess();
+		if( getHeuristic().existsSolution()) {
+			//bound the number of batches of the schedules which are not worse than the heuristic solution
+			setM(data.getMaxNbBatches(getPriorityDispatchingRule(), getHeuristic().getObjectiveValue().intValue()));
+		}
+		return r;
 	}
 
 	public final BatchProcessingData getData() {
@@ -165,6 +176,13 @@ public abstract class AbstractBatchingProblem extends AbstractMinimizeModel {
 	}
 
 
+	/**
+	 * @return the profiler of the filtering rules, or null if the profiling is disabled.
+	 */
+	public final FilteringProfiler getFilteringProfiler() {
+		return BatchSettings.profileFiltering(this) ? profiler : null;
+	}
+
 	public final Constraint getPackCstr() {
 		return packCstr;
 	}
@@ -270,6 +288,11 @@ public abstract class AbstractBatchingProblem extends AbstractMinimizeModel {
 		case FF: valSel =new MinVal();break;
 		case BF: valSel =new BestFit(pack);break;
 		case BBF: valSel = new BatchFit(pack, bins, bd, bdd, data);break;
+		case SBF: {
+			final BatchIndexSConstraint index = new BatchIndexSConstraint(solver.getEnvironment(), solver.getVar(batchSizes), bd, bdd);
+			solver.post(index);
+			valSel = new BatchFit(pack, index, bins, bd, bdd, data);break;
+		}
 		case MC : throw new UnsupportedOperationException(ValSel.MC.getDescription());
 		case RANDOM : throw new UnsupportedOperationException(ValSel.RANDOM.getDescription());
 		default:
@@ -333,6 +356,14 @@ public abstract class AbstractBatchingProblem extends AbstractMinimizeModel {
 
 	}	
 
+	@Override
+	public void makeReports() {
+		super.makeReports();
+		if(BatchSettings.profileFiltering(this)) {
+			ChocoLogging.getMainLogger().info(getPrefixMsg()+" FILTERING PROFILE\n"+profiler);
+		}
+	}
+
 	@Override
 	protected abstract Object makeSolutionChart();
 
@@ -67,6 +67,9 @@ public class BatchCmd extends AbstractBenchmarkCmd {
 	
 	@Option(name="-parallel",aliases={"--parallelMachines"},usage="set the propagation level of the parallel machines relaxation")
 	protected PropagagationLevel parallelLevel;
+
+	@Option(name="-profile",aliases={"--profileFiltering"},usage="profile the filtering rules of the relaxation constraint")
+	protected boolean profileFiltering;
 	
 	// TODO - Add command line options for single and prallel relaxation - created 4 nov. 2011 by Arnaud Malapert
 	/**
@@ -83,6 +86,7 @@ public class BatchCmd extends AbstractBenchmarkCmd {
 		if( valSelector != null) settings.putEnum(BatchSettings.VAL_SEL, valSelector);
 		if(singleLevel != null) settings.putEnum(BatchSettings.SINGLE_PROPAGATION, singleLevel);
 		if(parallelLevel != null) settings.putEnum(BatchSettings.PARALLEL_PROPAGATION, parallelLevel);
+		if(profileFiltering) settings.putTrue(BatchSettings.PROFILE_FILTERING);
 		// DONE 15 nov. 2011 - depends on the problem type - created 10 nov. 2011 by Arnaud Malapert
 		if(problemType == Problem.LMAX) {
 			SCheckFactory.load("/batch-processing-cplex.properties");
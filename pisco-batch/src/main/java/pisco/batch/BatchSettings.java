@@ -69,6 +69,7 @@ public class BatchSettings extends BasicSettings {
 		FF("First-Fit"), 
 		BF("Best-Fit"), 
 		BBF("Batch-Fit"), 
+		SBF("Space-Batch-Fit"), 
 		MC("Min-Cost"), 
 		RANDOM("Random");
 
@@ -146,6 +147,14 @@ public class BatchSettings extends BasicSettings {
 	@Default(value = VALUE_FALSE)
 	public static final String USE_BUCKETS = "tools.cp.propagation.relaxation.lmax.bucket";
 
+	/**
+	 * <br/><b>Goal</b>: profile the filtering rules of the relaxation constraint (calls, time, reductions, failures).
+	 * <br/><b>Type</b>: boolean
+	 * <br/><b>Default value</b>: false
+	 */
+	@Default(value = VALUE_FALSE)
+	public static final String PROFILE_FILTERING = "tools.cp.propagation.relaxation.profiling";
+
 	public BatchSettings() {
 		super();
 	}
@@ -175,6 +184,10 @@ public class BatchSettings extends BasicSettings {
 		return problem.getConfiguration().readBoolean(USE_PARALLEL_UNIT_RELAXATION);
 	}
 
+	public static boolean profileFiltering(AbstractInstanceModel problem) {
+		return problem.getConfiguration().readBoolean(PROFILE_FILTERING);
+	}
+
 	public static String getFilteringMsg(Configuration conf, String prefix) {
 		final StringBuilder b = new StringBuilder();
 		b.append(prefix);
@@ -86,15 +86,6 @@ public final class PBatchLmax extends AbstractBatchingProblem {
 		setComputedLowerBound( -data.getMinDueDate()); // equivalent to Cmax = 0 !
 		if( getHeuristic().existsSolution()) {
 			computedHorizon = getHeuristic().getObjectiveValue().intValue() + data.getMaxDueDate();
-			//estimate maximum number of batch compatible with the horizon
-			final int[] durations = Arrays.copyOf(data.getDurations(), data.getNbJobs());
-			Arrays.sort(durations);	
-			int m = 0;
-			int cmax = 0;
-			while(m< durations.length && cmax < computedHorizon) {
-				cmax += durations[m++];
-			}
-			setM(m);
 		}
 		return r;
 	}
@@ -26,7 +26,9 @@
  */
 package pisco.batch.choco.branching;
 
+import pisco.batch.choco.constraints.BatchIndexSConstraint;
 import pisco.batch.data.BatchProcessingData;
+import pisco.common.choco.StoredBinIndex;
 import gnu.trove.TObjectIntHashMap;
 import choco.cp.solver.constraints.global.pack.PackSConstraint;
 import choco.kernel.common.util.iterators.DisposableIntIterator;
@@ -47,6 +49,13 @@ public class BatchFit implements ValSelector<IntDomainVar> {
 
 	private final IntDomainVar[] batchDueDates;
 
+	/**
+	 * optional index of the batches ordered by remaining space and signature.
+	 */
+	private final BatchIndexSConstraint index;
+
+	private final IntDomainVar[] bins;
+
 	private IntDomainVar lastVar = null;
 
 	private int lastVarIndex = -1;
@@ -54,8 +63,17 @@ public class BatchFit implements ValSelector<IntDomainVar> {
 	private final TObjectIntHashMap<IntDomainVar> indexMap;
 
 	public BatchFit(PackSConstraint cstr, IntDomainVar[] bins,IntDomainVar[] batchDurations, IntDomainVar[] batchDueDates, BatchProcessingData data) {
+		this(cstr, null, bins, batchDurations, batchDueDates, data);
+	}
+
+	/**
+	 * If the index is not null, the selected batch has the minimal remaining space and then the minimal fitness.
+	 */
+	public BatchFit(PackSConstraint cstr, BatchIndexSConstraint index, IntDomainVar[] bins,IntDomainVar[] batchDurations, IntDomainVar[] batchDueDates, BatchProcessingData data) {
 		super();
 		this.pack = cstr;
+		this.index = index;
+		this.bins = bins;
 		this.batchDurations = batchDurations;
 		this.batchDueDates = batchDueDates;
 		this.data=data;
@@ -83,7 +101,9 @@ public class BatchFit implements ValSelector<IntDomainVar> {
 		//fast check to avoid to search into the map
 		if( x != lastVar) {
 			lastVar = x;
-			lastVarIndex = indexMap.get(x);
+			//the next variable is often selected with a static order
+			lastVarIndex = lastVarIndex + 1 < bins.length && bins[lastVarIndex + 1] == x ? 
+					lastVarIndex + 1 : indexMap.get(x);
 		}
 		return lastVarIndex;
 	}
@@ -122,6 +142,38 @@ public class BatchFit implements ValSelector<IntDomainVar> {
 		return batch;
 	}
 
+	/**
+	 * Same as {@link #getMinSpaceMinFitness(int, DisposableIntIterator)}, but only the batches of the domain bounds with the minimal remaining space are enumerated.
+	 * The fitness is only computed for the first batch of the domain with a given signature.
+	 */
+	protected int getMinSpaceMinFitness(int j, IntDomainVar x) {
+		final StoredBinIndex idx = index.getIndex();
+		int b = idx.getFirst(x.getInf(), x.getSup());
+		while(b >= 0 && ! x.canBeInstantiatedTo(b)) {
+			b = idx.getNext();
+		}
+		int batch = b;
+		if(b >= 0) {
+			final int minSpace = idx.getKey(b);
+			int minFitness = getFitness(j, b);
+			int signature = idx.getSignature(b);
+			b = idx.getNext();
+			while(b >= 0 && idx.getKey(b) == minSpace) {
+				//the next batches with the same signature have the same fitness and a greater index
+				if(idx.getSignature(b) != signature && x.canBeInstantiatedTo(b)) {
+					signature = idx.getSignature(b);
+					final int fitness = getFitness(j, b);
+					if(fitness < minFitness) {
+						batch = b;
+						minFitness = fitness;
+					}
+				}
+				b = idx.getNext();
+			}
+		}
+		return batch;
+	}
+
 	protected int getMinFitnessMinSpace(int j, DisposableIntIterator iter) {
 		int batch= iter.next();
 		int minFitness = getFitness(j, batch);
@@ -151,6 +203,9 @@ public class BatchFit implements ValSelector<IntDomainVar> {
 		//final DisposableIntIterator iter=x.getDomain().getIterator();
 		//return getMinSpaceMinFitness(j, iter);
 		//return getMinFitnessMinSpace(j, iter);
+		if(index != null) {
+			return getMinSpaceMinFitness(getVarIndex(x), x);
+		}
 		return getMinFitness(getVarIndex(x), x.getDomain().getIterator());
 	}
 
@@ -31,7 +31,6 @@ import pisco.batch.heuristics.PDRScheduler;
 import choco.cp.solver.constraints.global.pack.IPackSConstraint;
 import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.common.opres.nosum.NoSumList;
-import choco.kernel.common.util.iterators.DisposableIntIterator;
 import choco.kernel.solver.ContradictionException;
 
 public abstract class AbstractTaskPList extends TaskSList {
@@ -98,11 +97,9 @@ public abstract class AbstractTaskPList extends TaskSList {
 	public void setUp() {
 		System.arraycopy(taskList, 0, taskPList, 0, size);
 		psize=size;	
-		final DisposableIntIterator iter = cstr.candidateJobs.getIterator();
-		while(iter.hasNext()) {
-			addJob(iter.next());
+		for (int i = cstr.candidateJobs.size() - 1; i >= 0; i--) {
+			addJob(cstr.candidateJobs.get(i));
 		}
-		iter.dispose();
 	}
 
 	protected abstract void filterParallelMachines() throws ContradictionException;
@@ -0,0 +1,90 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.batch.choco.constraints;
+
+import pisco.common.choco.BinIndexSConstraint;
+import choco.kernel.common.util.tools.ArrayUtils;
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.solver.variables.integer.IntDomainVar;
+
+/**
+ * Index of the batches ordered by increasing remaining space, and then by signature.
+ * The signature encodes the minimal duration and the maximal due date of a batch.
+ * So, the batches with the same remaining space and signature have the same fitness for any job.
+ * @author Arnaud Malapert
+ */
+public final class BatchIndexSConstraint extends BinIndexSConstraint {
+
+	private final boolean hasDueDates;
+
+	private final int minDuration;
+
+	private final int minDueDate;
+
+	/**
+	 * number of due dates encoded in a signature (0 if the encoding overflows).
+	 */
+	private final int dueDateRange;
+
+	public BatchIndexSConstraint(IEnvironment environment, IntDomainVar[] batchSizes, IntDomainVar[] batchDurations, IntDomainVar[] batchDueDates) {
+		super(environment, batchDueDates == null ? 
+				ArrayUtils.<IntDomainVar>append(batchSizes, batchDurations) : 
+					ArrayUtils.<IntDomainVar>append(batchSizes, batchDurations, batchDueDates), 
+					batchSizes.length, true);
+		hasDueDates = batchDueDates != null;
+		int minD = Integer.MAX_VALUE, maxD = Integer.MIN_VALUE;
+		for (IntDomainVar v : batchDurations) {
+			if(v.getInf() < minD) minD = v.getInf();
+			if(v.getSup() > maxD) maxD = v.getSup();
+		}
+		minDuration = minD;
+		if(hasDueDates) {
+			int minDD = Integer.MAX_VALUE, maxDD = Integer.MIN_VALUE;
+			for (IntDomainVar v : batchDueDates) {
+				if(v.getInf() < minDD) minDD = v.getInf();
+				if(v.getSup() > maxDD) maxDD = v.getSup();
+			}
+			minDueDate = minDD;
+			final long range = (long) maxDD - minDD + 1;
+			dueDateRange = range * ( (long) maxD - minD + 1) <= Integer.MAX_VALUE ? (int) range : 0;
+		} else {
+			minDueDate = 0;
+			dueDateRange = 1;
+		}
+	}
+
+	/**
+	 * The signature is unique to the batch if the encoding overflows.
+	 */
+	@Override
+	protected int getSignature(int bin) {
+		if(dueDateRange == 0) return bin;
+		final int duration = vars[nbBins + bin].getInf() - minDuration;
+		return hasDueDates ? duration * dueDateRange + vars[2 * nbBins + bin].getSup() - minDueDate : duration;
+	}
+
+}
@@ -31,6 +31,9 @@ import choco.Choco;
 
 public final class Bucket {
 
+	/** rank of the due date among the distinct due dates */
+	public final int rank;
+
 	public final int dueDate;
 
 	protected int duration;
@@ -46,17 +49,23 @@ public final class Bucket {
 	protected final TIntArrayList jobAtBucket = new TIntArrayList();
 
 	public Bucket() {
+		rank = -1;
 		dueDate = Choco.MAX_UPPER_BOUND;
 		duration = 0;
 		latenessAlone = Choco.MIN_LOWER_BOUND;
 		latenessIfFirst = Choco.MIN_LOWER_BOUND;
 	}
-	public Bucket(int dueDate) {
+	public Bucket(int rank, int dueDate) {
 		super();
+		this.rank = rank;
 		this.dueDate = dueDate;
 	}
 
 
+	public final int getRank() {
+		return rank;
+	}
+
 	public final int getDueDate() {
 		return dueDate;
 	}
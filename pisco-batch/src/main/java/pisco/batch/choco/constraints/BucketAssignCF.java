@@ -32,7 +32,6 @@ import gnu.trove.TLinkedList;
 import java.util.ListIterator;
 
 
-import choco.kernel.common.util.iterators.DisposableIntIterator;
 import choco.kernel.solver.ContradictionException;
 
 
@@ -129,11 +128,9 @@ public final class BucketAssignCF implements IBatchFilteringRule {
 
 	@Override
 	public void setUp() {
-		final DisposableIntIterator iter = cstr.candidateJobs.getIterator();
-		while(iter.hasNext()) {
-			bucketL.addJob(iter.next());
+		for (int i = cstr.candidateJobs.size() - 1; i >= 0; i--) {
+			bucketL.addJob(cstr.candidateJobs.get(i));
 		}
-		iter.dispose();
 	}
 
 
@@ -36,25 +36,22 @@ public final class BucketList implements IBatchFilteringRule {
 
 	public final PBatchRelaxSConstraint cstr;
 
-	private final Bucket[] bucketDueDateMap;
-
+	/**
+	 * one bucket per distinct due date, indexed by rank.
+	 */
 	public final Bucket[] buckets;
 
 	public BucketList(PBatchRelaxSConstraint cstr) {
 		super();
 		this.cstr = cstr;
-		bucketDueDateMap = new Bucket[cstr.data.getMaxDueDate() + 1];
-		final Bucket[] tmp = new Bucket[cstr.data.nbJobs];
-		int cpt = 0;
-		for (int idx: cstr.data.getIndicesSortedByDueDate()) {
-			final int dd = cstr.data.getDueDate(idx);
-			if(bucketDueDateMap[dd] == null) {
-				tmp[cpt] = new Bucket(dd);
-				bucketDueDateMap[dd] = tmp[cpt];
-				cpt++;
-			}
+		buckets = new Bucket[cstr.data.getNbDistinctDueDates()];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new Bucket(i, cstr.data.getDistinctDueDate(i));
 		}
-		buckets = cpt == tmp.length ? tmp : Arrays.copyOf(tmp, cpt);
+	}
+
+	private Bucket getBucketOf(int dueDate) {
+		return buckets[cstr.data.getRankOfDueDate(dueDate)];
 	}
 
 	public int getNbBuckets() {
@@ -66,7 +63,7 @@ public final class BucketList implements IBatchFilteringRule {
 	}
 
 	public Bucket getBucketAt(IntDomainVar dueDate) {
-		return bucketDueDateMap[dueDate.getSup()];
+		return getBucketOf(dueDate.getSup());
 	}
 
 	public int getMakespan() {
@@ -86,7 +83,7 @@ public final class BucketList implements IBatchFilteringRule {
 	}
 
 	public int getMaxLatenessAt(int dueDate) {
-		return getMaxLateness(bucketDueDateMap[dueDate]);
+		return getMaxLateness(getBucketOf(dueDate));
 	}
 
 	public int getMaxLateness() {
@@ -95,14 +92,14 @@ public final class BucketList implements IBatchFilteringRule {
 
 	@Override
 	public void addJob(int job) {
-		bucketDueDateMap[cstr.data.getDueDate(job)].addJob(job);
+		buckets[cstr.data.getDueDateRank(job)].addJob(job);
 	}
 
 	@Override
 	public void addBatch(int b) {
 		final IntDomainVar dv = cstr.getBDuration(b);
 		final IntDomainVar ddv = cstr.getBDueDate(b);
-		final Bucket c = bucketDueDateMap[ddv.getSup()];
+		final Bucket c = getBucketOf(ddv.getSup());
 		c.addContribution(dv.getInf());
 		if( ! dv.isInstantiated() || ! ddv.isInstantiated()) {
 			//can still prune the batch
@@ -0,0 +1,120 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.batch.choco.constraints;
+
+import choco.kernel.solver.ContradictionException;
+
+/**
+ * Opt-in profiling of the filtering rules of {@link PBatchRelaxSConstraint}.
+ * For each stage of the propagation (relaxation, assignments, naive packing, packing),
+ * it records the number of calls, the elapsed time, the number of removed values, and the number of failures.
+ */
+public final class FilteringProfiler {
+
+	public static enum Stage {
+		RELAXATION, ASSIGNMENT, NAIVE_PACKING, PACKING
+	}
+
+	private final String[] rules = new String[Stage.values().length];
+
+	private final long[] calls = new long[rules.length];
+
+	private final long[] nanos = new long[rules.length];
+
+	private final long[] reductions = new long[rules.length];
+
+	private final long[] failures = new long[rules.length];
+
+	public FilteringProfiler() {
+		super();
+	}
+
+	public void reset() {
+		for (int i = 0; i < rules.length; i++) {
+			rules[i] = null;
+			calls[i] = 0;
+			nanos[i] = 0;
+			reductions[i] = 0;
+			failures[i] = 0;
+		}
+	}
+
+	final void filter(PBatchRelaxSConstraint cstr, IBatchFilteringRule rule, Stage stage) throws ContradictionException {
+		final int s = stage.ordinal();
+		rules[s] = rule.getClass().getSimpleName();
+		calls[s]++;
+		final long domainSizes = cstr.getDomainSizes();
+		final long start = System.nanoTime();
+		try {
+			if(stage == Stage.NAIVE_PACKING) {
+				( (IBatchPackingCF) rule).filterNaive();
+			} else {
+				rule.filter();
+			}
+		} catch (ContradictionException e) {
+			failures[s]++;
+			throw e;
+		} finally {
+			nanos[s] += System.nanoTime() - start;
+		}
+		reductions[s] += domainSizes - cstr.getDomainSizes();
+	}
+
+	public final long getCalls(Stage stage) {
+		return calls[stage.ordinal()];
+	}
+
+	public final long getNanos(Stage stage) {
+		return nanos[stage.ordinal()];
+	}
+
+	public final long getReductions(Stage stage) {
+		return reductions[stage.ordinal()];
+	}
+
+	public final long getFailures(Stage stage) {
+		return failures[stage.ordinal()];
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder b = new StringBuilder();
+		for (Stage stage : Stage.values()) {
+			final int s = stage.ordinal();
+			if(calls[s] > 0) {
+				if(b.length() > 0) b.append('\n');
+				b.append(stage).append(" ").append(rules[s]);
+				b.append("    CALLS ").append(calls[s]);
+				b.append("    TIME ").append(nanos[s] / 1000000).append(" ms");
+				b.append("    REDUCTIONS ").append(reductions[s]);
+				b.append("    FAILURES ").append(failures[s]);
+			}
+		}
+		return b.toString();
+	}
+
+}
@@ -38,6 +38,7 @@ import pisco.batch.AbstractBatchingProblem;
 import pisco.batch.BatchSettings;
 import pisco.batch.BatchSettings.PropagagationLevel;
 import pisco.batch.PBatchLmax;
+import pisco.batch.choco.constraints.FilteringProfiler.Stage;
 import choco.kernel.common.util.iterators.DisposableIntIterator;
 import choco.kernel.common.util.tools.ArrayUtils;
 import choco.kernel.memory.IEnvironment;
@@ -52,9 +53,18 @@ public class PBatchRelaxSConstraint extends
 PBatchSConstraint {
 
 	/**
-	 * the list of remaining jobs
+	 * the set of remaining jobs
 	 */
-	protected final IStateIntVector candidateJobs;
+	protected final StoredSparseSet candidateJobs;
+
+	/**
+	 * jobs instantiated since the last propagation (removed from the candidates by {@link #flushCandidateJobs()}).
+	 */
+	private final int[] instantiatedJobs;
+
+	private int nbInstantiatedJobs;
+
+	private final boolean[] isInstantiatedJob;
 	/**
 	 * the list of neither empty nor full batches 
 	 */
@@ -72,6 +82,11 @@ PBatchSConstraint {
 
 	protected final IBatchPackingCF packCF;
 
+	/**
+	 * profiling of the filtering rules (null if disabled).
+	 */
+	private final FilteringProfiler profiler;
+
 	public PBatchRelaxSConstraint(IEnvironment environment, IntDomainVar[] vars,
 			AbstractBatchingProblem problem) {
 		super(environment, vars, problem);
@@ -82,10 +97,13 @@ PBatchSConstraint {
 		}
 		//initialize lists and arrays
 		candidateBatches = environment.makeBipartiteIntList(ArrayUtils.zeroToN(nbBatches));
-		candidateJobs = environment.makeBipartiteIntList(ArrayUtils.zeroToN(data.nbJobs));
+		candidateJobs = new StoredSparseSet(environment, data.nbJobs);
+		instantiatedJobs = new int[data.nbJobs];
+		isInstantiatedJob = new boolean[data.nbJobs];
 		lastNonEmptyBatchIndex = environment.makeInt(-1);
 		filterJobAssignments = slevel.ordinal() > OBJ.ordinal();
 		filterNewBatches = environment.makeBool(slevel.ordinal() > JOBS.ordinal());
+		profiler = problem.getFilteringProfiler();
 		
 		
 		if (problem instanceof PBatchLmax) {
@@ -134,6 +152,26 @@ PBatchSConstraint {
 			
 	}
 
+	protected final long getDomainSizes() {
+		long size = 0;
+		for (IntDomainVar v : vars) {
+			size += v.getDomainSize();
+		}
+		return size;
+	}
+
+	private void filter(IBatchFilteringRule rule, Stage stage) throws ContradictionException {
+		if(profiler == null) {
+			if(stage == Stage.NAIVE_PACKING) {
+				( (IBatchPackingCF) rule).filterNaive();
+			} else {
+				rule.filter();
+			}
+		} else {
+			profiler.filter(this, rule, stage);
+		}
+	}
+
 	protected final int getNbNonEmpty() {
 		return lastNonEmptyBatchIndex.get() + 1;
 	}
@@ -145,15 +183,29 @@ PBatchSConstraint {
 		}
 	}
 
+	/**
+	 * the removal of the job from the candidates is delayed until the next propagation.
+	 */
 	protected void fireCandidateJob(int job) {
-		final DisposableIntIterator iter = candidateJobs.getIterator();
-		while(iter.hasNext()) {
-			if(iter.next() == job ) {
-				iter.remove();
-				break;
+		if( ! isInstantiatedJob[job]) {
+			isInstantiatedJob[job] = true;
+			instantiatedJobs[nbInstantiatedJobs++] = job;
+		}
+	}
+
+	/**
+	 * remove the instantiated jobs from the candidates.
+	 * The pending jobs are checked again because a contradiction may have occurred since they were fired.
+	 */
+	protected final void flushCandidateJobs() {
+		for (int i = 0; i < nbInstantiatedJobs; i++) {
+			final int job = instantiatedJobs[i];
+			isInstantiatedJob[job] = false;
+			if(getJBatch(job).isInstantiated()) {
+				candidateJobs.remove(job);
 			}
 		}
-		iter.dispose();
+		nbInstantiatedJobs = 0;
 	}
 
 	protected final void removeAssignment(int job, int batch) throws ContradictionException {
@@ -190,15 +242,13 @@ PBatchSConstraint {
 
 	@Override
 	public void awake() throws ContradictionException {
-		DisposableIntIterator iter = candidateJobs.getIterator();
-		while(iter.hasNext()) {
-			final int j = iter.next();
+		for (int i = candidateJobs.size() - 1; i >= 0; i--) {
+			final int j = candidateJobs.get(i);
 			if(getJBatch(j).isInstantiated()) {
 				fireLastNonEmptyBatch(j);
-				iter.remove();
+				candidateJobs.remove(j);
 			}
 		}
-		iter.dispose();
 		super.awake();
 	}
 
@@ -229,41 +279,41 @@ PBatchSConstraint {
 	}
 
 	protected void addAvailableJobs() {
-		DisposableIntIterator iter = candidateJobs.getIterator();
-		while(iter.hasNext()) {
-			final int j = iter.next();
+		for (int i = candidateJobs.size() - 1; i >= 0; i--) {
+			final int j = candidateJobs.get(i);
 			if( getJBatch(j).getSup() > lastNonEmptyBatchIndex.get()) {
 				packCF.addJob(j);
 			}
 		}
-		iter.dispose();
 	}
 
 	@Override
 	public void propagate() throws ContradictionException {
 		//ChocoLogging.flushLogs();
 		super.propagate();
+		flushCandidateJobs();
 		relaxF.reset();
 		addCandidateBatches();
 		//compute pricing value
 		relaxF.setUp(); // Parallel Machine -> add candidate jobs 
 		//update objVar variable
-		relaxF.filter();
+		filter(relaxF, Stage.RELAXATION);
 		//System.out.println(bucketL);
 		if(filterJobAssignments) { 
 			assignCF.reset();
 			assignCF.setUp(); //add candidate jobs to buckets
 			//filter all assignments
-			assignCF.filter();
+			filter(assignCF, Stage.ASSIGNMENT);
+			flushCandidateJobs();
 			if(filterNewBatches.get() ) {
 				packCF.reset();
 				addAvailableJobs();
-				packCF.filterNaive();
+				filter(packCF, Stage.NAIVE_PACKING);
 				if(packCF.isEntailed()) {
 					filterNewBatches.set(false);
 				}else {
 					packCF.setUp();
-					packCF.filter();
+					filter(packCF, Stage.PACKING);
 					if(packCF.isEntailed()) {
 						filterNewBatches.set(false);
 					}
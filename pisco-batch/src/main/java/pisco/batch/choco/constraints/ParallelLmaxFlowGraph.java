@@ -27,126 +27,414 @@
 package pisco.batch.choco.constraints;
 
 import static choco.Choco.MAX_UPPER_BOUND;
-import gnu.trove.TIntArrayList;
 import gnu.trove.TIntHashSet;
-import gnu.trove.TIntProcedure;
 
 import java.util.Arrays;
-import java.util.LinkedList;
-import java.util.Queue;
 
 import pisco.batch.data.BJob;
+import pisco.batch.data.BatchProcessingData;
 import choco.kernel.common.IDotty;
 import choco.kernel.common.logging.ChocoLogging;
+import choco.kernel.solver.SolverException;
 import choco.kernel.visu.VisuFactory;
 
+/**
+ * Flow network of the preemptive parallel machine relaxation of the maximal lateness.
+ * The nodes are the source, the sink, one node per time interval between two consecutive due dates, and one node per job.
+ * The units of a job are merged into a single node: the source arc has capacity p*s and each interval arc has capacity s*length.
+ * The residual graph is stored in compressed sparse rows (a reverse arc per arc) and the maximum flow is computed by Dinic's algorithm.
+ * <p>
+ * The flow is warm-started: a job added with a key keeps the flow it had at the previous closure of the graph,
+ * and the maximal lateness can be changed on a closed graph.
+ * The initial flow is first repaired to respect the new capacities, then augmented.
+ * </p>
+ */
 public class ParallelLmaxFlowGraph implements IDotty {
 
 	protected final int capacity;
-	private int currentTask = 0;
 	protected final int[] dueDates;
 	protected final int[] timeLengths;
 
-	protected TIntArrayList[] neighbourLists;
+	private final static int SOURCE = 0;
+	private final static int SINK = 1;
+	private final static int OFFSET = 2;
 
-	/** capacity matrix (must be n by n) */
-	protected int[][] capacities;
+	/** number of nodes, i.e. OFFSET + number of time intervals + number of jobs */
+	private int nbNodes;
 
-	private int[] parents;
+	private boolean closed;
 
-	private int[] capacityOfPathToNode;
+	/** value of the current flow */
+	private int flow;
 
-	/** Residual capacity from u to v is C[u][v] - F[u][v] */
-	private int[][] residualCapacities;
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Job nodes and arcs (added by addJob) /////////
+	////////////////////////////////////////////////////////////////////
 
-	/** BFS queue */
-	private Queue<Integer> queueBFS = new LinkedList<Integer>();
+	private int[] nodeKeys;
 
-	private final static int SOURCE = 0;
-	private final static int SINK = 1;
-	private final static int OFFSET = 2;
+	private int[] nodeSizes;
+
+	/** index of the source arc of the node (its interval arcs follow) */
+	private int[] nodeFirstArcs;
+
+	private int nbArcs;
+
+	private int[] arcOrigins;
+
+	private int[] arcDestinations;
+
+	private int[] arcCapacities;
+
+	/** initial flow of the arc */
+	private int[] arcFlows;
+
+	/** index of the arc in the residual graph */
+	private int[] arcResiduals;
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Flow of the previous closure (by key) ////////
+	////////////////////////////////////////////////////////////////////
+
+	private int stamp;
+
+	private int[] prevStamps = new int[0];
+
+	private int[] prevFirsts = new int[0];
+
+	private int[] prevLengths = new int[0];
+
+	private int[] prevFlows;
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Residual graph (built by close) //////////////
+	////////////////////////////////////////////////////////////////////
+
+	/** residual arcs of the node u are in [offsets[u], offsets[u+1]) */
+	private int[] offsets;
+
+	private int[] heads;
+
+	private int[] capacities;
+
+	private int[] residuals;
+
+	/** index of the reverse arc */
+	private int[] reverses;
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Dinic ////////////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	private int[] levels;
+
+	/** current arc of each node during the blocking flow */
+	private int[] iterators;
+
+	private int[] queue;
 
 
 	public ParallelLmaxFlowGraph(int[] dueDates, int capacity) {
+		this(getDistinctDueDates(dueDates), dueDates.length, capacity);
+	}
+
+	/**
+	 * Build the time intervals from the compressed due dates of the instance.
+	 */
+	public ParallelLmaxFlowGraph(BatchProcessingData data) {
+		this(data.getDistinctDueDates(), data.nbJobs, data.getCapacity());
+	}
+
+	private ParallelLmaxFlowGraph(int[] distinctDueDates, int nbJobs, int capacity) {
 		super();
+		this.dueDates = distinctDueDates;
+		this.capacity = capacity;
+		timeLengths = new int[dueDates.length];
+		timeLengths[0] = dueDates[0];
+		for (int i = 1; i < dueDates.length; i++) {
+			timeLengths[i] = dueDates[i] - dueDates[i-1];
+		}
+		final int m = 4 * nbJobs;
+		arcOrigins = new int[m];
+		arcDestinations = new int[m];
+		arcCapacities = new int[m];
+		arcFlows = new int[m];
+		arcResiduals = new int[m];
+		prevFlows = new int[m];
+		final int n = OFFSET + dueDates.length + nbJobs;
+		nodeKeys = new int[n];
+		nodeSizes = new int[n];
+		nodeFirstArcs = new int[n];
+		ensureNodeCapacity(n);
+		ensureResidualCapacity(2 * (m + dueDates.length));
+		reset();
+	}
+
+	private static int[] getDistinctDueDates(int[] dueDates) {
 		TIntHashSet set = new TIntHashSet(dueDates.length);
 		for (int i : dueDates) {
 			set.add(i);
 		}
-		this.dueDates = set.toArray();
-		Arrays.sort(this.dueDates);
+		final int[] distinctDueDates = set.toArray();
+		Arrays.sort(distinctDueDates);
+		return distinctDueDates;
+	}
 
-		this.capacity = capacity;
-		timeLengths = new int[this.dueDates.length];
-		timeLengths[0] = this.dueDates[0];
-		for (int i = 1; i < this.dueDates.length; i++) {
-			timeLengths[i] = this.dueDates[i] - this.dueDates[i-1];
+	private void ensureNodeCapacity(int n) {
+		if(offsets == null || offsets.length < n + 1) {
+			offsets = new int[n + 1];
+			levels = new int[n];
+			iterators = new int[n];
+			queue = new int[n];
 		}
+	}
 
-		final int nb = OFFSET + this.dueDates.length + dueDates.length * capacity;
-		neighbourLists = new TIntArrayList[nb];
-		parents = new int[nb];
-		residualCapacities = new int[nb][nb];
-		capacities = new int[nb][nb];
-		capacityOfPathToNode = new int[nb];
-		currentTask = OFFSET + this.dueDates.length;
-		for (int i = 0; i < neighbourLists.length; i++) {
-			neighbourLists[i]=new TIntArrayList(dueDates.length);
+	private void ensureResidualCapacity(int m) {
+		if(heads == null || heads.length < m) {
+			heads = new int[m];
+			capacities = new int[m];
+			residuals = new int[m];
+			reverses = new int[m];
 		}
+	}
 
-		//potential integer overflow
-		for (int i = OFFSET; i < currentTask; i++) {
-			neighbourLists[i].add(SINK);
-			capacities[i][SINK]= capacity * timeLengths[i - OFFSET];
+	private void ensureKeyCapacity(int n) {
+		if(prevStamps.length < n) {
+			final int size = Math.max(n, 2 * prevStamps.length);
+			prevStamps = Arrays.copyOf(prevStamps, size);
+			prevFirsts = Arrays.copyOf(prevFirsts, size);
+			prevLengths = Arrays.copyOf(prevLengths, size);
 		}
 	}
 
+	private static int multiply(int a, int b) {
+		//avoid integer overflow
+		return b > Integer.MAX_VALUE / a ? MAX_UPPER_BOUND : a * b;
+	}
+
+	private void addNode(int key, int size) {
+		if(nbNodes == nodeKeys.length) {
+			final int n = 2 * nbNodes;
+			nodeKeys = Arrays.copyOf(nodeKeys, n);
+			nodeSizes = Arrays.copyOf(nodeSizes, n);
+			nodeFirstArcs = Arrays.copyOf(nodeFirstArcs, n);
+		}
+		nodeKeys[nbNodes] = key;
+		nodeSizes[nbNodes] = size;
+		nodeFirstArcs[nbNodes] = nbArcs;
+		nbNodes++;
+	}
+
+	private void addArc(int origin, int destination, int capa, int initialFlow) {
+		if(nbArcs == arcOrigins.length) {
+			final int n = 2 * nbArcs;
+			arcOrigins = Arrays.copyOf(arcOrigins, n);
+			arcDestinations = Arrays.copyOf(arcDestinations, n);
+			arcCapacities = Arrays.copyOf(arcCapacities, n);
+			arcFlows = Arrays.copyOf(arcFlows, n);
+			arcResiduals = Arrays.copyOf(arcResiduals, n);
+		}
+		arcOrigins[nbArcs] = origin;
+		arcDestinations[nbArcs] = destination;
+		arcCapacities[nbArcs] = capa;
+		arcFlows[nbArcs] = initialFlow;
+		nbArcs++;
+	}
+
+	private int getSinkCapacity(int idx) {
+		return multiply(capacity, timeLengths[idx]);
+	}
+
 	public int computeSourceCutCapacity() {
-		final int n = neighbourLists[SOURCE].size();
 		int totCapa = 0;
-		for (int i = 0; i < n; i++) {
-			totCapa += capacities[SOURCE][neighbourLists[SOURCE].getQuick(i)];
+		for (int i = 0; i < nbArcs; i++) {
+			if(arcOrigins[i] == SOURCE) {
+				totCapa += arcCapacities[i];
+			}
 		}
 		return totCapa;
 	}
 
+	/**
+	 * Remove all jobs. The flow of the keyed jobs is saved if the graph is closed.
+	 */
 	public void reset() {
-		currentTask = OFFSET + dueDates.length;
-		neighbourLists[SOURCE].resetQuick();
+		saveFlow();
+		nbNodes = OFFSET + dueDates.length;
+		nbArcs = 0;
+		closed = false;
+		flow = 0;
 		setMaximalLateness(0);
 	}
 
-	public void close() {
-		for (int i = currentTask; i < neighbourLists.length; i++) {
-			neighbourLists[i].resetQuick();
+	private void saveFlow() {
+		stamp++;
+		if(closed) {
+			if(prevFlows.length < nbArcs) {
+				prevFlows = new int[arcOrigins.length];
+			}
+			int k = 0;
+			for (int u = OFFSET + dueDates.length; u < nbNodes; u++) {
+				final int key = nodeKeys[u];
+				if(key >= 0) {
+					ensureKeyCapacity(key + 1);
+					final int last = u + 1 < nbNodes ? nodeFirstArcs[u + 1] : nbArcs;
+					prevStamps[key] = stamp;
+					prevFirsts[key] = k;
+					prevLengths[key] = last - nodeFirstArcs[u] - 1;
+					for (int i = nodeFirstArcs[u] + 1; i < last; i++) {
+						prevFlows[k++] = residuals[reverses[arcResiduals[i]]];
+					}
+				}
+			}
 		}
 	}
 
+	/**
+	 * Set the maximal lateness, i.e. the length of the first time interval.
+	 * If the graph is closed, the capacities and the current flow are updated.
+	 */
 	public void setMaximalLateness(int value) {
-		timeLengths[0] = value + dueDates[0];
-		if(timeLengths[0] > Integer.MAX_VALUE/capacity) {
-			//ChocoLogging.getSearchLogger().warning("Integer overflow: "+this.getClass().getCanonicalName());
-			capacities[OFFSET][SINK]= MAX_UPPER_BOUND;
-		} else capacities[OFFSET][SINK]= capacity * timeLengths[0];
+		timeLengths[0] = Math.max(0, value + dueDates[0]);
+		if(closed) {
+			final int sinkArc = offsets[OFFSET + 1] - 1;
+			for (int r = offsets[OFFSET]; r < sinkArc; r++) {
+				final int a = reverses[r];
+				final int capa = multiply(nodeSizes[heads[r]], timeLengths[0]);
+				if(residuals[r] > capa) {
+					cancelFlow(r, residuals[r] - capa);
+				}
+				capacities[a] = capa;
+				residuals[a] = capa - residuals[r];
+			}
+			repairInterval(OFFSET);
+		}
 	}
 
+	/**
+	 * Add a job: it can be processed in the intervals which start before its due date (plus the maximal lateness).
+	 */
 	public void addJob(BJob job) {
+		addJob(-1, job);
+	}
+
+	/**
+	 * Add a job whose initial flow is the flow of the job with the same key at the previous closure.
+	 * @param key non-negative key of the job, or -1 if it has no previous flow.
+	 * @throws SolverException if the area of the job (duration * size) overflows.
+	 */
+	public void addJob(int key, BJob job) {
 		final int dd = job.getDueDate();
-		final int s = currentTask + job.getSize();
-		final int p = job.getDuration();
-		while(currentTask < s) {
-			neighbourLists[SOURCE].add(currentTask);
-			capacities[SOURCE][currentTask]= p;
-			neighbourLists[currentTask].resetQuick();
-			int idx = 0;
-			do {
-				final int timeIndex = OFFSET + idx;
-				neighbourLists[currentTask].add(timeIndex);
-				capacities[currentTask][timeIndex] = timeLengths[idx];
-				idx++;
-			} while( idx < dueDates.length && dd  >= dueDates[idx]);
-			currentTask++;
+		final int s = job.getSize();
+		final int node = nbNodes;
+		final int sourceArc = nbArcs;
+		final long area = (long) job.getDuration() * s;
+		if(area > Integer.MAX_VALUE) {
+			throw new SolverException("integer overflow of the source capacity of "+job);
+		}
+		final int sourceCapa = (int) area;
+		addNode(key, s);
+		addArc(SOURCE, node, sourceCapa, 0);
+		final boolean warm = key >= 0 && key < prevStamps.length && prevStamps[key] == stamp;
+		final int prevFirst = warm ? prevFirsts[key] : 0;
+		final int prevLength = warm ? prevLengths[key] : 0;
+		int out = 0;
+		int idx = 0;
+		do {
+			final int capa = multiply(s, timeLengths[idx]);
+			final int f = idx < prevLength ? Math.min( Math.min(prevFlows[prevFirst + idx], capa), sourceCapa - out) : 0;
+			out += f;
+			addArc(node, OFFSET + idx, capa, f);
+			idx++;
+		} while( idx < dueDates.length && dd > dueDates[idx - 1]);
+		arcFlows[sourceArc] = out;
+	}
+
+	/**
+	 * Build the residual graph (compressed sparse rows) from the job arcs and the interval arcs.
+	 * The initial flow is repaired to respect the capacities of the interval arcs.
+	 */
+	public void close() {
+		final int n = nbNodes;
+		final int m = nbArcs + dueDates.length;
+		ensureNodeCapacity(n);
+		ensureResidualCapacity(2 * m);
+		Arrays.fill(offsets, 0, n + 1, 0);
+		for (int i = 0; i < nbArcs; i++) {
+			offsets[arcOrigins[i] + 1]++;
+			offsets[arcDestinations[i] + 1]++;
+		}
+		for (int i = 0; i < dueDates.length; i++) {
+			offsets[OFFSET + i + 1]++;
+			offsets[SINK + 1]++;
+		}
+		for (int u = 0; u < n; u++) {
+			offsets[u + 1] += offsets[u];
+		}
+		System.arraycopy(offsets, 0, iterators, 0, n);
+		flow = 0;
+		for (int i = 0; i < nbArcs; i++) {
+			arcResiduals[i] = addResidualArc(arcOrigins[i], arcDestinations[i], arcCapacities[i], arcFlows[i]);
+			if(arcOrigins[i] == SOURCE) {
+				flow += arcFlows[i];
+			}
+		}
+		//the arc towards the sink is the last arc of an interval
+		for (int i = 0; i < dueDates.length; i++) {
+			addResidualArc(OFFSET + i, SINK, getSinkCapacity(i), 0);
+		}
+		closed = true;
+		for (int i = 0; i < dueDates.length; i++) {
+			repairInterval(OFFSET + i);
+		}
+	}
+
+	private int addResidualArc(int u, int v, int capa, int initialFlow) {
+		final int a = iterators[u]++;
+		final int r = iterators[v]++;
+		heads[a] = v;
+		capacities[a] = capa;
+		residuals[a] = capa - initialFlow;
+		reverses[a] = r;
+		heads[r] = u;
+		capacities[r] = 0;
+		residuals[r] = initialFlow;
+		reverses[r] = a;
+		return a;
+	}
+
+	/**
+	 * Cancel some flow on a job arc and on the source arc of the job.
+	 * The residual arc of the source arc is the first arc of a job.
+	 * @param r reverse of the job arc
+	 */
+	private void cancelFlow(int r, int delta) {
+		residuals[r] -= delta;
+		residuals[reverses[r]] += delta;
+		final int s = offsets[heads[r]];
+		residuals[s] -= delta;
+		residuals[reverses[s]] += delta;
+		flow -= delta;
+	}
+
+	/**
+	 * Set the flow towards the sink to the inflow of the interval, and cancel the excess.
+	 */
+	private void repairInterval(int v) {
+		final int sinkArc = offsets[v + 1] - 1;
+		final int capa = getSinkCapacity(v - OFFSET);
+		int inflow = 0;
+		for (int r = offsets[v]; r < sinkArc; r++) {
+			inflow += residuals[r];
 		}
+		for (int r = offsets[v]; r < sinkArc && inflow > capa; r++) {
+			final int delta = Math.min(residuals[r], inflow - capa);
+			cancelFlow(r, delta);
+			inflow -= delta;
+		}
+		capacities[sinkArc] = capa;
+		residuals[sinkArc] = capa - inflow;
+		residuals[reverses[sinkArc]] = inflow;
 	}
 
 	@Override
@@ -157,71 +445,93 @@ public class ParallelLmaxFlowGraph implements IDotty {
 		for (int i = 0; i < dueDates.length; i++) {
 			b.append(OFFSET+i).append(" [shape=rectangle, label=\"").append(dueDates[i]).append("\"];\n");
 		}
-		for (int i = 0; i < neighbourLists.length; i++) {
-			final int idx = i;
-			neighbourLists[i].forEach(new TIntProcedure() {
-				@Override
-				public boolean execute(int arg0) {
-					b.append(idx).append("->").append(arg0);
-					b.append(" [label=\"").append(capacities[idx][arg0]).append("\"];\n");
-					return true;
-				}
-			});
+		for (int i = 0; i < nbArcs; i++) {
+			b.append(arcOrigins[i]).append("->").append(arcDestinations[i]);
+			b.append(" [label=\"").append(arcCapacities[i]).append("\"];\n");
+		}
+		for (int i = 0; i < dueDates.length; i++) {
+			b.append(OFFSET + i).append("->").append(SINK);
+			b.append(" [label=\"").append(getSinkCapacity(i)).append("\"];\n");
 		}
 		return b.toString();
 	}
 
-
 	/**
-	 * From http://en.wikibooks.org/wiki/Algorithm_Implementation/Graphs/Maximum_flow/Edmonds-Karp
-	 * Finds the maximum flow in a flow network.
-	 * @param E neighbour lists
+	 * Finds the maximum flow with Dinic's algorithm by augmenting the current flow: the graph must be closed.
 	 * @return maximum flow
 	 */
-	public int edmondsKarp() {
-		for (int i = 0; i < residualCapacities.length; i++) {
-			Arrays.fill(residualCapacities[i], 0);
-		}
-		while (true) {
-			Arrays.fill(parents, -1);
-			parents[SOURCE] = SOURCE;
-			Arrays.fill(capacityOfPathToNode, Integer.MAX_VALUE);
-			// BFS queue
-			queueBFS.clear();
-			queueBFS.offer(SOURCE);
-			LOOP:
-				while (!queueBFS.isEmpty()) {
-					int u = queueBFS.poll();
-					for (int i = 0; i < neighbourLists[u].size(); i++) {
-						int v = neighbourLists[u].getQuick(i);
-						//for (int v : E[u]) {
-						// There is available capacity,
-						// and v is not seen before in search
-						if (capacities[u][v] - residualCapacities[u][v] > 0 && parents[v] == -1) {
-							parents[v] = u;
-							capacityOfPathToNode[v] = Math.min(capacityOfPathToNode[u], capacities[u][v] - residualCapacities[u][v]);
-							if (v != SINK)
-								queueBFS.offer(v);
-							else {
-								// Backtrack search, and write flow
-								while (parents[v] != v) {
-									u = parents[v];
-									residualCapacities[u][v] += capacityOfPathToNode[SINK];
-									residualCapacities[v][u] -= capacityOfPathToNode[SINK];
-									v = u;
-								}
-								break LOOP;
-							}
-						}
-					}
+	public int maxFlow() {
+		while(buildLevelGraph()) {
+			System.arraycopy(offsets, 0, iterators, 0, nbNodes);
+			int f;
+			while( (f = augment(SOURCE, Integer.MAX_VALUE)) > 0) {
+				flow += f;
+			}
+		}
+		return flow;
+	}
+
+	/**
+	 * Binary search of the smallest maximal lateness in [lb, ub] such that the maximum flow is equal to the demand.
+	 * The capacities are nondecreasing with the maximal lateness and each probe warm-starts from the flow of the previous one.
+	 * The graph must be closed.
+	 * @return the smallest feasible maximal lateness, or ub + 1 if there is none.
+	 */
+	public int searchMaximalLateness(int lb, int ub, int demand) {
+		setMaximalLateness(ub);
+		if(maxFlow() < demand) return ub + 1;
+		while(lb < ub) {
+			final int mid = lb + (ub - lb) / 2;
+			setMaximalLateness(mid);
+			if(maxFlow() < demand) {
+				lb = mid + 1;
+			} else {
+				ub = mid;
+			}
+		}
+		return ub;
+	}
+
+	/**
+	 * BFS from the source in the residual graph.
+	 * @return <code>true</code> if the sink is reachable.
+	 */
+	private boolean buildLevelGraph() {
+		Arrays.fill(levels, 0, nbNodes, -1);
+		levels[SOURCE] = 0;
+		queue[0] = SOURCE;
+		int first = 0, last = 1;
+		while(first < last) {
+			final int u = queue[first++];
+			for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+				final int v = heads[a];
+				if(residuals[a] > 0 && levels[v] < 0) {
+					levels[v] = levels[u] + 1;
+					queue[last++] = v;
+				}
+			}
+		}
+		return levels[SINK] >= 0;
+	}
+
+	/**
+	 * DFS in the level graph which pushes an augmenting path (the network has only four layers).
+	 */
+	private int augment(int u, int limit) {
+		if(u == SINK) return limit;
+		for (; iterators[u] < offsets[u + 1]; iterators[u]++) {
+			final int a = iterators[u];
+			final int v = heads[a];
+			if(residuals[a] > 0 && levels[v] == levels[u] + 1) {
+				final int f = augment(v, Math.min(limit, residuals[a]));
+				if(f > 0) {
+					residuals[a] -= f;
+					residuals[reverses[a]] += f;
+					return f;
 				}
-			if (parents[SINK] == -1) { // We did not find a path to t
-					int sum = 0;
-					for (int x : residualCapacities[SOURCE])
-						sum += x;
-					return sum;
 			}
 		}
+		return 0;
 	}
 
 
@@ -233,8 +543,9 @@ public class ParallelLmaxFlowGraph implements IDotty {
 		graph.addJob(new BJob(1, 10, dueDates[2]));
 		graph.addJob(new BJob(2, 5, dueDates[1]));
 		graph.addJob(new BJob(3, 15, 3, 1, dueDates[4]));
+		graph.close();
 		VisuFactory.getDotManager().show(graph);
-		System.out.println(graph.edmondsKarp());
+		System.out.println(graph.maxFlow());
 	}
 
 }
@@ -0,0 +1,101 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.batch.choco.constraints;
+
+import java.util.Arrays;
+
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.memory.IStateInt;
+
+/**
+ * Backtrackable sparse set of the integers 0..n-1.
+ * An element is removed in O(1) by swapping it with the last present element.
+ * Only the size is trailed: the removals of a world only permute the elements of the previous worlds.
+ * <p>
+ * The elements must be iterated by decreasing index so that the current element can be removed.
+ * </p>
+ */
+public final class StoredSparseSet {
+
+	private final int[] elements;
+
+	private final int[] positions;
+
+	private final IStateInt size;
+
+	public StoredSparseSet(IEnvironment environment, int n) {
+		super();
+		elements = new int[n];
+		positions = new int[n];
+		for (int i = 0; i < n; i++) {
+			elements[i] = i;
+			positions[i] = i;
+		}
+		size = environment.makeInt(n);
+	}
+
+	public final int size() {
+		return size.get();
+	}
+
+	public final boolean isEmpty() {
+		return size.get() == 0;
+	}
+
+	/**
+	 * @param idx index in [0, size())
+	 */
+	public final int get(int idx) {
+		return elements[idx];
+	}
+
+	public final boolean contains(int value) {
+		return positions[value] < size.get();
+	}
+
+	/**
+	 * @return <code>true</code> if the value was present.
+	 */
+	public boolean remove(int value) {
+		final int s = size.get() - 1;
+		final int p = positions[value];
+		if(p > s) return false;
+		final int last = elements[s];
+		elements[p] = last;
+		positions[last] = p;
+		elements[s] = value;
+		positions[value] = s;
+		size.set(s);
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(elements, size.get()));
+	}
+
+}
@@ -28,6 +28,8 @@ package pisco.batch.choco.constraints;
 
 import pisco.batch.data.BJob;
 import pisco.batch.heuristics.PDRScheduler;
+import pisco.common.PriorityDispatchingRule;
+import pisco.common.SequenceCostEvaluator;
 import choco.kernel.common.util.iterators.DisposableIntIterator;
 import choco.kernel.solver.ContradictionException;
 
@@ -39,6 +41,13 @@ public class TaskAssignCF implements IBatchFilteringRule {
 
 	private final BJob[] taskPool;
 
+	/**
+	 * position of each batch in the single machine schedule.
+	 */
+	private final int[] positions;
+
+	private SequenceCostEvaluator evaluator;
+
 	public TaskAssignCF(PBatchRelaxSConstraint cstr) {
 		super();
 		this.cstr = cstr;
@@ -47,6 +56,7 @@ public class TaskAssignCF implements IBatchFilteringRule {
 		for (int i = 0; i < taskPool.length; i++) {
 			taskPool[i] = new BJob(i);
 		}
+		positions = new int[taskPool.length];
 	}
 
 	@Override
@@ -69,39 +79,42 @@ public class TaskAssignCF implements IBatchFilteringRule {
 	@Override
 	public void filter() throws ContradictionException {
 		if(taskL.size() > 0) {
-			final DisposableIntIterator iterj = cstr.candidateJobs.getIterator();
-			try {
-				while(iterj.hasNext()) {
-					final int job = iterj.next();
-					DisposableIntIterator iterb = cstr.getJBatch(job).getDomain().getIterator();
-					try {
-						while(iterb.hasNext()) {
-							final int batch = iterb.next();
-							// DONE 14 nov. 2011 - Problem with non empty batches - created 4 nov. 2011 by Arnaud Malapert
-							if(cstr.getBDuration(batch).getInf() > 0) {
-								taskPool[batch].parallelCombinaison(taskL.taskPool[batch], cstr.data.sjobs[job]);
-								final int lb = PDRScheduler.replace(taskL.taskList, taskL.size, cstr.problem.getPriorityDispatchingRule(), 
-										taskPool[batch]);
-								// DONE 4 nov. 2011 - Compute the lower bound - created 4 nov. 2011 by Arnaud Malapert
-								if(lb > cstr.getObjSup() && cstr.deleteAssignment(job, batch) ) {
-									iterj.remove();
-									break;
-								}
-							} else {
-								final int lb = PDRScheduler.insert(taskL.taskList, taskL.size, cstr.problem.getPriorityDispatchingRule(),cstr.data.sjobs[job]);
-								if(lb > cstr.getObjSup() && cstr.deleteFromEmptyBatches(job) ){
-									iterj.remove();
-									break;
-								}
-								break ; //next batches are also empty
+			final PriorityDispatchingRule rule = cstr.problem.getPriorityDispatchingRule();
+			if(evaluator == null) {
+				evaluator = new SequenceCostEvaluator(rule);
+			}
+			evaluator.load(taskL.taskList, taskL.size);
+			for (int i = 0; i < taskL.size; i++) {
+				positions[taskL.taskList[i].getId()] = i;
+			}
+			for (int j = cstr.candidateJobs.size() - 1; j >= 0; j--) {
+				final int job = cstr.candidateJobs.get(j);
+				DisposableIntIterator iterb = cstr.getJBatch(job).getDomain().getIterator();
+				try {
+					while(iterb.hasNext()) {
+						final int batch = iterb.next();
+						// DONE 14 nov. 2011 - Problem with non empty batches - created 4 nov. 2011 by Arnaud Malapert
+						if(cstr.getBDuration(batch).getInf() > 0) {
+							taskPool[batch].parallelCombinaison(taskL.taskPool[batch], cstr.data.sjobs[job]);
+							final int lb = PDRScheduler.replace(evaluator, taskL.taskList, taskL.size, rule, 
+									positions[batch], taskPool[batch]);
+							// DONE 4 nov. 2011 - Compute the lower bound - created 4 nov. 2011 by Arnaud Malapert
+							if(lb > cstr.getObjSup() && cstr.deleteAssignment(job, batch) ) {
+								cstr.candidateJobs.remove(job);
+								break;
+							}
+						} else {
+							final int lb = PDRScheduler.insert(evaluator, taskL.taskList, taskL.size, rule, cstr.data.sjobs[job]);
+							if(lb > cstr.getObjSup() && cstr.deleteFromEmptyBatches(job) ){
+								cstr.candidateJobs.remove(job);
+								break;
 							}
+							break ; //next batches are also empty
 						}
-					} finally {
-						iterb.dispose();
 					}
+				} finally {
+					iterb.dispose();
 				}
-			} finally {
-				iterj.dispose();
 			}
 		}
 	}
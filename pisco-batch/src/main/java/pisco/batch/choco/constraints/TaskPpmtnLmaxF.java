@@ -26,7 +26,6 @@
  */
 package pisco.batch.choco.constraints;
 
-import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.solver.ContradictionException;
 
 public final class TaskPpmtnLmaxF extends AbstractTaskPList {
@@ -35,7 +34,7 @@ public final class TaskPpmtnLmaxF extends AbstractTaskPList {
 
 	public TaskPpmtnLmaxF(PBatchRelaxSConstraint cstr, boolean singleAndParallel) {
 		super(cstr, singleAndParallel);
-		flowgraph = new ParallelLmaxFlowGraph(cstr.data.getDueDates(), cstr.data.getCapacity());
+		flowgraph = new ParallelLmaxFlowGraph(cstr.data);
 	}
 
 
@@ -51,19 +50,24 @@ public final class TaskPpmtnLmaxF extends AbstractTaskPList {
 		if( n > 0 ) {
 			//VisuFactory.getDotManager().show(flowgraph);
 			flowgraph.setMaximalLateness(cstr.getObjSup());
-			int expectedMaxFlow = 0;
+			long totalArea = 0;
 			for (int i = 0; i < n; i++) {
-				expectedMaxFlow += taskPList[i].getDuration() * taskPList[i].getSize();
-				flowgraph.addJob(taskPList[i]);	
+				totalArea += (long) taskPList[i].getDuration() * taskPList[i].getSize();
 			}
-			flowgraph.close();
-			final int maxFlow = flowgraph.edmondsKarp();
-			if(expectedMaxFlow > maxFlow) {
-				//VisuFactory.getDotManager().show(flowgraph);
-				//ChocoLogging.getBranchingLogger().info("FAIL");
-				//FIXME cstr.fail();
+			if(totalArea > Integer.MAX_VALUE) {
+				//avoid integer overflow: the relaxation is skipped
+				return;
+			}
+			final int expectedMaxFlow = (int) totalArea;
+			for (int i = 0; i < n; i++) {
+				//batches are keyed by their index and jobs by m + their id.
+				final int key = i < size() ? taskPList[i].getId() : cstr.problem.getM() + taskPList[i].getId();
+				flowgraph.addJob(key, taskPList[i]);
 			}
-			//assert(expectedMaxFlow == maxFlow && maxFlow == flowgraph.computeSourceCutCapacity());
+			flowgraph.close();
+			//smallest maximal lateness for which all tasks can be scheduled (fails if greater than the upper bound)
+			final int lb = flowgraph.searchMaximalLateness(cstr.getObjective().getInf(), cstr.getObjSup(), expectedMaxFlow);
+			cstr.updateInfObj(lb);
 		}
 	}
 
@@ -26,16 +26,44 @@
  */
 package pisco.batch.choco.constraints;
 
+import pisco.batch.data.BJob;
+import pisco.common.Pmtn1FlowScheduler;
 import choco.kernel.solver.ContradictionException;
 
+/**
+ * The parallel batch machine is relaxed into a preemptive single machine where the duration of a job is its area (duration * size).
+ * The total weighted completion time of the relaxation divided by the capacity is a lower bound.
+ */
 public final class TaskPpmtnWFlowF extends AbstractTaskPList {
 
+	private final Pmtn1FlowScheduler scheduler;
+
 	public TaskPpmtnWFlowF(PBatchRelaxSConstraint cstr, boolean singleAndParallel) {
 		super(cstr, singleAndParallel);
+		scheduler = new Pmtn1FlowScheduler(true, taskPList.length);
 	}
 
 	@Override
 	protected void filterParallelMachines() throws ContradictionException {
+		final int n = parallelSize();
+		if( n > 0 ) {
+			scheduler.clear();
+			long maxReleaseDate = 0;
+			long sumAreas = 0;
+			for (int i = 0; i < n; i++) {
+				final BJob job = taskPList[i];
+				final long area = (long) job.getDuration() * job.getSize();
+				maxReleaseDate = Math.max(maxReleaseDate, job.getReleaseDate());
+				sumAreas += area;
+				if(maxReleaseDate + sumAreas > Integer.MAX_VALUE) {
+					//avoid integer overflow: the relaxation is skipped
+					return;
+				}
+				scheduler.add( (int) area, job.getReleaseDate(), job.getWeight());
+			}
+			final int capa = cstr.data.getCapacity();
+			cstr.updateInfObj( (scheduler.schedule() + capa - 1) / capa);
+		}
 	}
 
 }
@@ -26,12 +26,16 @@
  */
 package pisco.batch.choco.constraints;
 
+import pisco.batch.heuristics.MachineHeap;
 import pisco.batch.heuristics.PDRScheduler;
+import pisco.common.PDR1Scheduler;
 import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.solver.ContradictionException;
 
 public final class TaskPunitLmaxF extends AbstractTaskPList {
 
+	private final MachineHeap machines = new MachineHeap();
+
 	public TaskPunitLmaxF(PBatchRelaxSConstraint cstr, boolean singleAndParallel) {
 		super(cstr, singleAndParallel);
 	}
@@ -39,8 +43,9 @@ public final class TaskPunitLmaxF extends AbstractTaskPList {
 	@Override
 	protected void filterParallelMachines() throws ContradictionException {
 		if(parallelSize() > 0 ) {
-			final int lb = PDRScheduler.parallelUnitSizedLmaxSchedule(taskPList, parallelSize(), cstr.data.getCapacity());
-			cstr.updateInfObj(lb);
+			//stops as soon as the lower bound exceeds the upper bound (the update then fails).
+			PDRScheduler.lazyParallelUnitSizedLmaxSchedule(taskPList, parallelSize(), cstr.data.getCapacity(), cstr.getObjSup(), machines);
+			cstr.updateInfObj(PDR1Scheduler.EDD.globalCostFunction.getTotalCost());
 		}
 	}
 
@@ -26,12 +26,15 @@
  */
 package pisco.batch.choco.constraints;
 
+import pisco.batch.heuristics.MachineHeap;
 import pisco.batch.heuristics.PDRScheduler;
 import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.solver.ContradictionException;
 
 public final class TaskPunitWFlowF extends AbstractTaskPList {
 
+	private final MachineHeap machines = new MachineHeap();
+
 	public TaskPunitWFlowF(PBatchRelaxSConstraint cstr, boolean singleAndParallel) {
 		super(cstr, singleAndParallel);
 	}
@@ -39,7 +42,7 @@ public final class TaskPunitWFlowF extends AbstractTaskPList {
 	@Override
 	protected void filterParallelMachines() throws ContradictionException {
 		if(parallelSize() > 0 ) {
-			final int lb = PDRScheduler.parallelUnitSizedWFlowSchedule(taskPList, parallelSize(), cstr.data.getCapacity());
+			final int lb = PDRScheduler.parallelUnitSizedWFlowSchedule(taskPList, parallelSize(), cstr.data.getCapacity(), machines);
 			System.out.println(lb+" >?" + cstr.getObjSup());
 			//cstr.updateInfObj(lb);
 		}
@@ -29,6 +29,8 @@ package pisco.batch.choco.constraints.set;
 import choco.cp.solver.variables.set.SetVarEvent;
 import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.common.util.iterators.DisposableIntIterator;
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.memory.IStateInt;
 import choco.kernel.solver.ContradictionException;
 import choco.kernel.solver.constraints.set.AbstractMixedSetIntSConstraint;
 import choco.kernel.solver.variables.Var;
@@ -40,12 +42,24 @@ public class SetIntCombEq extends AbstractMixedSetIntSConstraint {
 	public final SetVar svar;
 	public int[] coeffs;
 	public final IntDomainVar ivar;
+
+	/**
+	 * sum of the coefficients of the kernel.
+	 */
+	private final IStateInt kernelSum;
+
+	/**
+	 * sum of the coefficients of the envelope.
+	 */
+	private final IStateInt envelopeSum;
 	
-	public SetIntCombEq(SetVar svar, IntDomainVar ivar, int[] coeffs) {
+	public SetIntCombEq(IEnvironment environment, SetVar svar, IntDomainVar ivar, int[] coeffs) {
 		super(new Var[]{svar, ivar});
 		this.svar = svar;
 		this.coeffs = coeffs;
 		this.ivar= ivar;
+		kernelSum = environment.makeInt(0);
+		envelopeSum = environment.makeInt(0);
 	}
 
 
@@ -59,14 +73,16 @@ public class SetIntCombEq extends AbstractMixedSetIntSConstraint {
 
 	@Override
 	public void awakeOnKer(int varIdx, int x) throws ContradictionException {
-		ivar.updateInf(ivar.getInf() + coeffs[x], this, false);
+		kernelSum.add(coeffs[x]);
+		ivar.updateInf(kernelSum.get(), this, false);
 	}
 
 
 
 	@Override
 	public void awakeOnEnv(int varIdx, int x) throws ContradictionException {
-		ivar.updateSup(ivar.getSup() - coeffs[x], this, false);
+		envelopeSum.add( - coeffs[x]);
+		ivar.updateSup(envelopeSum.get(), this, false);
 
 	}
 
@@ -94,8 +110,11 @@ public class SetIntCombEq extends AbstractMixedSetIntSConstraint {
 	}
 
 
+	/**
+	 * The sums are computed by scanning the envelope only on initial propagation, and then maintained by the events.
+	 */
 	@Override
-	public void propagate() throws ContradictionException {
+	public void awake() throws ContradictionException {
 		final DisposableIntIterator iter = svar.getDomain().getEnveloppeIterator();
 		int ksum = 0;
 		int esum = 0;
@@ -105,8 +124,15 @@ public class SetIntCombEq extends AbstractMixedSetIntSConstraint {
 			else esum += coeffs[x];
 		}
 		iter.dispose();
-		ivar.updateInf(ksum, this, false);
-		ivar.updateSup(ksum + esum, this, false);
+		kernelSum.set(ksum);
+		envelopeSum.set(ksum + esum);
+		propagate();
+	}
+
+	@Override
+	public void propagate() throws ContradictionException {
+		ivar.updateInf(kernelSum.get(), this, false);
+		ivar.updateSup(envelopeSum.get(), this, false);
 	}
 
 	@Override
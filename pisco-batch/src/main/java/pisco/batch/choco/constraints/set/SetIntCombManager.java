@@ -50,7 +50,7 @@ public class SetIntCombManager extends ConstraintManager {
 			Object parameters, List options) {
 		if (solver instanceof CPSolver) {
 			if (variables.length == 2 && parameters instanceof int[]) {
-				return new SetIntCombEq( solver.getVar( (SetVariable) variables[0]), solver.getVar((IntegerVariable) variables[1]), (int[]) parameters);
+				return new SetIntCombEq( solver.getEnvironment(), solver.getVar( (SetVariable) variables[0]), solver.getVar((IntegerVariable) variables[1]), (int[]) parameters);
 			}
 		}
 		return null;
@@ -30,6 +30,7 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
+import pisco.common.IJob;
 import choco.Choco;
 
 
@@ -37,8 +38,12 @@ public class Batch extends BJob {
 
 	protected final LinkedList<BJob> jobs = new LinkedList<BJob>();
 
+	/**
+	 * The new batch is empty (null weight).
+	 */
 	public Batch(int id) {
 		super(id);
+		reset();
 	}
 	
 	@Override
@@ -47,6 +52,15 @@ public class Batch extends BJob {
 		this.jobs.clear();
 	}
 
+	/**
+	 * The merged job is also recorded in the batch.
+	 */
+	@Override
+	public void parallelMerge(IJob j) {
+		super.parallelMerge(j);
+		this.jobs.add((BJob) j);
+	}
+
 	@Override
 	public final int getCardinality() {
 		return this.jobs.size();
@@ -26,10 +26,14 @@
  */
 package pisco.batch.data;
 
+import gnu.trove.TIntIntHashMap;
+
 import java.util.Arrays;
 import java.util.Comparator;
 
 import pisco.common.IJob;
+import pisco.common.PDR1Scheduler;
+import pisco.common.PriorityDispatchingRule;
 import choco.kernel.common.util.comparator.IPermutation;
 import choco.kernel.common.util.tools.ArrayUtils;
 import choco.kernel.common.util.tools.PermutationUtils;
@@ -67,6 +71,21 @@ public class BatchProcessingData {
 
 	private int[] indicesSortedByDueDate;
 
+	/**
+	 * distinct due dates in increasing order.
+	 */
+	private int[] distinctDueDates;
+
+	/**
+	 * rank of the due date of each job among the distinct due dates.
+	 */
+	private final int[] dueDateRanks;
+
+	/**
+	 * rank of each distinct due date plus one (the map returns 0 for a missing key).
+	 */
+	private final TIntIntHashMap dueDateRankMap;
+
 	public BatchProcessingData(BJob[] jobs, int capacity) {
 		super();
 		//store original array
@@ -78,6 +97,8 @@ public class BatchProcessingData {
 		dataPP=new int[DIM][3];
 		this.capacity = capacity;
 		indicesSortedByDueDate = new int[nbJobs];
+		dueDateRanks = new int[nbJobs];
+		dueDateRankMap = new TIntIntHashMap(nbJobs);
 	}
 	
 	public void forceUnitWeights() {
@@ -110,11 +131,27 @@ public class BatchProcessingData {
 		// FIXME - Use SortUtils - created 22 sept. 2011 by Arnaud Malapert
 		IPermutation sortByDueDates = PermutationUtils.getSortingPermuation(getDueDates());
 		indicesSortedByDueDate = sortByDueDates.applyPermutation(ArrayUtils.zeroToN(nbJobs));
+		compressDueDates();
 		if( getMaxSize() > capacity) {
 			throw new IllegalArgumentException("Invalid Instance Format : some sizes are strictly greater than the capacity");
 		}
 	}
 
+	private void compressDueDates() {
+		final int[] tmp = new int[nbJobs];
+		int rank = -1;
+		dueDateRankMap.clear();
+		for (int idx : indicesSortedByDueDate) {
+			final int dd = data[D][idx];
+			if(rank < 0 || tmp[rank] != dd) {
+				tmp[++rank] = dd;
+				dueDateRankMap.put(dd, rank + 1);
+			}
+			dueDateRanks[idx] = rank;
+		}
+		distinctDueDates = Arrays.copyOf(tmp, rank + 1);
+	}
+
 	private void preprocess(int t, int[] data) {
 		dataPP[t][MIN] = data[0];
 		dataPP[t][MAX] = data[0];
@@ -220,11 +257,80 @@ public class BatchProcessingData {
 		return capacity;
 	}
 
+	/**
+	 * @return the minimal number of non-empty batches. 
+	 */
+	public final int getMinNbBatches() {
+		return (getTotalSize() + capacity - 1) / capacity;
+	}
+
+	/**
+	 * The cost of a schedule with k non-empty batches is not smaller than the cost of k batches with the k smallest durations, the minimal weight and the maximal due date.
+	 * @return the maximal number of non-empty batches of a schedule whose cost is not greater than the upper bound (at least the minimal number of batches).
+	 */
+	public final int getMaxNbBatches(PriorityDispatchingRule rule, int upperBound) {
+		final int[] durations = Arrays.copyOf(data[P], nbJobs);
+		Arrays.sort(durations);
+		final BJob[] batches = new BJob[nbJobs];
+		for (int i = 0; i < nbJobs; i++) {
+			batches[i] = new BJob(i, durations[i], 1, getMinWeight(), getMaxDueDate());
+		}
+		final BJob[] schedule = new BJob[nbJobs];
+		//the cost is increasing with the number of batches
+		int lb = getMinNbBatches();
+		int ub = nbJobs;
+		while(lb < ub) {
+			final int m = (lb + ub + 1) >>> 1;
+			System.arraycopy(batches, 0, schedule, 0, m);
+			if(PDR1Scheduler.schedule(schedule, m, rule) <= upperBound) {
+				lb = m;
+			} else {
+				ub = m - 1;
+			}
+		}
+		return lb;
+	}
+
 	
 	public final int[] getIndicesSortedByDueDate() {
 		return indicesSortedByDueDate;
 	}
 
+	public final int getNbDistinctDueDates() {
+		return distinctDueDates.length;
+	}
+
+	/**
+	 * @return the distinct due dates in increasing order (do not modify).
+	 */
+	public final int[] getDistinctDueDates() {
+		return distinctDueDates;
+	}
+
+	public final int getDistinctDueDate(int rank) {
+		return distinctDueDates[rank];
+	}
+
+	/**
+	 * @return the rank of the due date of the job i among the distinct due dates.
+	 */
+	public final int getDueDateRank(int i) {
+		return dueDateRanks[i];
+	}
+
+	/**
+	 * @param dueDate the due date of some job
+	 * @return the rank of the due date among the distinct due dates.
+	 * @throws IllegalArgumentException if no job has this due date.
+	 */
+	public final int getRankOfDueDate(int dueDate) {
+		final int rank = dueDateRankMap.get(dueDate) - 1;
+		if(rank < 0) {
+			throw new IllegalArgumentException("Unknown due date: "+dueDate);
+		}
+		return rank;
+	}
+
 	private String displayInterval(int t) {
 		return "["+dataPP[t][MIN]+","+dataPP[t][MAX]+"]";
 	}
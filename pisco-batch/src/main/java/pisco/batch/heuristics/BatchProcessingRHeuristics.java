@@ -34,17 +34,64 @@ import java.util.Random;
 import pisco.batch.AbstractBatchingProblem;
 import pisco.batch.data.BJob;
 import pisco.batch.data.Batch;
+import pisco.common.PriorityDispatchingRule;
+import pisco.common.SequenceCostEvaluator;
 import choco.kernel.common.opres.heuristics.AbstractRandomizedHeuristic;
 
 
 public class BatchProcessingRHeuristics extends AbstractRandomizedHeuristic {
 
+	/**
+	 * maximal number of passes of the local search over all jobs.
+	 */
+	public final static int MAX_PASSES = 10;
+
 	private final AbstractBatchingProblem bpb;
 
 	private BJob[] jobs;
 
 	protected Batch[] batches;
 
+	private int nbBatches;
+
+	private int currentCost;
+
+	/**
+	 * batches indexed by their id (the array batches is sorted by the priority rule).
+	 */
+	private Batch[] batchesById;
+
+	/**
+	 * id of the batch of each job (indexed as the array jobs).
+	 */
+	private int[] batchOfJob;
+
+	/**
+	 * position of each batch (indexed by id) in the evaluated sequence.
+	 */
+	private int[] positions;
+
+	/**
+	 * candidate batches (indexed by id) evaluated by the local search.
+	 */
+	private Batch[] candidates;
+
+	private Batch[] sequence;
+
+	private Batch[] swapSequence;
+
+	private final Batch swapBatch = new Batch(-1);
+
+	private SequenceCostEvaluator evaluator;
+
+	private SequenceCostEvaluator swapEvaluator;
+
+	private Batch[] solution;
+
+	private int solutionSize;
+
+	private int solutionCost;
+
 	private final Random random = new Random();
 
 	public BatchProcessingRHeuristics(AbstractBatchingProblem bpp) {
@@ -53,9 +100,7 @@ public class BatchProcessingRHeuristics extends AbstractRandomizedHeuristic {
 	}
 
 	public final Batch[] getSolution() {
-		int l = batches.length - 1;
-		while(l >= 0 && batches[l].getDuration() == 0) {l--;}
-		return Arrays.copyOf(batches, l + 1);
+		return Arrays.copyOf(solution, solutionSize);
 	}
 
 	private final void resetBatches(int begin) {
@@ -67,44 +112,228 @@ public class BatchProcessingRHeuristics extends AbstractRandomizedHeuristic {
 	@Override
 	public void reset() {
 		super.reset();
-		bpb.getPriorityDispatchingRule().globalCostFunction.reset();
+		final PriorityDispatchingRule rule = bpb.getPriorityDispatchingRule();
+		rule.globalCostFunction.reset();
 		final int n = bpb.getN();
 		jobs = new BJob[n];
 		if(batches != null  && batches.length == n) {
 			resetBatches(0);
 		} else {
 			batches = new Batch[n];
+			batchesById = new Batch[n];
+			candidates = new Batch[n];
+			solution = new Batch[n];
 			for (int k = 0; k < n; k++) {
 				batches[k] = new Batch(k);
+				batchesById[k] = batches[k];
+				candidates[k] = new Batch(k);
+				solution[k] = new Batch(k);
 			}
+			batchOfJob = new int[n];
+			positions = new int[n];
+			sequence = new Batch[n];
+			swapSequence = new Batch[n];
 		}
+		evaluator = new SequenceCostEvaluator(rule);
+		swapEvaluator = new SequenceCostEvaluator(rule);
+		solutionSize = 0;
+		solutionCost = Integer.MAX_VALUE;
 	}
 
 	// DONE 21 sept. 2011 - Improve by packing and then OPTIMALLY Scheduling batches ! - created 21 sept. 2011 by Arnaud Malapert
 	public final int apply(BJob[] jobs, int bestsol) {
 		final int n = bpb.getN();
+		if( n == 0) {
+			return Integer.MAX_VALUE;
+		}
+		final int c = bpb.getData().getCapacity();
 		int nbB = 0;
-		if( n > 0) {
-			final int c = bpb.getData().getCapacity();
-			int j = 0;
+		int j = 0;
+		do {
+			batches[nbB].clear();
 			do {
-				batches[nbB].clear();
-				do {
-					batches[nbB].parallelMerge(jobs[j++]);
-				} while( j < n && batches[nbB].canPack(jobs[j], c));
-				nbB++;
-			}while(j < n);
-		}
+				batchOfJob[j] = batches[nbB].getId();
+				batches[nbB].parallelMerge(jobs[j++]);
+			} while( j < n && batches[nbB].canPack(jobs[j], c));
+			nbB++;
+		}while(j < n);
 		resetBatches(nbB);
-		// TODO - No more scheduling step ! - created 3 avr. 2012 by A. Malapert
-//		if(  PDRScheduler.lazySequence(batches, nbB, bpb.getPriorityDispatchingRule(), bestsol)) {
-//			bpb.getPriorityDispatchingRule().getGlobalCostFunction().getTotalCost();
-//		} else {
-//			resetBatches(0);
+		// DONE - The batches are optimally scheduled and then improved by moving or swapping jobs. 
+		schedule();
+		improve(jobs, c);
+		if(currentCost <= bestsol) {
+			if(currentCost < solutionCost) {
+				storeSolution();
+			}
+			return currentCost;
+		} else {
 			return Integer.MAX_VALUE;
-//		}
+		}
 	}
 
+	/**
+	 * Sort the non-empty batches by the priority rule and load the evaluator. 
+	 */
+	private void schedule() {
+		nbBatches = 0;
+		for (int k = 0; k < batches.length; k++) {
+			if(batches[k].getCardinality() > 0) {
+				final Batch b = batches[nbBatches];
+				batches[nbBatches++] = batches[k];
+				batches[k] = b;
+			}
+		}
+		Arrays.sort(batches, 0, nbBatches, bpb.getPriorityDispatchingRule().priorityRule);
+		for (int k = 0; k < nbBatches; k++) {
+			positions[batches[k].getId()] = k;
+		}
+		currentCost = evaluator.load(batches, nbBatches);
+	}
+
+	private void storeSolution() {
+		PDRScheduler.lazySequence(batches, nbBatches, bpb.getPriorityDispatchingRule(), Integer.MAX_VALUE);
+		for (int k = 0; k < nbBatches; k++) {
+			copy(solution[k], batches[k]);
+			solution[k].setStartingTime(batches[k].getStartingTime());
+		}
+		solutionSize = nbBatches;
+		solutionCost = currentCost;
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Local search  ////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	private static void copy(Batch target, Batch source) {
+		target.clear();
+		for (BJob job : source.getJobs()) {
+			target.parallelMerge(job);
+		}
+	}
+
+	/**
+	 * build the batch target by removing a job from the source batch and adding another one (both can be null).
+	 */
+	private static void rebuild(Batch target, Batch source, BJob removed, BJob added) {
+		target.clear();
+		for (BJob job : source.getJobs()) {
+			if(job != removed) {
+				target.parallelMerge(job);
+			}
+		}
+		if(added != null) {
+			target.parallelMerge(added);
+		}
+	}
+
+	/**
+	 * First improvement over jobs, best improvement over the moves of a job.
+	 */
+	private void improve(BJob[] jobs, int capacity) {
+		int pass = 0;
+		boolean improved;
+		do {
+			improved = false;
+			for (int i = 0; i < jobs.length; i++) {
+				if( improveJob(jobs, i, capacity)) {
+					improved = true;
+				}
+			}
+		} while(improved && ++pass < MAX_PASSES);
+	}
+
+	/**
+	 * Try to move the job into another batch (possibly a new one) or to swap it with a job of another batch.
+	 * The moves are evaluated incrementally on the sequence in which the job has been removed from its batch.
+	 * @return <code>true</code> if the schedule has been improved.
+	 */
+	private boolean improveJob(BJob[] jobs, int i, int capacity) {
+		final PriorityDispatchingRule rule = bpb.getPriorityDispatchingRule();
+		final BJob job = jobs[i];
+		final int a = batchOfJob[i];
+		final Batch residual = candidates[a];
+		rebuild(residual, batchesById[a], job, null);
+		//sequence without the job (an empty batch does not contribute to the cost)
+		System.arraycopy(batches, 0, sequence, 0, nbBatches);
+		sequence[positions[a]] = residual;
+		Arrays.sort(sequence, 0, nbBatches, rule.priorityRule);
+		evaluator.load(sequence, nbBatches);
+		int bestCost = currentCost;
+		int bestTarget = -1;
+		BJob bestSwap = null;
+		for (int k = 0; k < nbBatches; k++) {
+			final Batch b = sequence[k];
+			final int id = b.getId();
+			if(id == a) continue;
+			final Batch candidate = candidates[id];
+			//move the job into the batch b
+			if(b.getSize() + job.getSize() <= capacity) {
+				rebuild(candidate, b, null, job);
+				final int cost = PDRScheduler.replace(evaluator, sequence, nbBatches, rule, k, candidate);
+				if(cost < bestCost) {
+					bestCost = cost;
+					bestTarget = id;
+					bestSwap = null;
+				}
+			}
+			//swap the job with a job of the batch b
+			for (BJob other : b.getJobs()) {
+				if( residual.getSize() + other.getSize() <= capacity && 
+						b.getSize() - other.getSize() + job.getSize() <= capacity) {
+					rebuild(candidate, b, other, job);
+					//lower bound since adding the other job to the residual batch cannot decrease the cost.
+					if(PDRScheduler.replace(evaluator, sequence, nbBatches, rule, k, candidate) < bestCost) {
+						rebuild(swapBatch, residual, null, other);
+						System.arraycopy(sequence, 0, swapSequence, 0, nbBatches);
+						swapSequence[k] = candidate;
+						for (int l = 0; l < nbBatches; l++) {
+							if(swapSequence[l] == residual) {
+								swapSequence[l] = swapBatch;
+								break;
+							}
+						}
+						Arrays.sort(swapSequence, 0, nbBatches, rule.priorityRule);
+						final int cost = swapEvaluator.load(swapSequence, nbBatches);
+						if(cost < bestCost) {
+							bestCost = cost;
+							bestTarget = id;
+							bestSwap = other;
+						}
+					}
+				}
+			}
+		}
+		//open a new batch
+		if(nbBatches < batches.length && residual.getCardinality() > 0) {
+			final Batch candidate = candidates[batches[nbBatches].getId()];
+			candidate.clear();
+			candidate.parallelMerge(job);
+			final int cost = PDRScheduler.insert(evaluator, sequence, nbBatches, rule, candidate);
+			if(cost < bestCost) {
+				bestCost = cost;
+				bestTarget = candidate.getId();
+				bestSwap = null;
+			}
+		}
+		if(bestTarget < 0) {
+			return false;
+		}
+		//apply the best move
+		final Batch source = batchesById[a];
+		final Batch target = batchesById[bestTarget];
+		rebuild(residual, source, job, bestSwap);
+		copy(source, residual);
+		rebuild(candidates[bestTarget], target, bestSwap, job);
+		copy(target, candidates[bestTarget]);
+		batchOfJob[i] = bestTarget;
+		if(bestSwap != null) {
+			int l = 0;
+			while(jobs[l] != bestSwap) {l++;}
+			batchOfJob[l] = a;
+		}
+		schedule();
+		return true;
+	}
 
 	@Override
 	protected int apply(int iteration, int bestsol, int seed) {
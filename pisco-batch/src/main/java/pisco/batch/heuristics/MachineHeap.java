@@ -0,0 +1,150 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.batch.heuristics;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of the availability times of identical parallel machines.
+ * The buffer is reused as long as the number of machines does not increase.
+ * A common delay of all machines is stored apart, so that full rounds of unit tasks are scheduled at once.
+ */
+public final class MachineHeap {
+
+	private int[] times = new int[0];
+
+	private int size;
+
+	/**
+	 * delay of all machines (not stored in the heap).
+	 */
+	private int offset;
+
+	/**
+	 * latest availability time (without the offset).
+	 */
+	private int maximum;
+
+	/**
+	 * sum of the availability times (without the offset).
+	 */
+	private long sum;
+
+	public MachineHeap() {
+		super();
+	}
+
+	public MachineHeap(int m) {
+		super();
+		reset(m);
+	}
+
+	/**
+	 * all machines are available at time 0.
+	 */
+	public void reset(int m) {
+		if(times.length < m) {
+			times = new int[m];
+		} else {
+			Arrays.fill(times, 0, m, 0);
+		}
+		size = m;
+		offset = 0;
+		maximum = 0;
+		sum = 0;
+	}
+
+	public final int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the earliest availability time of a machine.
+	 */
+	public final int getMinimum() {
+		return times[0] + offset;
+	}
+
+	/**
+	 * @return the latest availability time of a machine.
+	 */
+	public final int getMaximum() {
+		return maximum + offset;
+	}
+
+	/**
+	 * the earliest available machine becomes available at the given time (not smaller than the minimum).
+	 */
+	public void replaceMinimum(int time) {
+		time -= offset;
+		assert time >= times[0];
+		sum += time - times[0];
+		if(time > maximum) maximum = time;
+		int i = 0;
+		int child = 1;
+		while(child < size) {
+			if(child + 1 < size && times[child + 1] < times[child]) {
+				child++;
+			}
+			if(times[child] >= time) {
+				break;
+			}
+			times[i] = times[child];
+			i = child;
+			child = 2 * i + 1;
+		}
+		times[i] = time;
+	}
+
+	/**
+	 * List scheduling of unit tasks: each unit task is scheduled on the earliest available machine.
+	 * The full rounds are scheduled at once, so it takes O(log m) for each unit task of the last round.
+	 * @return the sum of the completion times of the unit tasks.
+	 */
+	public long scheduleUnitTasks(long units) {
+		final long rounds = units / size;
+		//each machine processes the unit tasks of the full rounds one after the other.
+		long total = rounds * ( sum + (long) size * offset ) + size * rounds * (rounds + 1) / 2;
+		offset += (int) rounds;
+		for (int k = (int) (units % size); k > 0; k--) {
+			final int time = getMinimum() + 1;
+			total += time;
+			replaceMinimum(time);
+		}
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		final int[] values = Arrays.copyOf(times, size);
+		for (int i = 0; i < size; i++) {
+			values[i] += offset;
+		}
+		return Arrays.toString(values);
+	}
+
+}
@@ -34,6 +34,7 @@ import java.util.Arrays;
 import pisco.batch.data.BJob;
 import pisco.common.PDR1Scheduler;
 import pisco.common.PriorityDispatchingRule;
+import pisco.common.SequenceCostEvaluator;
 
 
 
@@ -120,6 +121,41 @@ public final class PDRScheduler {
 		return rule.globalCostFunction.getTotalCost();
 	}
 
+	/**
+	 * Same as {@link #replace(BJob[], int, PriorityDispatchingRule, BJob)} where the evaluator has loaded the schedule 
+	 * and the position of the replaced job is known.
+	 */
+	public static int replace(SequenceCostEvaluator evaluator, BJob[] schedule,  int n, PriorityDispatchingRule rule, int cpos, BJob job) {
+		assert(schedule[cpos].getId() == job.getId());
+		//find its new position
+		int npos = cpos;
+		while(npos -1 >= 0 && rule.priorityRule.compare(schedule[npos-1], job) > 0) {
+			npos--;
+		}
+		while(npos + 1 < n && rule.priorityRule.compare(schedule[npos+1], job) < 0) {
+			npos++;
+		}
+		return evaluator.getTotalCost() + evaluator.getReplaceDelta(cpos, npos, job);
+	}
+
+	/**
+	 * Same as {@link #insert(BJob[], int, PriorityDispatchingRule, BJob...)} for a single job where the evaluator has loaded the schedule.
+	 */
+	public static int insert(SequenceCostEvaluator evaluator, BJob[] schedule,  int n, PriorityDispatchingRule rule, BJob job) {
+		//binary search of the first job which is greater than the new job
+		int lo = 0;
+		int hi = n;
+		while(lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if(rule.priorityRule.compare(schedule[mid], job) > 0) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		return evaluator.getTotalCost() + evaluator.getAddDelta(lo, job);
+	}
+
 	public static int insert(BJob[] schedule,  int n, PriorityDispatchingRule rule, BJob... jobs) {
 		return insert(schedule, n, rule, jobs, jobs.length);
 	}
@@ -163,78 +199,155 @@ public final class PDRScheduler {
 	//*******************  parallel machine scheduling ***************//
 	//***************************************************************//
 
+	/**
+	 * List scheduling: each job is scheduled on the earliest available machine in O(n log m).
+	 */
 	public static int parallelSequence(BJob[] jobs,int n, int m, PriorityDispatchingRule rule) {
+		return parallelSequence(jobs, n, m, rule, new MachineHeap());
+	}
+
+	/**
+	 * The heap of machines is reused.
+	 */
+	public static int parallelSequence(BJob[] jobs,int n, int m, PriorityDispatchingRule rule, MachineHeap machines) {
 		assert n<= jobs.length;
-		int j = 0;
-		int[] machines = new int[m];
+		machines.reset(m);
 		rule.globalCostFunction.reset();
-		// TODO - Not scheduling all jobs ! - created 3 avr. 2012 by A. Malapert
-		for (int k = 0; k < m; k++) {
-			if(j >= n) break;
-			jobs[j].setStartingTime(machines[k]);
+		for (int j = 0; j < n; j++) {
+			jobs[j].setStartingTime(machines.getMinimum());
 			rule.globalCostFunction.addCost(rule.costFunction.getCost(jobs[j]));
-			machines[k] = jobs[j].getCompletionTime();
-			j++;
+			machines.replaceMinimum(jobs[j].getCompletionTime());
 		}
 		return rule.globalCostFunction.getTotalCost();		
 	}
 
-
+	/**
+	 * the algorithm fails as soon as the objective value of the schedule exceeds the upper bound.
+	 * @return a potentially incomplete schedule.
+	 */
+	public static boolean lazyParallelSequence(BJob[] jobs,int n, int m, PriorityDispatchingRule rule, int uppBound, MachineHeap machines) {
+		assert n<= jobs.length;
+		machines.reset(m);
+		rule.globalCostFunction.reset();
+		for (int j = 0; j < n; j++) {
+			jobs[j].setStartingTime(machines.getMinimum());
+			rule.globalCostFunction.addCost(rule.costFunction.getCost(jobs[j]));
+			if(rule.globalCostFunction.getTotalCost() > uppBound) return false;
+			machines.replaceMinimum(jobs[j].getCompletionTime());
+		}
+		return true;		
+	}
 
 	public static int parallelSchedule(BJob[] jobs, int n, int m, PriorityDispatchingRule rule) {
 		Arrays.sort(jobs, 0, n, rule.priorityRule);
 		return parallelSequence(jobs, n, m, rule);		
 	}
 
+	public static int parallelSchedule(BJob[] jobs, int n, int m, PriorityDispatchingRule rule, MachineHeap machines) {
+		Arrays.sort(jobs, 0, n, rule.priorityRule);
+		return parallelSequence(jobs, n, m, rule, machines);		
+	}
+
+	public static boolean lazyParallelSchedule(BJob[] jobs, int n, int m, PriorityDispatchingRule rule, int uppBound, MachineHeap machines) {
+		Arrays.sort(jobs, 0, n, rule.priorityRule);
+		return lazyParallelSequence(jobs, n, m, rule, uppBound, machines);		
+	}
+
 	public static int parallelUnitSizedLmaxSchedule(BJob[] jobs, int n, int m) {
 		Arrays.sort(jobs, 0, n, PDR1Scheduler.EDD.priorityRule);
 		return parallelUnitSizedLmaxSequence(jobs, n, m);
 	}
 	
+	/**
+	 * The unit tasks of the jobs are scheduled in a round-robin fashion, so the machine of the last unit task of a job is known.
+	 */
 	public static int parallelUnitSizedLmaxSequence(BJob[] jobs, int n, int m) {
 		assert n<= jobs.length;
 		PDR1Scheduler.EDD.globalCostFunction.reset();	
-		int[] machines = new int[m];
-		int k = 0;
+		long units = 0;
 		for (int j = 0; j < n; j++) {
-			//TODO on peut calculer directement le dcalage
-			for (int p = 0; p < jobs[j].getDuration(); p++) {
-				for (int s = 0; s < jobs[j].getSize(); s++) {
-					machines[k]++; 
-					k = k < m - 1 ? k+1 : 0;
-				}
-			}
-			PDR1Scheduler.EDD.globalCostFunction.addCost( PDR1Scheduler.EDD.costFunction.getCost(jobs[j], machines[k == 0 ? m-1 : k - 1]));
+			units += (long) jobs[j].getDuration() * jobs[j].getSize();
+			//completion time of the last unit task
+			final int ctime = (int) ( (units + m - 1) / m);
+			PDR1Scheduler.EDD.globalCostFunction.addCost( PDR1Scheduler.EDD.costFunction.getCost(jobs[j], ctime));
 		}
 		return PDR1Scheduler.EDD.globalCostFunction.getTotalCost();		
 	}
 	
+	public static boolean lazyParallelUnitSizedLmaxSchedule(BJob[] jobs, int n, int m, int uppBound, MachineHeap machines) {
+		Arrays.sort(jobs, 0, n, PDR1Scheduler.EDD.priorityRule);
+		return lazyParallelUnitSizedLmaxSequence(jobs, n, m, uppBound, machines);
+	}
+
+	/**
+	 * Same as {@link #parallelUnitSizedLmaxSequence(BJob[], int, int)} where the unit tasks are list-scheduled on the heap of machines.
+	 * The algorithm fails as soon as the maximal lateness exceeds the upper bound.
+	 * @return <code>false</code> if the lower bound, given by the global cost function of EDD, exceeds the upper bound.
+	 */
+	public static boolean lazyParallelUnitSizedLmaxSequence(BJob[] jobs, int n, int m, int uppBound, MachineHeap machines) {
+		assert n<= jobs.length;
+		machines.reset(m);
+		PDR1Scheduler.EDD.globalCostFunction.reset();	
+		for (int j = 0; j < n; j++) {
+			machines.scheduleUnitTasks( (long) jobs[j].getDuration() * jobs[j].getSize());
+			//completion time of the last unit task
+			PDR1Scheduler.EDD.globalCostFunction.addCost( PDR1Scheduler.EDD.costFunction.getCost(jobs[j], machines.getMaximum()));
+			if(PDR1Scheduler.EDD.globalCostFunction.getTotalCost() > uppBound) return false;
+		}
+		return true;		
+	}
+
 	public static boolean testParallelpmtnSizedLmax(BJob[] jobs, int n, int m) {
 		return false;
 		//return schedule(jobs, getEarliestDueDate(), getLateness(), makeMaxCosts());
 	}
 
 	
+	private final static double UNIT_COST_TOLERANCE = 1e-9;
+
 	public static int parallelUnitSizedWFlowSchedule(BJob[] jobs, int n, int m) {
-		
 		assert n<= jobs.length;
 		Arrays.sort(jobs, 0, n, getDecreasingParallelUnitWeight());
-		double totalCost = 0;	
-		int[] machines = new int[m];
-		int k = 0;
+		//the integral and fractional parts are summed separately to avoid rounding errors.
+		long integralCost = 0;
+		double fractionalCost = 0;	
+		long units = 0;
 		for (int j = 0; j < n; j++) {
-			final double w = ( (double) jobs[j].getWeight() ) / ( jobs[j].getDuration() * jobs[j].getSize());
-			//TODO on peut calculer directement le dcalage 
-			for (int p = 0; p < jobs[j].getDuration(); p++) {
-				for (int s = 0; s < jobs[j].getSize(); s++) {
-					machines[k]++; 
-					totalCost += w * machines[k];
-					k = k < m - 1 ? k+1 : 0;
-				}
-			}
+			final long area = (long) jobs[j].getDuration() * jobs[j].getSize();
+			//the weight is shared by the unit tasks of the job.
+			final long cost = (long) jobs[j].getWeight() * ( unitCompletionTimes(units + area, m) - unitCompletionTimes(units, m) );
+			integralCost += cost / area;
+			fractionalCost += ( (double) (cost % area) ) / area;
+			units += area;
+		}
+		//the objective is integral (the tolerance keeps a valid lower bound).
+		return (int) (integralCost + (long) Math.ceil(fractionalCost - UNIT_COST_TOLERANCE));	
+	}
+
+	/**
+	 * Same as {@link #parallelUnitSizedWFlowSchedule(BJob[], int, int)} where the unit tasks are list-scheduled on the heap of machines.
+	 */
+	public static int parallelUnitSizedWFlowSchedule(BJob[] jobs, int n, int m, MachineHeap machines) {
+		assert n<= jobs.length;
+		Arrays.sort(jobs, 0, n, getDecreasingParallelUnitWeight());
+		machines.reset(m);
+		long integralCost = 0;
+		double fractionalCost = 0;	
+		for (int j = 0; j < n; j++) {
+			final long area = (long) jobs[j].getDuration() * jobs[j].getSize();
+			final long cost = (long) jobs[j].getWeight() * machines.scheduleUnitTasks(area);
+			integralCost += cost / area;
+			fractionalCost += ( (double) (cost % area) ) / area;
 		}
-		// TODO - Ceil ? - created 3 avr. 2012 by A. Malapert
-		return (int) Math.ceil(totalCost);	
+		return (int) (integralCost + (long) Math.ceil(fractionalCost - UNIT_COST_TOLERANCE));	
+	}
+
+	/**
+	 * @return the sum of the completion times of the first unit tasks scheduled in a round-robin fashion.
+	 */
+	private static long unitCompletionTimes(long units, int m) {
+		final long q = units / m;
+		return m * q * (q + 1) / 2 + (units % m) * (q + 1);
 	}
 
 	
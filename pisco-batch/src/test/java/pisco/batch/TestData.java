@@ -33,9 +33,11 @@ import java.io.File;
 import org.junit.Test;
 
 import parser.absconparseur.tools.UnsupportedConstraintException;
+import pisco.batch.data.Batch;
 import pisco.batch.data.BatchParser;
 import pisco.batch.data.BatchProcessingData;
 import pisco.batch.data.BJob;
+import pisco.common.PDR1Scheduler;
 import static pisco.common.JobComparators.*;
 
 public class TestData {
@@ -57,6 +59,60 @@ public class TestData {
 		assertEquals(4, data.getJob(1).getId());
 		assertEquals(1, data.getJob(2).getId());
 		assertEquals(2, data.getJob(3).getId());
+
+		assertEquals(3, data.getNbDistinctDueDates());
+		assertEquals(3, data.getDistinctDueDate(0));
+		assertEquals(10, data.getDistinctDueDate(2));
+		assertEquals(1, data.getDueDateRank(0));
+		assertEquals(2, data.getDueDateRank(1));
+		assertEquals(2, data.getDueDateRank(2));
+		assertEquals(0, data.getDueDateRank(3));
+		assertEquals(1, data.getRankOfDueDate(5));
+		assertEquals(0, data.getRankOfDueDate(3));
+	}
+
+	@Test
+	public void testBatchMerge() {
+		final Batch batch = new Batch(0);
+		batch.parallelMerge(jobs[0]);
+		batch.parallelMerge(jobs[1]);
+		//the merged jobs are recorded
+		assertEquals(2, batch.getCardinality());
+		assertEquals(jobs[0], batch.getJob(0));
+		assertEquals(jobs[1], batch.getJob(1));
+		assertEquals(5, batch.getDuration());
+		assertEquals(7, batch.getSize());
+		assertEquals(3, batch.getWeight());
+		assertEquals(3, batch.getDueDate());
+		batch.clear();
+		assertEquals(0, batch.getCardinality());
+		batch.parallelMerge(jobs[3]);
+		assertEquals(1, batch.getCardinality());
+		assertEquals(10, batch.getDueDate());
+		assertEquals(6, batch.getDuration());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testUnknownDueDate() {
+		BatchProcessingData data = new BatchProcessingData(jobs, 10);
+		data.preprocess(getDecreasingSize());
+		data.getRankOfDueDate(4);
+	}
+	
+	@Test
+	public void testNbBatches() {
+		BatchProcessingData data = new BatchProcessingData(jobs, 10);
+		data.preprocess(getDecreasingSize());
+		assertEquals(2, data.getMinNbBatches());
+		//Lmax lower bounds : -3, 2, 8
+		assertEquals(2, data.getMaxNbBatches(PDR1Scheduler.EDD, -100));
+		assertEquals(2, data.getMaxNbBatches(PDR1Scheduler.EDD, 1));
+		assertEquals(3, data.getMaxNbBatches(PDR1Scheduler.EDD, 2));
+		assertEquals(4, data.getMaxNbBatches(PDR1Scheduler.EDD, 8));
+		//weighted flowtime lower bounds : 10, 22, 40
+		assertEquals(2, data.getMaxNbBatches(PDR1Scheduler.WSPT, 21));
+		assertEquals(3, data.getMaxNbBatches(PDR1Scheduler.WSPT, 22));
+		assertEquals(4, data.getMaxNbBatches(PDR1Scheduler.WSPT, 40));
 	}
 	
 	@Test(expected=IllegalArgumentException.class)
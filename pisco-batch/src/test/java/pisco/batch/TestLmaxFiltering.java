@@ -32,6 +32,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.util.Iterator;
+import java.util.Random;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -39,14 +40,19 @@ import org.junit.Test;
 
 import parser.absconparseur.tools.UnsupportedConstraintException;
 import pisco.batch.BatchSettings.PropagagationLevel;
+import pisco.batch.choco.constraints.ParallelLmaxFlowGraph;
+import pisco.batch.choco.constraints.StoredSparseSet;
+import pisco.batch.data.BJob;
 import choco.cp.solver.CPSolver;
 import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.common.logging.Verbosity;
 import choco.kernel.model.Model;
 import choco.kernel.model.constraints.Constraint;
+import choco.kernel.memory.trailing.EnvironmentTrailing;
 import choco.kernel.model.constraints.ConstraintType;
 import choco.kernel.solver.ContradictionException;
 import choco.kernel.solver.Solver;
+import choco.kernel.solver.SolverException;
 import choco.kernel.solver.variables.integer.IntDomainVar;
 
 public class TestLmaxFiltering {
@@ -258,4 +264,136 @@ public class TestLmaxFiltering {
 		solver.propagate();
 	}
 
+	@Test
+	public void testParallelLmaxFlowGraph() {
+		final int[] dueDates = new int[] { 10, 15, 20, 12, 35};
+		final ParallelLmaxFlowGraph graph = new ParallelLmaxFlowGraph(dueDates, 10);
+		graph.setMaximalLateness(20);
+		graph.addJob(new BJob(1, 10, dueDates[2]));
+		graph.addJob(new BJob(2, 5, dueDates[1]));
+		graph.addJob(new BJob(3, 15, 3, 1, dueDates[4]));
+		graph.close();
+		assertEquals(60, graph.computeSourceCutCapacity());
+		assertEquals(60, graph.maxFlow());
+		// the graph is reusable after a reset
+		graph.reset();
+		graph.addJob(new BJob(1, 10, 10, 1, 10));
+		graph.addJob(new BJob(2, 5, 1, 1, 12));
+		graph.close();
+		assertEquals(105, graph.computeSourceCutCapacity());
+		assertEquals(102, graph.maxFlow());
+	}
+
+	@Test(expected=SolverException.class)
+	public void testParallelLmaxFlowGraphOverflow() {
+		final int[] dueDates = new int[] { 10 };
+		final ParallelLmaxFlowGraph graph = new ParallelLmaxFlowGraph(dueDates, 1 << 16);
+		graph.setMaximalLateness(0);
+		graph.addJob(new BJob(1, 1 << 16, 1 << 16, 1, dueDates[0]));
+	}
+
+	@Test
+	public void testParallelLmaxFlowGraphWarmStart() {
+		final Random rnd = new Random(0);
+		final int n = 20;
+		final BJob[] jobs = new BJob[n];
+		final int[] dueDates = new int[n];
+		for (int i = 0; i < n; i++) {
+			dueDates[i] = rnd.nextInt(50);
+			jobs[i] = new BJob(i, 1 + rnd.nextInt(10), 1 + rnd.nextInt(4), 1, dueDates[i]);
+		}
+		final ParallelLmaxFlowGraph warm = new ParallelLmaxFlowGraph(dueDates, 4);
+		final ParallelLmaxFlowGraph cold = new ParallelLmaxFlowGraph(dueDates, 4);
+		final boolean[] added = new boolean[n];
+		for (int k = 0; k < 50; k++) {
+			final int lmax = rnd.nextInt(40);
+			warm.reset();
+			warm.setMaximalLateness(lmax);
+			for (int i = 0; i < n; i++) {
+				added[i] = rnd.nextInt(3) > 0;
+				if(added[i]) {
+					warm.addJob(i, jobs[i]);
+				}
+			}
+			warm.close();
+			assertEquals(coldMaxFlow(cold, jobs, added, lmax), warm.maxFlow());
+			// change the maximal lateness of the closed graph
+			final int lmax2 = rnd.nextInt(40);
+			warm.setMaximalLateness(lmax2);
+			assertEquals(coldMaxFlow(cold, jobs, added, lmax2), warm.maxFlow());
+		}
+	}
+
+	@Test
+	public void testParallelLmaxFlowGraphSearch() {
+		final Random rnd = new Random(1);
+		final int n = 15;
+		final BJob[] jobs = new BJob[n];
+		final int[] dueDates = new int[n];
+		for (int i = 0; i < n; i++) {
+			dueDates[i] = rnd.nextInt(30);
+			jobs[i] = new BJob(i, 1 + rnd.nextInt(10), 1 + rnd.nextInt(3), 1, dueDates[i]);
+		}
+		final ParallelLmaxFlowGraph graph = new ParallelLmaxFlowGraph(dueDates, 3);
+		final ParallelLmaxFlowGraph cold = new ParallelLmaxFlowGraph(dueDates, 3);
+		final boolean[] added = new boolean[n];
+		for (int k = 0; k < 20; k++) {
+			graph.reset();
+			graph.setMaximalLateness(100);
+			int demand = 0;
+			for (int i = 0; i < n; i++) {
+				added[i] = rnd.nextInt(2) > 0;
+				if(added[i]) {
+					graph.addJob(i, jobs[i]);
+					demand += jobs[i].getDuration() * jobs[i].getSize();
+				}
+			}
+			graph.close();
+			int lmax = -30;
+			while(lmax <= 100 && coldMaxFlow(cold, jobs, added, lmax) < demand) {
+				lmax++;
+			}
+			assertEquals(lmax, graph.searchMaximalLateness(-30, 100, demand));
+			// infeasible interval
+			assertEquals(lmax, graph.searchMaximalLateness(lmax - 10, lmax - 1, demand));
+		}
+	}
+
+	@Test
+	public void testStoredSparseSet() {
+		final EnvironmentTrailing env = new EnvironmentTrailing();
+		final StoredSparseSet set = new StoredSparseSet(env, 6);
+		assertEquals(6, set.size());
+		env.worldPush();
+		assertTrue(set.remove(2));
+		assertFalse(set.remove(2));
+		// remove during a decreasing iteration
+		for (int i = set.size() - 1; i >= 0; i--) {
+			if(set.get(i) % 2 == 1) {
+				assertTrue(set.remove(set.get(i)));
+			}
+		}
+		assertEquals(2, set.size());
+		assertTrue(set.contains(0));
+		assertTrue(set.contains(4));
+		assertFalse(set.contains(3));
+		env.worldPop();
+		assertEquals(6, set.size());
+		for (int i = 0; i < 6; i++) {
+			assertTrue(set.contains(i));
+		}
+	}
+
+	private static int coldMaxFlow(ParallelLmaxFlowGraph graph, BJob[] jobs, boolean[] added, int lmax) {
+		graph.reset();
+		graph.setMaximalLateness(lmax);
+		for (int i = 0; i < jobs.length; i++) {
+			if(added[i]) {
+				graph.addJob(jobs[i]);
+			}
+		}
+		graph.close();
+		return graph.maxFlow();
+	}
+
 }
\ No newline at end of file
@@ -26,17 +26,32 @@
  */
 package pisco.batch;
 
+import java.io.File;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
 
 import junit.framework.Assert;
 
 import org.junit.Test;
 
+import parser.absconparseur.tools.UnsupportedConstraintException;
+
 import choco.kernel.common.util.tools.ArrayUtils;
 
 import pisco.batch.data.BJob;
+import pisco.batch.data.Batch;
+import pisco.batch.data.BatchProcessingData;
+import pisco.batch.heuristics.BatchProcessingRHeuristics;
+import pisco.batch.heuristics.MachineHeap;
 import pisco.common.PDR1Scheduler;
+import pisco.common.PriorityDispatchingRule;
+import pisco.common.SequenceCostEvaluator;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static pisco.batch.heuristics.PDRScheduler.*;
 import static pisco.common.CostFactory.*;
 import static pisco.common.JobComparators.*;
@@ -104,7 +119,11 @@ public class TestPDR {
 		final BJob[] cschedule = copy(schedule);
 		PDR1Scheduler.schedule1WFlow(cschedule);
 		assertEquals(vf, replace(cschedule, cschedule.length, PDR1Scheduler.WSPT, job));
-		
+		int cpos = 0;
+		while(cschedule[cpos].getId() != job.getId()) {cpos++;}
+		final SequenceCostEvaluator evaluator = new SequenceCostEvaluator(PDR1Scheduler.WSPT);
+		evaluator.load(cschedule, cschedule.length);
+		assertEquals(vf, replace(evaluator, cschedule, cschedule.length, PDR1Scheduler.WSPT, cpos, job));
 	}
 	@Test
 	public void testReplacements() {
@@ -138,7 +157,12 @@ public class TestPDR {
 		PDR1Scheduler.schedule1WFlow(cschedule);
 		Arrays.sort(newJobs, getWeightedShortestProcessingTime());
 		assertEquals(vf, insert(cschedule, cschedule.length, PDR1Scheduler.WSPT, newJobs));
-		
+		final SequenceCostEvaluator evaluator = new SequenceCostEvaluator(PDR1Scheduler.WSPT);
+		evaluator.load(cschedule, cschedule.length);
+		for (BJob job : newJobs) {
+			assertEquals(insert(cschedule, cschedule.length, PDR1Scheduler.WSPT, job), 
+					insert(evaluator, cschedule, cschedule.length, PDR1Scheduler.WSPT, job));
+		}
 	}
 
 	// DONE 14 nov. 2011 - Test Parallel Schedulers - created 6 nov. 2011 by Arnaud Malapert
@@ -155,4 +179,179 @@ public class TestPDR {
 		assertEquals(78, parallelUnitSizedWFlowSchedule(INST2, INST2.length, 10));
 	}
 
+	@Test
+	public void testParallelUnitSizedHeap() {
+		final MachineHeap machines = new MachineHeap();
+		final Random rnd = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			final BJob[] jobs = new BJob[1 + rnd.nextInt(30)];
+			for (int j = 0; j < jobs.length; j++) {
+				jobs[j] = new BJob(j, 1 + rnd.nextInt(20), 1 + rnd.nextInt(10), 1 + rnd.nextInt(5), rnd.nextInt(50));
+			}
+			final int m = 1 + rnd.nextInt(10);
+			final int lmax = parallelUnitSizedLmaxSchedule(jobs, jobs.length, m);
+			assertTrue(lazyParallelUnitSizedLmaxSchedule(jobs, jobs.length, m, lmax, machines));
+			assertEquals(lmax, PDR1Scheduler.EDD.globalCostFunction.getTotalCost());
+			assertFalse(lazyParallelUnitSizedLmaxSchedule(jobs, jobs.length, m, lmax - 1, machines));
+			assertEquals(parallelUnitSizedWFlowSchedule(jobs, jobs.length, m), 
+					parallelUnitSizedWFlowSchedule(jobs, jobs.length, m, machines));
+		}
+	}
+
+	private static int naiveParallelSequence(BJob[] jobs, int m, PriorityDispatchingRule rule) {
+		final int[] machines = new int[m];
+		rule.globalCostFunction.reset();
+		for (BJob job : jobs) {
+			int k = 0;
+			for (int i = 1; i < m; i++) {
+				if(machines[i] < machines[k]) {k = i;}
+			}
+			job.setStartingTime(machines[k]);
+			rule.globalCostFunction.addCost(rule.costFunction.getCost(job));
+			machines[k] = job.getCompletionTime();
+		}
+		return rule.globalCostFunction.getTotalCost();
+	}
+
+	@Test
+	public void testParallelSchedule() {
+		final MachineHeap machines = new MachineHeap();
+		final Random rnd = new Random(0);
+		for (int i = 0; i < 100; i++) {
+			final BJob[] jobs = new BJob[1 + rnd.nextInt(30)];
+			for (int j = 0; j < jobs.length; j++) {
+				jobs[j] = new BJob(j, 1 + rnd.nextInt(20), 1, 1 + rnd.nextInt(5), rnd.nextInt(50));
+			}
+			final int m = 1 + rnd.nextInt(5);
+			final PriorityDispatchingRule rule = i % 2 == 0 ? PDR1Scheduler.EDD : PDR1Scheduler.WSPT;
+			final int cost = parallelSchedule(jobs, jobs.length, m, rule, machines);
+			for (BJob job : jobs) {
+				assertTrue(job.getStartingTime() >= 0);
+			}
+			assertEquals(cost, naiveParallelSequence(copy(jobs), m, rule));
+			assertEquals(cost, parallelSequence(jobs, jobs.length, m, rule));
+			assertTrue(lazyParallelSchedule(jobs, jobs.length, m, rule, cost, machines));
+			if(m == 1) {
+				assertEquals(cost, PDR1Scheduler.schedule(copy(jobs), rule));
+			}
+			assertFalse(lazyParallelSchedule(jobs, jobs.length, m, rule, cost - 1, machines));
+		}
+	}
+
+	private final static String[] INSTANCES = {
+		"./src/test/resources/bp04-01.txt",
+		"./src/test/resources/bp06-01.txt",
+		"./src/test/resources/bp10-41.txt",
+		"./src/test/resources/bp10-42.txt"
+	};
+
+	/**
+	 * Check that the solution is a feasible batching and schedule, and that its cost is equal to the cost of an evaluation from scratch.
+	 * @return the cost of the solution
+	 */
+	private static int checkBatchSolution(AbstractBatchingProblem pb, Batch[] solution) {
+		final BatchProcessingData data = pb.getData();
+		final PriorityDispatchingRule rule = pb.getPriorityDispatchingRule();
+		final Set<BJob> packed = Collections.newSetFromMap(new IdentityHashMap<BJob, Boolean>());
+		final Batch[] batches = new Batch[solution.length];
+		for (int k = 0; k < solution.length; k++) {
+			assertTrue(solution[k].getCardinality() > 0);
+			assertTrue(solution[k].getSize() <= data.getCapacity());
+			batches[k] = new Batch(k);
+			for (BJob job : solution[k].getJobs()) {
+				assertTrue(packed.add(job));
+				batches[k].parallelMerge(job);
+			}
+			//the parameters of the batch are consistent with its jobs
+			assertEquals(batches[k].getDuration(), solution[k].getDuration());
+			assertEquals(batches[k].getSize(), solution[k].getSize());
+			assertEquals(batches[k].getWeight(), solution[k].getWeight());
+			assertEquals(batches[k].getDueDate(), solution[k].getDueDate());
+		}
+		assertEquals(data.nbJobs, packed.size());
+		//the batches are sequenced without overlapping
+		rule.globalCostFunction.reset();
+		for (int k = 0; k < solution.length; k++) {
+			assertTrue(solution[k].getStartingTime() >= (k == 0 ? 0 : solution[k - 1].getCompletionTime()));
+			rule.globalCostFunction.addCost(rule.costFunction.getCost(solution[k]));
+		}
+		final int cost = rule.globalCostFunction.getTotalCost();
+		//the batches are optimally sequenced by the priority rule
+		assertEquals(cost, PDR1Scheduler.schedule(batches, rule));
+		return cost;
+	}
+
+	/**
+	 * Enumerate the batchings of the jobs: the schedules whose cost is not greater than the upper bound have at most M batches.
+	 * @return the optimal cost
+	 */
+	private static int enumerateBatchings(AbstractBatchingProblem pb, int[] assignment, int[] loads, int j, int nbB, int ub) {
+		final BatchProcessingData data = pb.getData();
+		if(j == data.nbJobs) {
+			final Batch[] batches = new Batch[nbB];
+			for (int k = 0; k < nbB; k++) {
+				batches[k] = new Batch(k);
+			}
+			for (int i = 0; i < data.nbJobs; i++) {
+				batches[assignment[i]].parallelMerge(data.sjobs[i]);
+			}
+			final int cost = PDR1Scheduler.schedule(batches, pb.getPriorityDispatchingRule());
+			if(cost <= ub) {
+				assertTrue(nbB <= pb.getM());
+			}
+			return cost;
+		}
+		int best = Integer.MAX_VALUE;
+		final int size = data.sjobs[j].getSize();
+		for (int k = 0; k <= nbB; k++) {
+			if(loads[k] + size <= data.getCapacity()) {
+				assignment[j] = k;
+				loads[k] += size;
+				best = Math.min(best, enumerateBatchings(pb, assignment, loads, j + 1, k == nbB ? nbB + 1 : nbB, ub));
+				loads[k] -= size;
+			}
+		}
+		return best;
+	}
+
+	private static void testHeuristics(AbstractBatchingProblem pb) throws UnsupportedConstraintException {
+		final Random rnd = new Random(0);
+		for (String instance : INSTANCES) {
+			pb.initialize();
+			pb.load(new File(instance));
+			pb.preprocess();
+			final BatchProcessingRHeuristics h = (BatchProcessingRHeuristics) pb.getHeuristic();
+			assertTrue(h.existsSolution());
+			final int ub = h.getObjectiveValue().intValue();
+			final Batch[] solution = h.getSolution();
+			assertEquals(ub, checkBatchSolution(pb, solution));
+			assertTrue(solution.length <= pb.getM());
+			final int n = pb.getN();
+			assertTrue(enumerateBatchings(pb, new int[n], new int[n + 1], 0, 0, ub) <= ub);
+			//the local search from random lists
+			final BJob[] jobs = Arrays.copyOf(pb.getData().sjobs, n);
+			for (int k = 0; k < 10; k++) {
+				Collections.shuffle(Arrays.asList(jobs), rnd);
+				h.reset();
+				final int cost = h.apply(jobs, Integer.MAX_VALUE);
+				assertEquals(cost, checkBatchSolution(pb, h.getSolution()));
+			}
+		}
+	}
+
+	@Test
+	public void testHeuristicsLmax() throws UnsupportedConstraintException {
+		testHeuristics(new PBatchLmax(new BatchSettings()));
+	}
+
+	@Test
+	public void testHeuristicsFlow() throws UnsupportedConstraintException {
+		testHeuristics(new PBatchFlow(new BatchSettings()));
+	}
+
+	@Test
+	public void testHeuristicsWFlow() throws UnsupportedConstraintException {
+		testHeuristics(new PBatchWFlow(new BatchSettings()));
+	}
+
 }
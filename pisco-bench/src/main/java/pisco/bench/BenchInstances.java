@@ -0,0 +1,95 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.bench;
+
+import java.util.Random;
+
+import pisco.common.AbstractJob;
+import pisco.common.ITJob;
+import pisco.common.NPJob;
+import pisco.common.PJob;
+
+/**
+ * Random instances of the benchmarks.
+ * The instances only depend on the number of jobs and on the seed so that the measures are repeatable.
+ */
+public final class BenchInstances {
+
+	public final static long SEED = 0;
+
+	/**
+	 * maximal distance (in the generation order) between a job and its predecessors.
+	 */
+	public final static int PRECEDENCE_WINDOW = 50;
+
+	private BenchInstances() {}
+
+	private static <E extends AbstractJob> E[] setRandomParameters(E[] jobs, boolean releaseDates, Random rnd) {
+		final int n = jobs.length;
+		final int maxDuration = 100;
+		final int horizon = n * maxDuration / 2;
+		for (int i = 0; i < n; i++) {
+			jobs[i].setDuration(1 + rnd.nextInt(maxDuration));
+			jobs[i].setWeight(1 + rnd.nextInt(10));
+			jobs[i].setSize(1 + rnd.nextInt(10));
+			if(releaseDates) {
+				jobs[i].setReleaseDate(rnd.nextInt(horizon));
+			}
+			jobs[i].setDueDate(jobs[i].getReleaseDate() + jobs[i].getDuration() + rnd.nextInt(horizon));
+			jobs[i].resetSchedule();
+		}
+		return jobs;
+	}
+
+	public static NPJob[] randomNPJobs(int n, boolean releaseDates, long seed) {
+		final NPJob[] jobs = new NPJob[n];
+		for (int i = 0; i < n; i++) {
+			jobs[i] = new NPJob(i);
+		}
+		return setRandomParameters(jobs, releaseDates, new Random(seed));
+	}
+
+	public static PJob[] randomPJobs(int n, boolean releaseDates, long seed) {
+		final PJob[] jobs = new PJob[n];
+		for (int i = 0; i < n; i++) {
+			jobs[i] = new PJob(i);
+		}
+		return setRandomParameters(jobs, releaseDates, new Random(seed));
+	}
+
+	/**
+	 * Each job (except the first one) receives a predecessor among the {@link #PRECEDENCE_WINDOW} jobs preceding it in the array.
+	 * The precedence graph is acyclic and contains n-1 arcs. 
+	 */
+	public static void addRandomPrecedences(ITJob[] jobs, long seed) {
+		final Random rnd = new Random(seed);
+		for (int i = 1; i < jobs.length; i++) {
+			final int j = Math.max(0, i - 1 - rnd.nextInt(PRECEDENCE_WINDOW));
+			jobs[i].addPredecessor(jobs[j]);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pisco.common.JobKeySorter;
+import pisco.common.NPJob;
+import pisco.common.PDR1Scheduler;
+import pisco.common.PriorityDispatchingRule;
+
+/**
+ * Benchmarks of the priority dispatching rules of {@link PDR1Scheduler}.
+ * <p>
+ * Build with <code>mvn package</code> and run with <code>java -jar pisco-bench/target/benchmarks.jar</code>.
+ * Add the option <code>-prof gc</code> to measure the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DispatchingBenchmark {
+
+	@Param({"100", "1000", "10000", "100000", "1000000"})
+	public int n;
+
+	@Param({"EDD", "SPT", "WSPT"})
+	public String rule;
+
+	private PriorityDispatchingRule pdr;
+
+	private NPJob[] instance;
+
+	private NPJob[] jobs;
+
+	private JobKeySorter sorter;
+
+	@Setup
+	public void setUp() {
+		instance = BenchInstances.randomNPJobs(n, false, BenchInstances.SEED);
+		jobs = new NPJob[n];
+		sorter = new JobKeySorter(n);
+		if("EDD".equals(rule)) {
+			pdr = PDR1Scheduler.getRuleEDD();
+		} else if("SPT".equals(rule)) {
+			pdr = PDR1Scheduler.getRuleSPT();
+		} else if("WSPT".equals(rule)) {
+			pdr = PDR1Scheduler.getRuleWSPT();
+		} else {
+			throw new IllegalArgumentException("unknown rule: "+rule);
+		}
+	}
+
+	/**
+	 * The unsorted instance is copied before each call (O(n)) because the schedule sorts the jobs in place.
+	 */
+	@Benchmark
+	public int schedule() {
+		System.arraycopy(instance, 0, jobs, 0, n);
+		return PDR1Scheduler.schedule(jobs, n, pdr);
+	}
+
+	/**
+	 * Radix sort with a reused sorter.
+	 */
+	@Benchmark
+	public int scheduleWithSorter() {
+		System.arraycopy(instance, 0, jobs, 0, n);
+		return PDR1Scheduler.schedule(jobs, n, pdr, sorter);
+	}
+
+	/**
+	 * Merge sort with the comparator of the rule (reference).
+	 */
+	@Benchmark
+	public int scheduleWithComparator() {
+		System.arraycopy(instance, 0, jobs, 0, n);
+		Arrays.sort(jobs, 0, n, pdr.priorityRule);
+		return PDR1Scheduler.sequence(jobs, n, pdr);
+	}
+
+	@Benchmark
+	public int sequence() {
+		return PDR1Scheduler.sequence(instance, n, pdr);
+	}
+
+}
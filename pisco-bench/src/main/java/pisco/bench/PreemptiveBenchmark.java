@@ -0,0 +1,111 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import pisco.common.JobUtils;
+import pisco.common.PJob;
+import pisco.common.Pmtn1FlowScheduler;
+import pisco.common.Pmtn1Scheduler;
+import pisco.common.Pmtn1Scheduler.Proc1Lmax;
+
+/**
+ * Benchmarks of the preemptive schedulers of {@link Pmtn1Scheduler} and {@link Pmtn1FlowScheduler} (1|rj,prec,pmtn|Lmax and 1|rj,pmtn|sum (w)Cj).
+ * The schedules of the jobs are reset (O(n)) before each call of the Lmax scheduler.
+ * The flow schedulers are filled once and reused.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PreemptiveBenchmark {
+
+	@Param({"100", "1000", "10000", "100000", "1000000"})
+	public int n;
+
+	@Param({"false", "true"})
+	public boolean precedences;
+
+	private PJob[] jobs;
+
+	private Proc1Lmax procedure;
+
+	private Pmtn1FlowScheduler srpt;
+
+	private Pmtn1FlowScheduler wsrpt;
+
+	@Setup
+	public void setUp() {
+		jobs = BenchInstances.randomPJobs(n, true, BenchInstances.SEED);
+		if(precedences) {
+			BenchInstances.addRandomPrecedences(jobs, BenchInstances.SEED);
+		}
+		procedure = new Proc1Lmax();
+		srpt = new Pmtn1FlowScheduler(false, n);
+		srpt.addAll(jobs, n);
+		wsrpt = new Pmtn1FlowScheduler(true, n);
+		wsrpt.addAll(jobs, n);
+	}
+
+	@Benchmark
+	public int schedule1PrecLmax() {
+		JobUtils.resetSchedule(jobs);
+		return Pmtn1Scheduler.schedule1PrecLmax(jobs, procedure);
+	}
+
+	/**
+	 * The precedences are ignored by the scheduler.
+	 */
+	@Benchmark
+	public int schedule1rjFlow() {
+		return srpt.schedule();
+	}
+
+	/**
+	 * The precedences are ignored by the scheduler.
+	 */
+	@Benchmark
+	public int schedule1rjWFlow() {
+		return wsrpt.schedule();
+	}
+
+}
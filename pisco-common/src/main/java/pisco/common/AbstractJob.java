@@ -391,7 +391,7 @@ public abstract class AbstractJob extends AbstractTask implements ITJob, IHook {
 		if(releaseDate < j.getReleaseDate()) {releaseDate = j.getReleaseDate();}
 		if(deadline > j.getDeadline()) {deadline = j.getDeadline();}
 		weight+=j.getWeight();
-		if(dueDate < j.getDueDate()) {dueDate = j.getDueDate();}
+		if(dueDate > j.getDueDate()) {dueDate = j.getDueDate();}
 
 	}
 
@@ -44,6 +44,14 @@ public final class CostFactory {
 	public static ICostFunction getWeightedCTime() {
 		return WeightedCompletionTime.SINGLOTON;
 	}
+
+	public static ICostFunction getTardiness() {
+		return Tardiness.SINGLOTON;
+	}
+
+	public static ICostFunction getWeightedTardiness() {
+		return WeightedTardiness.SINGLOTON;
+	}
 	
 	public static ICostAggregator makeMaxCosts() {
 		return new MaxCosts();
@@ -32,10 +32,36 @@ public interface ICostFunction {
 	int getCost(ITJob job);
 	
 	int getCost(ITJob job, int completionTime);
+
+	int getCost(JobTable jobs, int job, int completionTime);
+
+	/**
+	 * aggregate the costs of the n first jobs given their completion times.
+	 */
+	int getCost(ITJob[] jobs, int[] completionTimes, int n, ICostAggregator globalCostFunction);
+
+	/**
+	 * Return true if the cost is an affine function of the completion time.
+	 * The slope is then getCost(job, 1) - getCost(job, 0). 
+	 */
+	boolean isAffine();
+}
+
+abstract class AbstractCostFunction implements ICostFunction {
+
+	@Override
+	public final int getCost(ITJob[] jobs, int[] completionTimes, int n, ICostAggregator globalCostFunction) {
+		globalCostFunction.reset();
+		for (int i = 0; i < n; i++) {
+			globalCostFunction.addCost(getCost(jobs[i], completionTimes[i]));
+		}
+		return globalCostFunction.getTotalCost();
+	}
+
 }
 
 
-final class Lateness implements ICostFunction {
+final class Lateness extends AbstractCostFunction {
 
 	public final static Lateness SINGLOTON = new Lateness();
 
@@ -53,9 +79,19 @@ final class Lateness implements ICostFunction {
 		return completionTime - j.getDueDate();
 	}
 
+	@Override
+	public int getCost(JobTable jobs, int j, int completionTime) {
+		return completionTime - jobs.getDueDate(j);
+	}
+
+	@Override
+	public boolean isAffine() {
+		return true;
+	}
+
 }
 
-final class CompletionTime implements ICostFunction {
+final class CompletionTime extends AbstractCostFunction {
 
 	public final static CompletionTime SINGLOTON = new CompletionTime();
 
@@ -72,10 +108,20 @@ final class CompletionTime implements ICostFunction {
 	public int getCost(ITJob j, int completionTime) {
 		return completionTime;
 	}
+
+	@Override
+	public int getCost(JobTable jobs, int j, int completionTime) {
+		return completionTime;
+	}
+
+	@Override
+	public boolean isAffine() {
+		return true;
+	}
 }
 
 
-final class WeightedCompletionTime implements ICostFunction {
+final class WeightedCompletionTime extends AbstractCostFunction {
 
 	public final static WeightedCompletionTime SINGLOTON = new WeightedCompletionTime();
 
@@ -92,6 +138,74 @@ final class WeightedCompletionTime implements ICostFunction {
 	public int getCost(ITJob j, int completionTime) {
 		return j.getWeight() * completionTime;
 	}
+
+	@Override
+	public int getCost(JobTable jobs, int j, int completionTime) {
+		return jobs.getWeight(j) * completionTime;
+	}
+
+	@Override
+	public boolean isAffine() {
+		return true;
+	}
+}
+
+final class Tardiness extends AbstractCostFunction {
+
+	public final static Tardiness SINGLOTON = new Tardiness();
+
+	private Tardiness() {
+		super();
+	}
+
+	@Override
+	public int getCost(ITJob j) {
+		return j.getTardiness();
+	}
+
+	@Override
+	public int getCost(ITJob j, int completionTime) {
+		return Math.max(0, completionTime - j.getDueDate());
+	}
+
+	@Override
+	public int getCost(JobTable jobs, int j, int completionTime) {
+		return Math.max(0, completionTime - jobs.getDueDate(j));
+	}
+
+	@Override
+	public boolean isAffine() {
+		return false;
+	}
+}
+
+final class WeightedTardiness extends AbstractCostFunction {
+
+	public final static WeightedTardiness SINGLOTON = new WeightedTardiness();
+
+	private WeightedTardiness() {
+		super();
+	}
+
+	@Override
+	public int getCost(ITJob j) {
+		return j.getWeight() * j.getTardiness();
+	}
+
+	@Override
+	public int getCost(ITJob j, int completionTime) {
+		return j.getWeight() * Math.max(0, completionTime - j.getDueDate());
+	}
+
+	@Override
+	public int getCost(JobTable jobs, int j, int completionTime) {
+		return jobs.getWeight(j) * Math.max(0, completionTime - jobs.getDueDate(j));
+	}
+
+	@Override
+	public boolean isAffine() {
+		return false;
+	}
 }
 
 
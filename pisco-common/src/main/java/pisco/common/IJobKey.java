@@ -0,0 +1,192 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+/**
+ * Packed sort key of a job : the jobs are sorted by non-decreasing keys compared as unsigned long.
+ * A key is consistent with a comparator of {@link JobComparators} (ties excepted), so that the jobs can be sorted by a radix sort.
+ * @see JobKeySorter
+ */
+public interface IJobKey {
+
+	long getKey(IJob job);
+
+}
+
+/**
+ * Key built from an integer criterion stored in the 32 lower bits, so that two integer keys can be packed into a single key. 
+ */
+abstract class IntJobKey implements IJobKey {
+
+	/**
+	 * map a signed integer to an unsigned integer with the same order.
+	 */
+	static long toUnsigned(int value) {
+		return (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+	}
+
+	abstract int getIntKey(IJob job);
+
+	@Override
+	public final long getKey(IJob job) {
+		return toUnsigned(getIntKey(job));
+	}
+
+}
+
+/**
+ * The primary criterion is stored in the 32 upper bits and the secondary criterion in the 32 lower bits.
+ */
+final class CompositeJobKey implements IJobKey {
+
+	private final IntJobKey key1;
+
+	private final IntJobKey key2;
+
+	public CompositeJobKey(IntJobKey key1, IntJobKey key2) {
+		super();
+		this.key1 = key1;
+		this.key2 = key2;
+	}
+
+	@Override
+	public long getKey(IJob job) {
+		return ( key1.getKey(job) << 32) | key2.getKey(job);
+	}
+
+}
+
+final class ShortestProcessingTimeKey extends IntJobKey {
+
+	public final static ShortestProcessingTimeKey SINGLOTON = new ShortestProcessingTimeKey();
+
+	private ShortestProcessingTimeKey() {}
+
+	@Override
+	int getIntKey(IJob job) {
+		return job.getDuration();
+	}
+}
+
+final class LongestProcessingTimeKey extends IntJobKey {
+
+	public final static LongestProcessingTimeKey SINGLOTON = new LongestProcessingTimeKey();
+
+	private LongestProcessingTimeKey() {}
+
+	@Override
+	int getIntKey(IJob job) {
+		return ~ job.getDuration();
+	}
+}
+
+final class EarliestReleaseDateKey extends IntJobKey {
+
+	public final static EarliestReleaseDateKey SINGLOTON = new EarliestReleaseDateKey();
+
+	private EarliestReleaseDateKey() {}
+
+	@Override
+	int getIntKey(IJob job) {
+		return job.getReleaseDate();
+	}
+}
+
+final class EarliestDueDateKey extends IntJobKey {
+
+	public final static EarliestDueDateKey SINGLOTON = new EarliestDueDateKey();
+
+	private EarliestDueDateKey() {}
+
+	@Override
+	int getIntKey(IJob job) {
+		return job.getDueDate();
+	}
+}
+
+final class LatestDueDateKey extends IntJobKey {
+
+	public final static LatestDueDateKey SINGLOTON = new LatestDueDateKey();
+
+	private LatestDueDateKey() {}
+
+	@Override
+	int getIntKey(IJob job) {
+		return ~ job.getDueDate();
+	}
+}
+
+final class MinimalSlackTimeKey extends IntJobKey {
+
+	public final static MinimalSlackTimeKey SINGLOTON = new MinimalSlackTimeKey();
+
+	private MinimalSlackTimeKey() {}
+
+	@Override
+	int getIntKey(IJob job) {
+		return job.getDueDate() - job.getDuration();
+	}
+}
+
+final class DecreasingSizeKey extends IntJobKey {
+
+	public final static DecreasingSizeKey SINGLOTON = new DecreasingSizeKey();
+
+	private DecreasingSizeKey() {}
+
+	@Override
+	int getIntKey(IJob job) {
+		return ~ job.getSize();
+	}
+}
+
+/**
+ * The bits of a non-negative double have the same order as its value (a null weight gives an infinite ratio).
+ */
+final class WeightedShortestProcessingTimeKey implements IJobKey {
+
+	public final static WeightedShortestProcessingTimeKey SINGLOTON = new WeightedShortestProcessingTimeKey();
+
+	private WeightedShortestProcessingTimeKey() {}
+
+	@Override
+	public long getKey(IJob job) {
+		return Double.doubleToLongBits( (double) job.getDuration() / job.getWeight());
+	}
+}
+
+final class DecreasingParallelUnitWeightKey implements IJobKey {
+
+	public final static DecreasingParallelUnitWeightKey SINGLOTON = new DecreasingParallelUnitWeightKey();
+
+	private DecreasingParallelUnitWeightKey() {}
+
+	@Override
+	public long getKey(IJob job) {
+		return Double.doubleToLongBits( (double) job.getSize() * job.getDuration() / job.getWeight());
+	}
+}
@@ -54,3 +54,78 @@ class DefaultJobProcedure implements IJobProcedure {
 
 
 }
+
+/**
+ * Procedure over the job indices stored in the hooks. 
+ * The precedence counts are stored in a buffer and the pending jobs in an indexed heap which are both reused between calls.
+ */
+abstract class IndexedJobProcedure implements IJobProcedure {
+
+	protected final static int DEFAULT_CAPACITY = 10;
+
+	protected final IndexedIntHeap pendingJobs = new IndexedIntHeap(DEFAULT_CAPACITY);
+
+	protected int[] counts = new int[DEFAULT_CAPACITY];
+
+	public IndexedJobProcedure() {
+		super();
+	}
+
+	public final IndexedIntHeap getPendingJobs() {
+		return pendingJobs;
+	}
+
+	protected final void ensureCapacity(int capacity) {
+		pendingJobs.ensureCapacity(capacity);
+		if(counts.length < capacity) {
+			counts = new int[pendingJobs.getCapacity()];
+		}
+	}
+
+	/**
+	 * the key of a job in the heap of pending jobs.
+	 */
+	protected abstract int getKey(ITJob job);
+
+	/**
+	 * Set the hook of each job to its index, and count its successors.
+	 * The jobs without successors are pending. 
+	 */
+	protected final void initSuccessorCounts(final ITJob[] jobs) {
+		ensureCapacity(jobs.length);
+		pendingJobs.clear();
+		for (int i = 0; i < jobs.length; i++) {
+			jobs[i].setHook(i);
+			counts[i] = jobs[i].getSuccessorCount();
+			if(counts[i] == 0) {
+				pendingJobs.add(i, getKey(jobs[i]));
+			}
+		}
+		assert(! pendingJobs.isEmpty());
+	}
+
+	/**
+	 * Set the hook of each job to its index, and count its predecessors.
+	 */
+	protected final void initPredecessorCounts(final ITJob[] jobs) {
+		ensureCapacity(jobs.length);
+		pendingJobs.clear();
+		for (int i = 0; i < jobs.length; i++) {
+			jobs[i].setHook(i);
+			counts[i] = jobs[i].getPredecessorCount();
+		}
+	}
+
+	protected final boolean isAvailable(int index) {
+		return counts[index] == 0;
+	}
+
+	@Override
+	public void execute(ITJob arg) {
+		final int index = arg.getHook();
+		if( --counts[index] == 0) {
+			pendingJobs.add(index, getKey(arg));
+		}
+	}
+
+}
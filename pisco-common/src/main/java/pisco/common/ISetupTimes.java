@@ -0,0 +1,224 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import java.util.Arrays;
+
+/**
+ * Sequence-dependent setup times between the jobs of a single machine.
+ */
+public interface ISetupTimes {
+
+	/**
+	 * @return the number of jobs.
+	 */
+	int size();
+
+	/**
+	 * @return the setup time between the end of the job i and the start of the job j (0 if i == j).
+	 */
+	int getSetupTime(int i, int j);
+
+	/**
+	 * @return the memory footprint of the storage in bytes (approximation).
+	 */
+	long getMemorySize();
+
+}
+
+abstract class AbstractSetupTimes implements ISetupTimes {
+
+	protected final int n;
+
+	public AbstractSetupTimes(int n) {
+		super();
+		this.n = n;
+	}
+
+	@Override
+	public final int size() {
+		return n;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder b = new StringBuilder();
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				b.append(getSetupTime(i, j)).append(' ');
+			}
+			b.append('\n');
+		}
+		return b.toString();
+	}
+
+}
+
+final class ZeroSetupTimes extends AbstractSetupTimes {
+
+	public ZeroSetupTimes(int n) {
+		super(n);
+	}
+
+	@Override
+	public int getSetupTime(int i, int j) {
+		return 0;
+	}
+
+	@Override
+	public long getMemorySize() {
+		return 0;
+	}
+
+}
+
+/**
+ * The setup time only depends on the families of the jobs.
+ */
+final class FamilySetupTimes extends AbstractSetupTimes {
+
+	private final int[] families;
+
+	private final int[][] setupTimes;
+
+	public FamilySetupTimes(int[] families, int[][] setupTimes) {
+		super(families.length);
+		this.families = families;
+		this.setupTimes = setupTimes;
+	}
+
+	@Override
+	public int getSetupTime(int i, int j) {
+		return i == j ? 0 : setupTimes[families[i]][families[j]];
+	}
+
+	@Override
+	public long getMemorySize() {
+		return 4L * ( n + setupTimes.length * setupTimes.length );
+	}
+
+}
+
+/**
+ * Only the non-zero setup times are stored row by row.
+ */
+final class SparseSetupTimes extends AbstractSetupTimes {
+
+	private final int[] rows;
+
+	private final int[] columns;
+
+	private final int[] setupTimes;
+
+	public SparseSetupTimes(int[] rows, int[] columns, int[] setupTimes) {
+		super(rows.length - 1);
+		this.rows = rows;
+		this.columns = columns;
+		this.setupTimes = setupTimes;
+	}
+
+	@Override
+	public int getSetupTime(int i, int j) {
+		final int idx = Arrays.binarySearch(columns, rows[i], rows[i+1], j);
+		return idx < 0 ? 0 : setupTimes[idx];
+	}
+
+	@Override
+	public long getMemorySize() {
+		return 4L * ( rows.length + columns.length + setupTimes.length);
+	}
+
+}
+
+/**
+ * The rows are stored separately (the diagonal is null).
+ */
+final class ByteSetupTimes extends AbstractSetupTimes {
+
+	private final byte[][] setupTimes;
+
+	public ByteSetupTimes(byte[][] setupTimes) {
+		super(setupTimes.length);
+		this.setupTimes = setupTimes;
+	}
+
+	@Override
+	public int getSetupTime(int i, int j) {
+		return setupTimes[i][j];
+	}
+
+	@Override
+	public long getMemorySize() {
+		return (long) n * n;
+	}
+
+}
+
+/**
+ * The rows are stored separately (the diagonal is null).
+ */
+final class ShortSetupTimes extends AbstractSetupTimes {
+
+	private final short[][] setupTimes;
+
+	public ShortSetupTimes(short[][] setupTimes) {
+		super(setupTimes.length);
+		this.setupTimes = setupTimes;
+	}
+
+	@Override
+	public int getSetupTime(int i, int j) {
+		return setupTimes[i][j];
+	}
+
+	@Override
+	public long getMemorySize() {
+		return 2L * n * n;
+	}
+
+}
+
+final class IntSetupTimes extends AbstractSetupTimes {
+
+	private final int[][] setupTimes;
+
+	public IntSetupTimes(int[][] setupTimes) {
+		super(setupTimes.length);
+		this.setupTimes = setupTimes;
+	}
+
+	@Override
+	public int getSetupTime(int i, int j) {
+		return i == j ? 0 : setupTimes[i][j];
+	}
+
+	@Override
+	public long getMemorySize() {
+		return 4L * n * n;
+	}
+
+}
@@ -0,0 +1,266 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import static choco.Choco.MIN_LOWER_BOUND;
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.memory.IStateBool;
+import choco.kernel.memory.IStateInt;
+
+/**
+ * Incremental Lawler algorithm (1|prec|Lmax) during a tree search.
+ * <p>
+ * The sequence built by the Lawler algorithm is stored in backtrackable structures so that it is restored on backtrack.
+ * Adding a precedence or tightening a due date can only change the decisions of the backward algorithm 
+ * from the position of the job which gains a successor (or a smaller due date). 
+ * The jobs sequenced after this position keep their positions and completion times, 
+ * and only the jobs sequenced before are rescheduled by the next call to {@link #schedule()}.
+ * The index of a job is its index in the array given to the constructor, and the hooks of the jobs are used and modified.
+ */
+public final class IncLawler1Scheduler {
+
+	public final int nbJobs;
+
+	private final ITJob[] jobs;
+
+	/**
+	 * true if the stored sequence is a Lawler sequence.
+	 */
+	private final IStateBool valid;
+
+	/**
+	 * job at each position (forward order).
+	 */
+	private final IStateInt[] sequence;
+
+	/**
+	 * position of each job.
+	 */
+	private final IStateInt[] positions;
+
+	/**
+	 * maximal lateness of the jobs sequenced at a position greater than or equal to the index.
+	 */
+	private final IStateInt[] latenesses;
+
+	/**
+	 * due date of each job in the stored sequence.
+	 */
+	private final IStateInt[] dueDates;
+
+	/**
+	 * the jobs in positions [0, dirtyPosition] must be rescheduled.
+	 */
+	private int dirtyPosition;
+
+	private final IndexedIntHeap pendingJobs;
+
+	private final int[] counts;
+
+	private final int[] marks;
+
+	private int stamp;
+
+	private final IJobProcedure countProc = new IJobProcedure() {
+
+		@Override
+		public void execute(ITJob arg) {
+			if(marks[arg.getHook()] == stamp) {
+				counts[arg.getHook()]++;
+			}
+		}
+	};
+
+	private final IJobProcedure releaseProc = new IJobProcedure() {
+
+		@Override
+		public void execute(ITJob arg) {
+			final int i = arg.getHook();
+			if(marks[i] == stamp && --counts[i] == 0) {
+				pendingJobs.add(i, - arg.getDueDate());
+			}
+		}
+	};
+
+	public IncLawler1Scheduler(IEnvironment environment, ITJob[] jobs) {
+		super();
+		this.jobs = jobs;
+		nbJobs = jobs.length;
+		valid = environment.makeBool(false);
+		sequence = new IStateInt[nbJobs];
+		positions = new IStateInt[nbJobs];
+		latenesses = new IStateInt[nbJobs];
+		dueDates = new IStateInt[nbJobs];
+		for (int i = 0; i < nbJobs; i++) {
+			sequence[i] = environment.makeInt(i);
+			positions[i] = environment.makeInt(i);
+			latenesses[i] = environment.makeInt(MIN_LOWER_BOUND);
+			dueDates[i] = environment.makeInt(jobs[i].getDueDate());
+		}
+		pendingJobs = new IndexedIntHeap(nbJobs);
+		counts = new int[nbJobs];
+		marks = new int[nbJobs];
+		dirtyPosition = nbJobs - 1;
+	}
+
+	public final boolean isValid() {
+		return valid.get();
+	}
+
+	public final int getPosition(int job) {
+		return positions[job].get();
+	}
+
+	public final int getJob(int position) {
+		return sequence[position].get();
+	}
+
+	public final int getDirtyPosition() {
+		return valid.get() ? dirtyPosition : nbJobs - 1;
+	}
+
+	/**
+	 * the next call to {@link #schedule()} recomputes the sequence from scratch.
+	 */
+	public void invalidate() {
+		dirtyPosition = nbJobs - 1;
+	}
+
+	private void setDirty(int position) {
+		if(dirtyPosition < position) {
+			dirtyPosition = position;
+		}
+	}
+
+	/**
+	 * Notify the precedence origin -> destination. 
+	 * It only invalidates the sequence if the destination is sequenced before the origin.
+	 */
+	public void addPrecedence(int origin, int destination) {
+		final int pos = positions[origin].get();
+		if(pos > positions[destination].get()) {
+			setDirty(pos);
+		}
+	}
+
+	/**
+	 * Notify the new due date of the job.
+	 * A tightened due date only invalidates the job and the jobs sequenced before it. 
+	 */
+	public void updateDueDate(int job) {
+		final int dueDate = jobs[job].getDueDate();
+		final int old = dueDates[job].get();
+		if(dueDate < old) {
+			setDirty(positions[job].get());
+		} else if(dueDate > old) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Notify the due dates of all jobs.
+	 */
+	public void updateDueDates() {
+		for (int i = 0; i < nbJobs; i++) {
+			updateDueDate(i);
+		}
+	}
+
+	/**
+	 * Reschedule the invalidated jobs, and then schedule the jobs according to the stored sequence.
+	 * The schedules of the jobs must have been reset.
+	 * @return the maximal lateness
+	 */
+	public int schedule() {
+		if( ! valid.get()) {
+			dirtyPosition = nbJobs - 1;
+		}
+		if(dirtyPosition >= 0) {
+			repair(dirtyPosition);
+			dirtyPosition = -1;
+			valid.set(true);
+		}
+		int time = 0;
+		for (int k = 0; k < nbJobs; k++) {
+			final ITJob job = jobs[sequence[k].get()];
+			job.scheduleFrom(time);
+			time += job.getDuration();
+		}
+		assert(JobUtils.isScheduled(jobs));
+		return getMaximalLateness();
+	}
+
+	public final int getMaximalLateness() {
+		return nbJobs > 0 ? latenesses[0].get() : MIN_LOWER_BOUND;
+	}
+
+	/**
+	 * Lawler algorithm on the jobs in positions [0, last].
+	 */
+	private void repair(final int last) {
+		stamp++;
+		int time = 0;
+		for (int i = 0; i < nbJobs; i++) {
+			jobs[i].setHook(i);
+		}
+		for (int k = 0; k <= last; k++) {
+			final int j = sequence[k].get();
+			marks[j] = stamp;
+			counts[j] = 0;
+			time += jobs[j].getDuration();
+		}
+		//count the successors of the rescheduled jobs
+		for (int k = 0; k <= last; k++) {
+			jobs[sequence[k].get()].forEachPredecessor(countProc);
+		}
+		pendingJobs.clear();
+		for (int k = 0; k <= last; k++) {
+			final int j = sequence[k].get();
+			if(counts[j] == 0) {
+				pendingJobs.add(j, - jobs[j].getDueDate());
+			}
+		}
+		//backward sequence
+		int lmax = last + 1 < nbJobs ? latenesses[last + 1].get() : MIN_LOWER_BOUND;
+		int k = last;
+		while( ! pendingJobs.isEmpty()) {
+			final int j = pendingJobs.poll();
+			final ITJob job = jobs[j];
+			final int lateness = time - job.getDueDate();
+			if(lmax < lateness) {lmax = lateness;}
+			sequence[k].set(j);
+			positions[j].set(k);
+			latenesses[k].set(lmax);
+			dueDates[j].set(job.getDueDate());
+			time -= job.getDuration();
+			k--;
+			job.forEachPredecessor(releaseProc);
+		}
+		assert(k == -1 && time == 0);
+	}
+
+}
@@ -0,0 +1,252 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap of integer elements (e.g. job indices) in [0, capacity[ with integer keys.
+ * Elements are not boxed and keys are compared directly, so that a heap can be reused without allocation.
+ * The position of each element is stored to support the update or the removal of any element in O(d log_d n).
+ * A max-heap is obtained by negating the keys.
+ */
+public final class IndexedIntHeap {
+
+	public final static int DEFAULT_ARITY = 4;
+
+	private final int arity;
+
+	private int size;
+
+	/**
+	 * elements in heap order.
+	 */
+	private int[] heap;
+
+	/**
+	 * key of each element.
+	 */
+	private int[] keys;
+
+	/**
+	 * position of each element in the heap, or -1 if it does not belong to the heap.
+	 */
+	private int[] positions;
+
+	public IndexedIntHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+
+	public IndexedIntHeap(int capacity, int arity) {
+		super();
+		if(arity < 2) {
+			throw new IllegalArgumentException("invalid heap arity: "+arity);
+		}
+		this.arity = arity;
+		heap = new int[capacity];
+		keys = new int[capacity];
+		positions = new int[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	/**
+	 * Ensure that the elements in [0, capacity[ can be added. The heap is cleared if the capacity grows.
+	 */
+	public void ensureCapacity(int capacity) {
+		if(capacity > positions.length) {
+			final int newCapacity = Math.max(capacity, (positions.length * 3)/2 + 1);
+			heap = new int[newCapacity];
+			keys = new int[newCapacity];
+			positions = new int[newCapacity];
+			Arrays.fill(positions, -1);
+			size = 0;
+		}
+	}
+
+	public final int getCapacity() {
+		return positions.length;
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = -1;
+		}
+		size = 0;
+	}
+
+	public final boolean isEmpty() {
+		return size == 0;
+	}
+
+	public final int size() {
+		return size;
+	}
+
+	public final boolean contains(int element) {
+		return positions[element] >= 0;
+	}
+
+	public final int getKey(int element) {
+		return keys[element];
+	}
+
+	public void add(int element, int key) {
+		assert(! contains(element));
+		keys[element] = key;
+		positions[element] = size;
+		heap[size] = element;
+		siftUp(size++);
+	}
+
+	/**
+	 * @return the element with the minimal key.
+	 */
+	public final int peek() {
+		assert(size > 0);
+		return heap[0];
+	}
+
+	public final int peekKey() {
+		assert(size > 0);
+		return keys[heap[0]];
+	}
+
+	/**
+	 * remove and return the element with the minimal key.
+	 */
+	public int poll() {
+		assert(size > 0);
+		final int element = heap[0];
+		positions[element] = -1;
+		if( --size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+		return element;
+	}
+
+	public void remove(int element) {
+		final int pos = positions[element];
+		assert(pos >= 0);
+		positions[element] = -1;
+		if( pos < --size) {
+			final int last = heap[size];
+			heap[pos] = last;
+			positions[last] = pos;
+			if(keys[last] < keys[element]) {
+				siftUp(pos);
+			} else {
+				siftDown(pos);
+			}
+		}
+	}
+
+	public void decreaseKey(int element, int key) {
+		assert(contains(element) && key <= keys[element]);
+		keys[element] = key;
+		siftUp(positions[element]);
+	}
+
+	public void increaseKey(int element, int key) {
+		assert(contains(element) && key >= keys[element]);
+		keys[element] = key;
+		siftDown(positions[element]);
+	}
+
+	/**
+	 * Add the element or update its key.
+	 */
+	public void update(int element, int key) {
+		if( ! contains(element)) {
+			add(element, key);
+		} else if(key < keys[element]) {
+			decreaseKey(element, key);
+		} else if(key > keys[element]) {
+			increaseKey(element, key);
+		}
+	}
+
+	private void siftUp(int pos) {
+		final int element = heap[pos];
+		final int key = keys[element];
+		while(pos > 0) {
+			final int parentPos = (pos - 1) / arity;
+			final int parent = heap[parentPos];
+			if(key >= keys[parent]) {
+				break;
+			}
+			heap[pos] = parent;
+			positions[parent] = pos;
+			pos = parentPos;
+		}
+		heap[pos] = element;
+		positions[element] = pos;
+	}
+
+	private void siftDown(int pos) {
+		final int element = heap[pos];
+		final int key = keys[element];
+		while(true) {
+			final int firstChild = pos * arity + 1;
+			if(firstChild >= size) {
+				break;
+			}
+			final int lastChild = Math.min(firstChild + arity, size);
+			int minPos = firstChild;
+			int minKey = keys[heap[firstChild]];
+			for (int c = firstChild + 1; c < lastChild; c++) {
+				final int k = keys[heap[c]];
+				if(k < minKey) {
+					minKey = k;
+					minPos = c;
+				}
+			}
+			if(key <= minKey) {
+				break;
+			}
+			final int child = heap[minPos];
+			heap[pos] = child;
+			positions[child] = pos;
+			pos = minPos;
+		}
+		heap[pos] = element;
+		positions[element] = pos;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder b = new StringBuilder();
+		b.append('[');
+		for (int i = 0; i < size; i++) {
+			if(i > 0) {b.append(", ");}
+			b.append(heap[i]).append(':').append(keys[heap[i]]);
+		}
+		return b.append(']').toString();
+	}
+
+}
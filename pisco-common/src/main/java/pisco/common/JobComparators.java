@@ -56,16 +56,78 @@ public final class JobComparators {
 	public static Comparator<IJob> getDecreasingParallelUnitWeight() {return DecreasingParallelUnitWeight.SINGLOTON;}
 
 	public static Comparator<IJob> getCompositeComparator(final Comparator<IJob> comp1, final Comparator<IJob> comp2) {
-		return new Comparator<IJob>() {
+		return new CompositeComparator(comp1, comp2);
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Packed sort keys /////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	public static IJobKey getShortestProcessingTimeKey() {return ShortestProcessingTimeKey.SINGLOTON;}
+
+	public static IJobKey getLongestProcessingTimeKey() {return LongestProcessingTimeKey.SINGLOTON;}
+
+	public static IJobKey getWeightedShortestProcessingTimeKey() {return WeightedShortestProcessingTimeKey.SINGLOTON;}
+
+	public static IJobKey getEarliestReleaseDateKey() {return EarliestReleaseDateKey.SINGLOTON;}
+
+	public static IJobKey getEarliestDueDateKey() {return EarliestDueDateKey.SINGLOTON;}
+
+	public static IJobKey getLatestDueDateKey() {return LatestDueDateKey.SINGLOTON;}
+
+	public static IJobKey getMinimalSlackTimeKey() {return MinimalSlackTimeKey.SINGLOTON;}
+
+	public static IJobKey getDecreasingSizeKey() {return DecreasingSizeKey.SINGLOTON;}
+
+	public static IJobKey getDecreasingParallelUnitWeightKey() {return DecreasingParallelUnitWeightKey.SINGLOTON;}
 
-			@Override
-			public int compare(IJob o1, IJob o2) {
-				final int val = comp1.compare(o1, o2);
-				return val == 0 ? comp2.compare(o1, o2) : val;
-			}
+	/**
+	 * Two integer keys are packed into a single key. Return null if one of the keys is not an integer key.
+	 */
+	public static IJobKey getCompositeKey(IJobKey key1, IJobKey key2) {
+		return key1 instanceof IntJobKey && key2 instanceof IntJobKey ? 
+				new CompositeJobKey( (IntJobKey) key1, (IntJobKey) key2) : null;
+	}
+
+	/**
+	 * Return the key of a comparator of this class (or of a composite comparator), or null if the comparator has no key.
+	 */
+	public static IJobKey getKey(Comparator<? super IJob> comparator) {
+		if(comparator == ShortestProcessingTime.SINGLOTON) return getShortestProcessingTimeKey();
+		else if(comparator == LongestProcessingTime.SINGLOTON) return getLongestProcessingTimeKey();
+		else if(comparator == WeightedShortestProcessingTime.SINGLOTON) return getWeightedShortestProcessingTimeKey();
+		else if(comparator == EarliestReleaseDate.SINGLOTON) return getEarliestReleaseDateKey();
+		else if(comparator == EarliestDueDate.SINGLOTON) return getEarliestDueDateKey();
+		else if(comparator == LatestDueDate.SINGLOTON) return getLatestDueDateKey();
+		else if(comparator == MinimalSlackTime.SINGLOTON) return getMinimalSlackTimeKey();
+		else if(comparator == DecreasingSize.SINGLOTON) return getDecreasingSizeKey();
+		else if(comparator == DecreasingParallelUnitWeight.SINGLOTON) return getDecreasingParallelUnitWeightKey();
+		else if(comparator instanceof CompositeComparator) {
+			final CompositeComparator comp = (CompositeComparator) comparator;
+			final IJobKey key1 = getKey(comp.comp1);
+			final IJobKey key2 = getKey(comp.comp2);
+			return key1 == null || key2 == null ? null : getCompositeKey(key1, key2);
+		} else return null;
+	}
+
+}
+
+final class CompositeComparator implements Comparator<IJob> {
 
+	final Comparator<IJob> comp1;
 
-		};
+	final Comparator<IJob> comp2;
+
+	public CompositeComparator(Comparator<IJob> comp1, Comparator<IJob> comp2) {
+		super();
+		this.comp1 = comp1;
+		this.comp2 = comp2;
+	}
+
+	@Override
+	public int compare(IJob o1, IJob o2) {
+		final int val = comp1.compare(o1, o2);
+		return val == 0 ? comp2.compare(o1, o2) : val;
 	}
 
 }
@@ -0,0 +1,136 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import java.util.Arrays;
+
+/**
+ * Stable LSD radix sort of jobs (or job indices) by packed keys with 8-bit digits.
+ * A pass is skipped when all keys share the same digit, so that integer keys only need four passes (or less).
+ * The buffers are reused between two calls.
+ * @see IJobKey
+ */
+public final class JobKeySorter {
+
+	private final static int RADIX = 256;
+
+	private final static int DEFAULT_CAPACITY = 16;
+
+	private long[] keys;
+
+	private long[] tmpKeys;
+
+	private int[] indices;
+
+	private int[] tmpIndices;
+
+	private ITJob[] buffer;
+
+	private final int[] counts = new int[RADIX];
+
+	public JobKeySorter() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public JobKeySorter(int capacity) {
+		super();
+		capacity = Math.max(capacity, 1);
+		keys = new long[capacity];
+		tmpKeys = new long[capacity];
+		indices = new int[capacity];
+		tmpIndices = new int[capacity];
+		buffer = new ITJob[capacity];
+	}
+
+	public void ensureCapacity(int capacity) {
+		if(capacity > keys.length) {
+			capacity = Math.max(capacity, 2 * keys.length);
+			keys = new long[capacity];
+			tmpKeys = new long[capacity];
+			indices = new int[capacity];
+			tmpIndices = new int[capacity];
+			buffer = new ITJob[capacity];
+		}
+	}
+
+	/**
+	 * sort the n first jobs by non-decreasing keys.
+	 */
+	public void sort(ITJob[] jobs, int n, IJobKey key) {
+		ensureCapacity(n);
+		for (int i = 0; i < n; i++) {
+			keys[i] = key.getKey(jobs[i]);
+			indices[i] = i;
+		}
+		radixSort(n);
+		for (int i = 0; i < n; i++) {
+			buffer[i] = jobs[indices[i]];
+		}
+		System.arraycopy(buffer, 0, jobs, 0, n);
+		Arrays.fill(buffer, 0, n, null);
+	}
+
+	/**
+	 * Return the indices [0, n[ sorted by non-decreasing keys. 
+	 * The returned array is an internal buffer which is valid until the next call.
+	 */
+	public int[] sort(long[] jobKeys, int n) {
+		ensureCapacity(n);
+		System.arraycopy(jobKeys, 0, keys, 0, n);
+		for (int i = 0; i < n; i++) {
+			indices[i] = i;
+		}
+		radixSort(n);
+		return indices;
+	}
+
+	private void radixSort(int n) {
+		if(n < 2) return;
+		for (int shift = 0; shift < Long.SIZE; shift += 8) {
+			Arrays.fill(counts, 0);
+			for (int i = 0; i < n; i++) {
+				counts[ (int) (keys[i] >>> shift) & 0xFF]++;
+			}
+			if(counts[ (int) (keys[0] >>> shift) & 0xFF] == n) continue;
+			//starting position of each digit
+			int pos = 0;
+			for (int d = 0; d < RADIX; d++) {
+				final int c = counts[d];
+				counts[d] = pos;
+				pos += c;
+			}
+			for (int i = 0; i < n; i++) {
+				final int p = counts[ (int) (keys[i] >>> shift) & 0xFF]++;
+				tmpKeys[p] = keys[i];
+				tmpIndices[p] = indices[i];
+			}
+			final long[] k = keys; keys = tmpKeys; tmpKeys = k;
+			final int[] idx = indices; indices = tmpIndices; tmpIndices = idx;
+		}
+	}
+
+}
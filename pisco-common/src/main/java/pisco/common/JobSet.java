@@ -0,0 +1,283 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import choco.kernel.model.variables.integer.IntegerConstantVariable;
+
+/**
+ * Cached view of a set of jobs.
+ * <p>
+ * The aggregates (min, max and sum) of the job attributes are computed in a single pass on the first request, 
+ * and the arrays of constant variables are built once.
+ * The cache must be invalidated after a modification of the jobs (the mutators of this class do it).
+ */
+public final class JobSet {
+
+	private final IJob[] jobs;
+
+	private boolean validAggregates;
+
+	private int minDuration, maxDuration, sumDurations;
+
+	private int minSize, maxSize, sumSizes;
+
+	private int minReleaseDate, maxReleaseDate;
+
+	private int minDeadline, maxDeadline;
+
+	private int minWeight, maxWeight, sumWeights;
+
+	private int minDueDate, maxDueDate;
+
+	private int minSlackTime, maxSlackTime;
+
+	private IntegerConstantVariable[] constDurations;
+
+	private IntegerConstantVariable[] constSizes;
+
+	private IntegerConstantVariable[] constReleaseDates;
+
+	private IntegerConstantVariable[] constDeadlines;
+
+	private IntegerConstantVariable[] constWeights;
+
+	private IntegerConstantVariable[] constDueDates;
+
+	public JobSet(IJob... jobs) {
+		super();
+		this.jobs = jobs;
+	}
+
+	public final int size() {
+		return jobs.length;
+	}
+
+	public final IJob getJob(int idx) {
+		return jobs[idx];
+	}
+
+	/**
+	 * must be called after a modification of the jobs.
+	 */
+	public void invalidate() {
+		validAggregates = false;
+		constDurations = null;
+		constSizes = null;
+		constReleaseDates = null;
+		constDeadlines = null;
+		constWeights = null;
+		constDueDates = null;
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Mutators /////////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	public boolean shiftLeftReleaseDates() {
+		final int delta = minReleaseDate();
+		if(delta > 0) {
+			for (IJob job : jobs) {
+				job.setReleaseDate(job.getReleaseDate() - delta);
+				job.setDueDate(job.getDueDate() - delta);
+				job.setDeadline(job.getDeadline() - delta);
+			}
+			invalidate();
+			return true;
+		}
+		return false;
+	}
+
+	public void modifyDeadlines(int horizon) {
+		if(maxDeadline() > horizon) {
+			for (IJob job : jobs) {
+				if(job.getDeadline() > horizon) job.setDeadline(horizon);
+			}
+			invalidate();
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Aggregates ///////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	private void computeAggregates() {
+		minDuration = minSize = minReleaseDate = minDeadline = minWeight = minDueDate = minSlackTime = Integer.MAX_VALUE;
+		maxDuration = maxSize = maxReleaseDate = maxDeadline = maxWeight = maxDueDate = maxSlackTime = Integer.MIN_VALUE;
+		sumDurations = sumSizes = sumWeights = 0;
+		for (IJob job : jobs) {
+			final int p = job.getDuration();
+			if(p < minDuration) minDuration = p;
+			if(p > maxDuration) maxDuration = p;
+			sumDurations += p;
+			final int s = job.getSize();
+			if(s < minSize) minSize = s;
+			if(s > maxSize) maxSize = s;
+			sumSizes += s;
+			final int r = job.getReleaseDate();
+			if(r < minReleaseDate) minReleaseDate = r;
+			if(r > maxReleaseDate) maxReleaseDate = r;
+			final int dl = job.getDeadline();
+			if(dl < minDeadline) minDeadline = dl;
+			if(dl > maxDeadline) maxDeadline = dl;
+			final int w = job.getWeight();
+			if(w < minWeight) minWeight = w;
+			if(w > maxWeight) maxWeight = w;
+			sumWeights += w;
+			final int d = job.getDueDate();
+			if(d < minDueDate) minDueDate = d;
+			if(d > maxDueDate) maxDueDate = d;
+			final int slack = p - d;
+			if(slack < minSlackTime) minSlackTime = slack;
+			if(slack > maxSlackTime) maxSlackTime = slack;
+		}
+		validAggregates = true;
+	}
+
+	private void checkAggregates() {
+		if( ! validAggregates) computeAggregates();
+	}
+
+	public final int minDuration() {
+		checkAggregates();
+		return minDuration;
+	}
+
+	public final int maxDuration() {
+		checkAggregates();
+		return maxDuration;
+	}
+
+	public final int sumDurations() {
+		checkAggregates();
+		return sumDurations;
+	}
+
+	public final int minSize() {
+		checkAggregates();
+		return minSize;
+	}
+
+	public final int maxSize() {
+		checkAggregates();
+		return maxSize;
+	}
+
+	public final int sumSizes() {
+		checkAggregates();
+		return sumSizes;
+	}
+
+	public final int minReleaseDate() {
+		checkAggregates();
+		return minReleaseDate;
+	}
+
+	public final int maxReleaseDate() {
+		checkAggregates();
+		return maxReleaseDate;
+	}
+
+	public final int minDeadline() {
+		checkAggregates();
+		return minDeadline;
+	}
+
+	public final int maxDeadline() {
+		checkAggregates();
+		return maxDeadline;
+	}
+
+	public final int minWeight() {
+		checkAggregates();
+		return minWeight;
+	}
+
+	public final int maxWeight() {
+		checkAggregates();
+		return maxWeight;
+	}
+
+	public final int sumWeights() {
+		checkAggregates();
+		return sumWeights;
+	}
+
+	public final int minDueDate() {
+		checkAggregates();
+		return minDueDate;
+	}
+
+	public final int maxDueDate() {
+		checkAggregates();
+		return maxDueDate;
+	}
+
+	public final int minSlackTime() {
+		checkAggregates();
+		return minSlackTime;
+	}
+
+	public final int maxSlackTime() {
+		checkAggregates();
+		return maxSlackTime;
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Constant variables ///////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	public final IntegerConstantVariable[] constDurations() {
+		if(constDurations == null) constDurations = JobUtils.constDurations(jobs);
+		return constDurations;
+	}
+
+	public final IntegerConstantVariable[] constSizes() {
+		if(constSizes == null) constSizes = JobUtils.constSizes(jobs);
+		return constSizes;
+	}
+
+	public final IntegerConstantVariable[] constReleaseDates() {
+		if(constReleaseDates == null) constReleaseDates = JobUtils.constReleaseDates(jobs);
+		return constReleaseDates;
+	}
+
+	public final IntegerConstantVariable[] constDeadlines() {
+		if(constDeadlines == null) constDeadlines = JobUtils.constDeadlines(jobs);
+		return constDeadlines;
+	}
+
+	public final IntegerConstantVariable[] constWeights() {
+		if(constWeights == null) constWeights = JobUtils.constWeights(jobs);
+		return constWeights;
+	}
+
+	public final IntegerConstantVariable[] constDueDates() {
+		if(constDueDates == null) constDueDates = JobUtils.constDueDates(jobs);
+		return constDueDates;
+	}
+
+}
@@ -0,0 +1,355 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import java.util.Arrays;
+
+import choco.Choco;
+import choco.kernel.common.util.iterators.DisposableIterator;
+
+/**
+ * Columnar (struct of arrays) representation of a set of jobs.
+ * The attributes of the job i are stored at the index i of primitive arrays, 
+ * and the precedence graph is stored in compressed sparse row (CSR) format in both directions.
+ * A table also stores a non-preemptive schedule of its jobs.
+ */
+public final class JobTable {
+
+	public final int nbJobs;
+
+	//dimensions
+	private final int[] durations;
+	private final int[] sizes;
+
+	//time windows
+	private final int[] releaseDates;
+	private final int[] deadlines;
+
+	//objective
+	private final int[] weights;
+	private final int[] dueDates;
+
+	//Precedence Graph (CSR) : the predecessors of i are predecessors[predOffsets[i]], ..., predecessors[predOffsets[i+1]-1].
+	private int nbArcs;
+	private final int[] predOffsets;
+	private int[] predecessors;
+	private final int[] succOffsets;
+	private int[] successors;
+
+	//schedule
+	private final int[] startingTimes;
+	private final int[] completionTimes;
+
+	public JobTable(int nbJobs) {
+		super();
+		this.nbJobs = nbJobs;
+		durations = new int[nbJobs];
+		sizes = new int[nbJobs];
+		releaseDates = new int[nbJobs];
+		deadlines = new int[nbJobs];
+		weights = new int[nbJobs];
+		dueDates = new int[nbJobs];
+		predOffsets = new int[nbJobs + 1];
+		predecessors = new int[0];
+		succOffsets = new int[nbJobs + 1];
+		successors = new int[0];
+		startingTimes = new int[nbJobs];
+		completionTimes = new int[nbJobs];
+		reset();
+	}
+
+	/**
+	 * Build the table of the jobs (the index of a job in the table is its index in the array).
+	 * The hooks of the jobs are used and modified.
+	 */
+	public static JobTable build(ITJob... jobs) {
+		final int n = jobs.length;
+		final JobTable table = new JobTable(n);
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			table.setValues(i, jobs[i]);
+			jobs[i].setHook(i);
+			m += jobs[i].getSuccessorCount();
+		}
+		final int[] origins = new int[m];
+		final int[] destinations = new int[m];
+		m = 0;
+		for (int i = 0; i < n; i++) {
+			final DisposableIterator<ITJob> iter = jobs[i].getSuccIterator();
+			while(iter.hasNext()) {
+				origins[m] = i;
+				destinations[m] = iter.next().getHook();
+				m++;
+			}
+			iter.dispose();
+		}
+		table.setPrecedences(origins, destinations, m);
+		return table;
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Reset  ///////////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	public void resetPrecedences() {
+		nbArcs = 0;
+		Arrays.fill(predOffsets, 0);
+		Arrays.fill(succOffsets, 0);
+	}
+
+	public void resetSchedule() {
+		System.arraycopy(releaseDates, 0, startingTimes, 0, nbJobs);
+		System.arraycopy(deadlines, 0, completionTimes, 0, nbJobs);
+	}
+
+	public void reset() {
+		Arrays.fill(durations, 0);
+		Arrays.fill(sizes, 0);
+		Arrays.fill(releaseDates, 0);
+		Arrays.fill(deadlines, Choco.MAX_UPPER_BOUND);
+		Arrays.fill(weights, 1);
+		Arrays.fill(dueDates, Choco.MAX_UPPER_BOUND);
+		resetPrecedences();
+		resetSchedule();
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Getters/Setters  /////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	public final int getNbJobs() {
+		return nbJobs;
+	}
+
+	public void setValues(int i, IJob j) {
+		durations[i] = j.getDuration();
+		sizes[i] = j.getSize();
+		releaseDates[i] = j.getReleaseDate();
+		deadlines[i] = j.getDeadline();
+		weights[i] = j.getWeight();
+		dueDates[i] = j.getDueDate();
+	}
+
+	public final int[] getDurations() {
+		return durations;
+	}
+
+	public final int[] getSizes() {
+		return sizes;
+	}
+
+	public final int[] getReleaseDates() {
+		return releaseDates;
+	}
+
+	public final int[] getDeadlines() {
+		return deadlines;
+	}
+
+	public final int[] getWeights() {
+		return weights;
+	}
+
+	public final int[] getDueDates() {
+		return dueDates;
+	}
+
+	public final int getDuration(int i) {
+		return durations[i];
+	}
+
+	public final void setDuration(int i, int duration) {
+		assert(duration >= 0);
+		durations[i] = duration;
+	}
+
+	public final int getSize(int i) {
+		return sizes[i];
+	}
+
+	public final void setSize(int i, int size) {
+		sizes[i] = size;
+	}
+
+	public final int getReleaseDate(int i) {
+		return releaseDates[i];
+	}
+
+	public final void setReleaseDate(int i, int releaseDate) {
+		releaseDates[i] = releaseDate;
+	}
+
+	public final int getDeadline(int i) {
+		return deadlines[i];
+	}
+
+	public final void setDeadline(int i, int deadline) {
+		deadlines[i] = deadline;
+	}
+
+	public final int getWeight(int i) {
+		return weights[i];
+	}
+
+	public final void setWeight(int i, int weight) {
+		weights[i] = weight;
+	}
+
+	public final int getDueDate(int i) {
+		return dueDates[i];
+	}
+
+	public final void setDueDate(int i, int dueDate) {
+		dueDates[i] = dueDate;
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Precedence Graph  ////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Replace the precedence graph by the arcs origins[k] -> destinations[k] for k < nbArcs (counting sort).
+	 */
+	public void setPrecedences(int[] origins, int[] destinations, int nbArcs) {
+		resetPrecedences();
+		this.nbArcs = nbArcs;
+		if(predecessors.length < nbArcs) {
+			predecessors = new int[nbArcs];
+			successors = new int[nbArcs];
+		}
+		for (int k = 0; k < nbArcs; k++) {
+			succOffsets[origins[k] + 1]++;
+			predOffsets[destinations[k] + 1]++;
+		}
+		for (int i = 0; i < nbJobs; i++) {
+			succOffsets[i + 1] += succOffsets[i];
+			predOffsets[i + 1] += predOffsets[i];
+		}
+		//the offsets are shifted while filling the arrays, and restored afterwards. 
+		for (int k = 0; k < nbArcs; k++) {
+			successors[succOffsets[origins[k]]++] = destinations[k];
+			predecessors[predOffsets[destinations[k]]++] = origins[k];
+		}
+		for (int i = nbJobs; i > 0; i--) {
+			succOffsets[i] = succOffsets[i - 1];
+			predOffsets[i] = predOffsets[i - 1];
+		}
+		succOffsets[0] = 0;
+		predOffsets[0] = 0;
+	}
+
+	public final int getNbArcs() {
+		return nbArcs;
+	}
+
+	public final int getPredecessorCount(int i) {
+		return predOffsets[i + 1] - predOffsets[i];
+	}
+
+	public final int getSuccessorCount(int i) {
+		return succOffsets[i + 1] - succOffsets[i];
+	}
+
+	public final int[] getPredOffsets() {
+		return predOffsets;
+	}
+
+	public final int[] getPredecessors() {
+		return predecessors;
+	}
+
+	public final int[] getSuccOffsets() {
+		return succOffsets;
+	}
+
+	public final int[] getSuccessors() {
+		return successors;
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Scheduling  //////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	public final int getStartingTime(int i) {
+		return startingTimes[i];
+	}
+
+	public final int getCompletionTime(int i) {
+		return completionTimes[i];
+	}
+
+	public final int[] getStartingTimes() {
+		return startingTimes;
+	}
+
+	public final int[] getCompletionTimes() {
+		return completionTimes;
+	}
+
+	/**
+	 * The time windows are not checked since the release-free sequences ignore the release dates (see {@link JobUtils#isScheduledInTimeWindows(JobTable)}).
+	 * @return the completion time of the job.
+	 */
+	public final int scheduleFrom(int i, int startingTime) {
+		startingTimes[i] = startingTime;
+		completionTimes[i] = startingTime + durations[i];
+		return completionTimes[i];
+	}
+
+	/**
+	 * The time windows are not checked (see {@link #scheduleFrom(int, int)}).
+	 * @return the starting time of the job.
+	 */
+	public final int scheduleTo(int i, int endingTime) {
+		completionTimes[i] = endingTime;
+		startingTimes[i] = endingTime - durations[i];
+		return startingTimes[i];
+	}
+
+	/**
+	 * Schedule the jobs (in the same order as the table) according to the schedule of the table.
+	 */
+	public void applySchedule(ITJob... jobs) {
+		for (int i = 0; i < nbJobs; i++) {
+			jobs[i].scheduleFrom(startingTimes[i]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder b = new StringBuilder();
+		for (int i = 0; i < nbJobs; i++) {
+			b.append(i).append("[p=").append(durations[i]);
+			b.append(", s=").append(sizes[i]);
+			b.append(", w=").append(weights[i]);
+			b.append(", d=").append(dueDates[i]);
+			b.append(", tw=[").append(releaseDates[i]).append(",").append(deadlines[i]).append("]] ");
+		}
+		return b.toString();
+	}
+
+}
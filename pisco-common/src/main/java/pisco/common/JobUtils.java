@@ -423,4 +423,131 @@ public final class JobUtils {
 		}
 		return max;
 	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Job tables  //////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	private static int min(final int[] tab, final int n) {
+		int min = Integer.MAX_VALUE;
+		for (int i = 0; i < n; i++) {
+			if(tab[i] < min) {
+				min = tab[i];
+			}
+		}
+		return min;
+	}
+
+	private static int max(final int[] tab, final int n) {
+		int max = Integer.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			if(tab[i] > max) {
+				max = tab[i];
+			}
+		}
+		return max;
+	}
+
+	private static int sum(final int[] tab, final int n) {
+		int sum = 0;
+		for (int i = 0; i < n; i++) {
+			sum += tab[i];
+		}
+		return sum;
+	}
+
+	public final static int minDuration(JobTable jobs) {
+		return min(jobs.getDurations(), jobs.nbJobs);
+	}
+
+	public final static int maxDuration(JobTable jobs) {
+		return max(jobs.getDurations(), jobs.nbJobs);
+	}
+
+	public final static int sumDurations(JobTable jobs) {
+		return sum(jobs.getDurations(), jobs.nbJobs);
+	}
+
+	public final static int minSize(JobTable jobs) {
+		return min(jobs.getSizes(), jobs.nbJobs);
+	}
+
+	public final static int maxSize(JobTable jobs) {
+		return max(jobs.getSizes(), jobs.nbJobs);
+	}
+
+	public final static int sumSizes(JobTable jobs) {
+		return sum(jobs.getSizes(), jobs.nbJobs);
+	}
+
+	public final static int minReleaseDate(JobTable jobs) {
+		return min(jobs.getReleaseDates(), jobs.nbJobs);
+	}
+
+	public final static int maxReleaseDate(JobTable jobs) {
+		return max(jobs.getReleaseDates(), jobs.nbJobs);
+	}
+
+	public final static int minDeadline(JobTable jobs) {
+		return min(jobs.getDeadlines(), jobs.nbJobs);
+	}
+
+	public final static int maxDeadline(JobTable jobs) {
+		return max(jobs.getDeadlines(), jobs.nbJobs);
+	}
+
+	public final static int minWeight(JobTable jobs) {
+		return min(jobs.getWeights(), jobs.nbJobs);
+	}
+
+	public final static int maxWeight(JobTable jobs) {
+		return max(jobs.getWeights(), jobs.nbJobs);
+	}
+
+	public final static int sumWeights(JobTable jobs) {
+		return sum(jobs.getWeights(), jobs.nbJobs);
+	}
+
+	public final static int minDueDate(JobTable jobs) {
+		return min(jobs.getDueDates(), jobs.nbJobs);
+	}
+
+	public final static int maxDueDate(JobTable jobs) {
+		return max(jobs.getDueDates(), jobs.nbJobs);
+	}
+
+	public final static int minSlackTime(JobTable jobs) {
+		final int[] p = jobs.getDurations();
+		final int[] d = jobs.getDueDates();
+		int min = Integer.MAX_VALUE;
+		for (int i = 0; i < jobs.nbJobs; i++) {
+			final int v = p[i] - d[i];
+			if(v < min) {
+				min = v;
+			}
+		}
+		return min;
+	}
+
+	public final static int maxSlackTime(JobTable jobs) {
+		final int[] p = jobs.getDurations();
+		final int[] d = jobs.getDueDates();
+		int max = Integer.MIN_VALUE;
+		for (int i = 0; i < jobs.nbJobs; i++) {
+			final int v = p[i] - d[i];
+			if(v > max) {
+				max = v;
+			}
+		}
+		return max;
+	}
+
+	public final static boolean isScheduledInTimeWindows(JobTable jobs) {
+		for (int i = 0; i < jobs.nbJobs; i++) {
+			if(jobs.getStartingTime(i) < jobs.getReleaseDate(i) || jobs.getCompletionTime(i) > jobs.getDeadline(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
 }
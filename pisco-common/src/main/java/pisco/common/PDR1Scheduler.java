@@ -15,7 +15,6 @@ import static pisco.common.JobUtils.isScheduled;
 import gnu.trove.TObjectProcedure;
 
 import java.util.Arrays;
-import java.util.PriorityQueue;
 import java.util.Random;
 
 import choco.kernel.common.DottyBean;
@@ -43,6 +42,23 @@ public final class PDR1Scheduler {
 			makeSumCosts()
 			);
 
+	/**
+	 * minimal number of jobs sorted by a radix sort (instead of a merge sort with the comparator).
+	 */
+	public final static int RADIX_SORT_THRESHOLD = 256;
+
+	/**
+	 * sorter of the convenience methods, reused by the successive calls of a thread.
+	 */
+	private final static ThreadLocal<JobKeySorter> SORTER = new ThreadLocal<JobKeySorter>() {
+
+		@Override
+		protected JobKeySorter initialValue() {
+			return new JobKeySorter(RADIX_SORT_THRESHOLD);
+		}
+
+	};
+
 	private PDR1Scheduler() {
 		super();
 	}
@@ -76,13 +92,31 @@ public final class PDR1Scheduler {
 
 
 	public static int schedule(final ITJob[] jobs, final PriorityDispatchingRule rule) {
-		Arrays.sort(jobs, rule.priorityRule);
-		return sequence(jobs, jobs.length, rule);
+		return schedule(jobs, jobs.length, rule);
 	}
 
+	/**
+	 * Large job sets are sorted by a radix sort if the rule has a packed key.
+	 */
 	public static int schedule(final ITJob[] jobs, final int n, final PriorityDispatchingRule rule) {
-		Arrays.sort(jobs, 0, n, rule.priorityRule);
-		return sequence(jobs, n, rule);		
+		if(n >= RADIX_SORT_THRESHOLD && rule.priorityKey != null) {
+			return schedule(jobs, n, rule, SORTER.get());
+		} else {
+			Arrays.sort(jobs, 0, n, rule.priorityRule);
+			return sequence(jobs, n, rule);
+		}
+	}
+
+	/**
+	 * The sorter is reused if the rule has a packed key.
+	 */
+	public static int schedule(final ITJob[] jobs, final int n, final PriorityDispatchingRule rule, final JobKeySorter sorter) {
+		if(rule.priorityKey != null) {
+			sorter.sort(jobs, n, rule.priorityKey);
+		} else {
+			Arrays.sort(jobs, 0, n, rule.priorityRule);
+		}
+		return sequence(jobs, n, rule);
 	}
 
 	//*****************************************************************//
@@ -114,29 +148,50 @@ public final class PDR1Scheduler {
 	}
 
 
-	public static final class Proc1PrecLmax extends DefaultJobProcedure {
+	/**
+	 * Pending jobs are sorted by latest due dates (max-heap).
+	 */
+	public static final class Proc1PrecLmax extends IndexedJobProcedure {
 
 		public Proc1PrecLmax() {
-			super(new PriorityQueue<ITJob>(DEFAULT_CAPACITY, JobComparators.getLatestDueDate()));
+			super();
+		}
+
+		@Override
+		protected int getKey(ITJob job) {
+			return - job.getDueDate();
+		}
+
+		protected void initSuccessorCounts(final JobTable jobs) {
+			ensureCapacity(jobs.nbJobs);
+			pendingJobs.clear();
+			final int[] offsets = jobs.getSuccOffsets();
+			for (int i = 0; i < jobs.nbJobs; i++) {
+				counts[i] = offsets[i + 1] - offsets[i];
+				if(counts[i] == 0) {
+					pendingJobs.add(i, - jobs.getDueDate(i));
+				}
+			}
+			assert(! pendingJobs.isEmpty());
 		}
 	}
 	
 	/**
 	 * Lawler algorithm : build a sequence in backward order.
+	 * The hooks of the jobs are used and modified.
 	 */
 	public final static int schedule1PrecLmax(ITJob[] jobs, Proc1PrecLmax procedure) {
 		//initialize
 		int currentTime = 0;
 		int lmax = MIN_LOWER_BOUND;
-		final PriorityQueue<ITJob> pendingJobs= procedure.getPriorityQueue();
-		pendingJobs.clear();
+		final IndexedIntHeap pendingJobs= procedure.getPendingJobs();
 		currentTime = JobUtils.sumDurations(jobs);
 		//VisuFactory.getDotManager().show(new DottyBean(jobs));
-		JobUtils.initSuccessorHooks(jobs, procedure);
+		procedure.initSuccessorCounts(jobs);
 		//Lawler algorithm : build sequence in backward order P = sum pj
 		while( ! pendingJobs.isEmpty()) {
 			//schedule job with the latest due date (minimize min fj(P))
-			final ITJob job = pendingJobs.remove();
+			final ITJob job = jobs[pendingJobs.poll()];
 			job.scheduleTo(currentTime);
 			currentTime = job.getEST();
 			//Compute lateness
@@ -149,7 +204,37 @@ public final class PDR1Scheduler {
 		return lmax;
 	}
 
-	
+	/**
+	 * Lawler algorithm on a job table : build a sequence in backward order.
+	 */
+	public final static int schedule1PrecLmax(JobTable jobs) {
+		return schedule1PrecLmax(jobs, new Proc1PrecLmax());
+	}
+
+	public final static int schedule1PrecLmax(JobTable jobs, Proc1PrecLmax procedure) {
+		int lmax = MIN_LOWER_BOUND;
+		final IndexedIntHeap pendingJobs= procedure.getPendingJobs();
+		final int[] counts = procedure.counts;
+		final int[] offsets = jobs.getPredOffsets();
+		final int[] predecessors = jobs.getPredecessors();
+		int currentTime = JobUtils.sumDurations(jobs);
+		procedure.initSuccessorCounts(jobs);
+		while( ! pendingJobs.isEmpty()) {
+			final int job = pendingJobs.poll();
+			final int lateness = currentTime - jobs.getDueDate(job);
+			if(lmax < lateness) { lmax = lateness;}
+			currentTime = jobs.scheduleTo(job, currentTime);
+			for (int k = offsets[job]; k < offsets[job + 1]; k++) {
+				final int pred = predecessors[k];
+				if( --counts[pred] == 0) {
+					pendingJobs.add(pred, - jobs.getDueDate(pred));
+				}
+			}
+		}
+		assert(currentTime == 0);
+		return lmax;
+	}
+
 	
 
 	////////////////////////////////////////////////////////////////////
@@ -197,6 +282,53 @@ public final class PDR1Scheduler {
 
 
 
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Sequence algorithms on job tables ////////////
+	////////////////////////////////////////////////////////////////////
+
+	/**
+	 * Schedule the n first jobs of the order (indices in the table) without idle time.
+	 */
+	public static int sequence(final JobTable jobs, final int[] order, final int n, final PriorityDispatchingRule rule) {
+		return sequence(jobs, order, n, rule.costFunction, rule.globalCostFunction);
+	}
+
+	public static int sequence(final JobTable jobs, final int[] order, final int n, final ICostFunction costFunction, final ICostAggregator globalCostFunction) {
+		assert n<= order.length;
+		int time = jobs.scheduleFrom(order[0], 0);
+		globalCostFunction.setCost(costFunction.getCost(jobs, order[0], time));
+		for (int i = 1; i < n; i++) {
+			time = jobs.scheduleFrom(order[i], time);
+			globalCostFunction.addCost(costFunction.getCost(jobs, order[i], time));	
+		}
+		return globalCostFunction.getTotalCost();		
+	}
+
+	public static int sequenceWithReleaseDates(final JobTable jobs, final int[] order, final int n, final ICostFunction costFunction, final ICostAggregator globalCostFunction) {
+		assert n<= order.length;
+		int time = jobs.scheduleFrom(order[0], jobs.getReleaseDate(order[0]));
+		globalCostFunction.setCost(costFunction.getCost(jobs, order[0], time));
+		for (int i = 1; i < n; i++) {
+			time = jobs.scheduleFrom(order[i], Math.max(time, jobs.getReleaseDate(order[i])));
+			globalCostFunction.addCost(costFunction.getCost(jobs, order[i], time));	
+		}
+		return globalCostFunction.getTotalCost();
+	}
+
+	public static int lazySequenceWithReleaseDates(final JobTable jobs, final int[] order, final int n, final ICostFunction costFunction, final ICostAggregator globalCostFunction, final int ub) {
+		assert n<= order.length;
+		int time = jobs.scheduleFrom(order[0], jobs.getReleaseDate(order[0]));
+		globalCostFunction.setCost(costFunction.getCost(jobs, order[0], time));
+		for (int i = 1; i < n; i++) {
+			time = jobs.scheduleFrom(order[i], Math.max(time, jobs.getReleaseDate(order[i])));
+			globalCostFunction.addCost(costFunction.getCost(jobs, order[i], time));	
+			if(globalCostFunction.getTotalCost() >= ub) {
+				return MAX_UPPER_BOUND;
+			}
+		}
+		return globalCostFunction.getTotalCost();
+	}
+
 	////////////////////////////////////////////////////////////////////
 	/////////// upper bound of gamma given by the deadlines ////////////
 	////////////////////////////////////////////////////////////////////
@@ -0,0 +1,266 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import static choco.Choco.MAX_UPPER_BOUND;
+
+import java.util.Arrays;
+
+/**
+ * Reusable sweep engine for the preemptive single machine problems 1|rj,pmtn|sum Cj and 1|rj,pmtn|sum wjCj.
+ * <p>
+ * The jobs are added incrementally (their index is their insertion rank) and the structures are reused between two calls.
+ * Pending jobs are stored in an indexed heap and the release dates are visited with a cursor.
+ * The unweighted engine follows the SRPT rule (Shortest Remaining Processing Time) and returns the optimal total completion time.
+ * The weighted engine follows the WSRPT rule of Belouadah, Posner and Potts : each preempted part of a job becomes a piece 
+ * with a proportional weight, and the total weighted completion time of the pieces is a lower bound of 1|rj|sum wjCj. 
+ * This lower bound is optimal if there is no preemption, for instance when all release dates are equal (WSPT rule).
+ */
+public final class Pmtn1FlowScheduler {
+
+	private final static int DEFAULT_CAPACITY = 16;
+
+	private final static double EPSILON = 1e-6;
+
+	private final boolean weighted;
+
+	private int nbJobs;
+
+	private int[] durations;
+
+	private int[] releaseDates;
+
+	private int[] weights;
+
+	private int[] remainingDurations;
+
+	private int[] completionTimes;
+
+	/**
+	 * sum of the products of the length and the completion time of each preempted piece of a job (weighted engine).
+	 */
+	private long[] pieces;
+
+	/**
+	 * jobs sorted by non-decreasing release dates (then by WSPT order for the weighted engine).
+	 */
+	private int[] order;
+
+	/**
+	 * rank of each job in the WSPT order (weighted engine).
+	 */
+	private int[] ranks;
+
+	private final IndexedIntHeap pendingJobs;
+
+	public Pmtn1FlowScheduler(boolean weighted) {
+		this(weighted, DEFAULT_CAPACITY);
+	}
+
+	public Pmtn1FlowScheduler(boolean weighted, int capacity) {
+		super();
+		this.weighted = weighted;
+		capacity = Math.max(capacity, 1);
+		durations = new int[capacity];
+		releaseDates = new int[capacity];
+		weights = new int[capacity];
+		remainingDurations = new int[capacity];
+		completionTimes = new int[capacity];
+		pieces = new long[capacity];
+		order = new int[capacity];
+		ranks = new int[capacity];
+		pendingJobs = new IndexedIntHeap(capacity);
+	}
+
+	public final boolean isWeighted() {
+		return weighted;
+	}
+
+	public final int getNbJobs() {
+		return nbJobs;
+	}
+
+	public void clear() {
+		nbJobs = 0;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if(capacity > durations.length) {
+			final int n = Math.max(capacity, 2 * durations.length);
+			durations = Arrays.copyOf(durations, n);
+			releaseDates = Arrays.copyOf(releaseDates, n);
+			weights = Arrays.copyOf(weights, n);
+			remainingDurations = new int[n];
+			completionTimes = new int[n];
+			pieces = new long[n];
+			order = new int[n];
+			ranks = new int[n];
+		}
+	}
+
+	/**
+	 * add a job and return its index.
+	 */
+	public int add(int duration, int releaseDate, int weight) {
+		ensureCapacity(nbJobs + 1);
+		durations[nbJobs] = duration;
+		releaseDates[nbJobs] = releaseDate;
+		weights[nbJobs] = weight;
+		return nbJobs++;
+	}
+
+	public final int add(ITJob job) {
+		return add(job.getDuration(), job.getReleaseDate(), job.getWeight());
+	}
+
+	public final void addAll(ITJob[] jobs, int n) {
+		ensureCapacity(nbJobs + n);
+		for (int i = 0; i < n; i++) {
+			add(jobs[i]);
+		}
+	}
+
+	/**
+	 * completion time of the job in the last preemptive schedule.
+	 */
+	public final int getCompletionTime(int job) {
+		return completionTimes[job];
+	}
+
+	/**
+	 * Build the preemptive schedule : return the total completion time (SRPT) or a lower bound of the total weighted completion time (WSRPT). 
+	 */
+	public int schedule() {
+		if(nbJobs == 0) return 0;
+		sortByReleaseDates();
+		long sumCi = 0;
+		double pieceGain = 0;
+		int time = releaseDates[order[0]];
+		int next = 0;
+		while(next < nbJobs || ! pendingJobs.isEmpty()) {
+			if(pendingJobs.isEmpty() && time < releaseDates[order[next]]) {
+				time = releaseDates[order[next]];
+			}
+			//Add new pending jobs
+			while(next < nbJobs && releaseDates[order[next]] <= time) {
+				final int j = order[next++];
+				remainingDurations[j] = durations[j];
+				pieces[j] = 0;
+				pendingJobs.add(j, weighted ? ranks[j] : durations[j]);
+			}
+			final int nextTime = next < nbJobs ? releaseDates[order[next]] : MAX_UPPER_BOUND;
+			//Schedule the selected job until its completion or the next release date
+			final int j = pendingJobs.peek();
+			if(remainingDurations[j] <= nextTime - time) {
+				time += remainingDurations[j];
+				pendingJobs.poll();
+				completionTimes[j] = time;
+				if(weighted) {
+					sumCi += (long) weights[j] * time;
+					if(remainingDurations[j] < durations[j]) {
+						//the preempted pieces complete before the job : wj * sum( p * (Cj - C) ) / pj 
+						pieceGain += (double) weights[j] * ( (long) (durations[j] - remainingDurations[j]) * time - pieces[j]) / durations[j];
+					}
+				} else {
+					sumCi += time;
+				}
+			} else {
+				final int d = nextTime - time;
+				time = nextTime;
+				remainingDurations[j] -= d;
+				if(weighted) {
+					//a piece of length d completes at time
+					pieces[j] += (long) d * time;
+				} else {
+					pendingJobs.decreaseKey(j, remainingDurations[j]);
+				}
+			}
+		}
+		assert sumCi - Math.floor(pieceGain + EPSILON) <= Integer.MAX_VALUE;
+		return (int) (sumCi - Math.floor(pieceGain + EPSILON));
+	}
+
+	private void sortByReleaseDates() {
+		if(weighted) {
+			sortByWSPT();
+			for (int i = 0; i < nbJobs; i++) {
+				ranks[order[i]] = i;
+			}
+		}
+		pendingJobs.ensureCapacity(nbJobs);
+		pendingJobs.clear();
+		for (int i = 0; i < nbJobs; i++) {
+			pendingJobs.add(i, releaseDates[i]);
+		}
+		for (int i = 0; i < nbJobs; i++) {
+			order[i] = pendingJobs.poll();
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Heap sort by WSPT order //////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	/**
+	 * the ratios are compared exactly (no floating point division).
+	 */
+	private boolean isAfter(int i, int j) {
+		return (long) weights[i] * durations[j] < (long) weights[j] * durations[i];
+	}
+
+	private void sortByWSPT() {
+		for (int i = 0; i < nbJobs; i++) {
+			order[i] = i;
+		}
+		for (int i = nbJobs / 2 - 1; i >= 0; i--) {
+			siftDown(i, nbJobs);
+		}
+		for (int i = nbJobs - 1; i > 0; i--) {
+			swap(0, i);
+			siftDown(0, i);
+		}
+	}
+
+	private void siftDown(int i, int size) {
+		int child;
+		while( (child = 2 * i + 1) < size) {
+			if(child + 1 < size && isAfter(order[child + 1], order[child])) {
+				child++;
+			}
+			if( ! isAfter(order[child], order[i])) break;
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int i, int j) {
+		final int tmp = order[i];
+		order[i] = order[j];
+		order[j] = tmp;
+	}
+
+}
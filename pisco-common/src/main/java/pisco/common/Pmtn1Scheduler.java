@@ -6,7 +6,6 @@ import static pisco.common.JobUtils.isScheduled;
 import gnu.trove.TObjectProcedure;
 
 import java.util.Arrays;
-import java.util.PriorityQueue;
 
 import choco.kernel.common.DottyBean;
 import choco.kernel.common.logging.ChocoLogging;
@@ -19,12 +18,15 @@ public final class Pmtn1Scheduler {
 	}
 
 
-	public static final class Proc1Lmax extends DefaultJobProcedure {
+	/**
+	 * Pending jobs are sorted by earliest due dates.
+	 */
+	public static final class Proc1Lmax extends IndexedJobProcedure {
 
 		private int time;
 
 		public Proc1Lmax() {
-			super(new PriorityQueue<ITJob>(DEFAULT_CAPACITY, JobComparators.getEarliestDueDate()));
+			super();
 		}
 		
 		
@@ -39,12 +41,18 @@ public final class Pmtn1Scheduler {
 		}
 
 
+		@Override
+		protected int getKey(ITJob job) {
+			return job.getDueDate();
+		}
+
 
 		@Override
 		public void execute(ITJob arg) {
-			if( arg.decHook() == 0) {
+			final int index = arg.getHook();
+			if( --counts[index] == 0) {
 				if(arg.getReleaseDate() < time) {
-					pendingJobs.add(arg);
+					pendingJobs.add(index, arg.getDueDate());
 				}
 			}
 		}
@@ -57,15 +65,15 @@ public final class Pmtn1Scheduler {
 		return schedule1PrecLmax(jobs, new Proc1Lmax());
 	}
 	
+	/**
+	 * The jobs are sorted by earliest release dates, and their hooks are used and modified. 
+	 */
 	public final static int schedule1PrecLmax(ITJob[] jobs, Proc1Lmax procedure) {
 		//initialize
 		int lmax = MIN_LOWER_BOUND;
-		for (int i = 0; i < jobs.length; i++) {
-			jobs[i].setHook(jobs[i].getPredecessorCount());
-		}
 		Arrays.sort(jobs, JobComparators.getEarliestReleaseDate());
-		final PriorityQueue<ITJob> pendingJobs= procedure.getPriorityQueue();
-		pendingJobs.clear();
+		procedure.initPredecessorCounts(jobs);
+		final IndexedIntHeap pendingJobs= procedure.getPendingJobs();
 		int time, nextTime;
 		int i = 0;
 		//Start scheduling jobs
@@ -75,8 +83,8 @@ public final class Pmtn1Scheduler {
 			do { 
 				time =  jobs[i].getReleaseDate();
 				while( 	i < jobs.length && jobs[i].getReleaseDate() == time) {
-					if(jobs[i].getHook() == 0) {
-						pendingJobs.add(jobs[i]);
+					if(procedure.isAvailable(i)) {
+						pendingJobs.add(i, jobs[i].getDueDate());
 					}
 					i++;
 				}
@@ -85,14 +93,16 @@ public final class Pmtn1Scheduler {
 			nextTime =  i < jobs.length ? jobs[i].getReleaseDate() : MAX_UPPER_BOUND;
 			//Schedule pending jobs selected by EDD-rule until the next release date;
 			while(time < nextTime && ! pendingJobs.isEmpty() ) {
-				time = pendingJobs.peek().scheduleIn(time, nextTime);
-				if(pendingJobs.peek().isScheduled()) {
+				final ITJob job = jobs[pendingJobs.peek()];
+				time = job.scheduleIn(time, nextTime);
+				if(job.isScheduled()) {
 					//Job is entirely scheduled : compute cost
-					final int lateness = pendingJobs.peek().getLateness();
+					final int lateness = job.getLateness();
 					if(lmax < lateness) { lmax = lateness;}
 					//Update predecessor's counts and new pending jobs
 					procedure.setTime(time);
-					pendingJobs.remove().forEachSuccessor(procedure);
+					pendingJobs.poll();
+					job.forEachSuccessor(procedure);
 				}
 			}
 		} while(i < jobs.length);
@@ -105,39 +115,39 @@ public final class Pmtn1Scheduler {
 		return lmax;
 	}
 
-	public final static int schedule1rjFlow(AbstractJob[] jobs) {
-		//initialize
-		int sumCi = 0;
-		// TODO - Avoid copying - created 12 avr. 2012 by A. Malapert
-		AbstractJob[] tjobs = Arrays.copyOf(jobs, jobs.length);
-		Arrays.sort(tjobs, JobComparators.getEarliestReleaseDate());
-		// TODO - Set optionally the queue as parameter to save memory - created 12 avr. 2012 by A. Malapert
-		
-		final PriorityQueue<AbstractJob> pendingJobs= new PriorityQueue<AbstractJob>(10, JobComparators.getShortestRemainingProcessingTime());
-		int nextTime = tjobs[0].getReleaseDate();
-		int i = 0;
-		do {
-			final int time = nextTime;
-			while( 	i < jobs.length && tjobs[i].getReleaseDate() == time) {
-				pendingJobs.add(tjobs[i]);
-				i++;
-			}
-			int currentTime = time;
-			nextTime =  i < jobs.length ? tjobs[i].getReleaseDate() : MAX_UPPER_BOUND;
-			while(currentTime < nextTime && ! pendingJobs.isEmpty() ) {
-				for (AbstractJob job : pendingJobs) {
-					System.out.print(job.getID()+":"+job.getRemainingDuration()+ " ");
-				}
-				System.out.println();
-				currentTime = pendingJobs.peek().scheduleIn(currentTime, nextTime);
-				System.out.println(pendingJobs.peek());
-				if(pendingJobs.peek().isScheduled()) {
-					sumCi += pendingJobs.remove().getCompletionTime();
-				}
-			}
-		} while(i < jobs.length);
-		assert(isScheduled(tjobs));
-		return sumCi;
+	/**
+	 * SRPT rule : optimal total completion time of the preemptive schedule (the jobs are not modified).
+	 */
+	public final static int schedule1rjFlow(ITJob[] jobs) {
+		return schedule1rjFlow(jobs, new Pmtn1FlowScheduler(false, jobs.length));
+	}
+
+	/**
+	 * SRPT rule with a reusable (unweighted) engine.
+	 */
+	public final static int schedule1rjFlow(ITJob[] jobs, Pmtn1FlowScheduler scheduler) {
+		assert ! scheduler.isWeighted();
+		scheduler.clear();
+		scheduler.addAll(jobs, jobs.length);
+		return scheduler.schedule();
+	}
+
+	/**
+	 * WSRPT rule : lower bound of the total weighted completion time (the jobs are not modified).
+	 * @see Pmtn1FlowScheduler
+	 */
+	public final static int schedule1rjWFlow(ITJob[] jobs) {
+		return schedule1rjWFlow(jobs, new Pmtn1FlowScheduler(true, jobs.length));
+	}
+
+	/**
+	 * WSRPT rule with a reusable (weighted) engine.
+	 */
+	public final static int schedule1rjWFlow(ITJob[] jobs, Pmtn1FlowScheduler scheduler) {
+		assert scheduler.isWeighted();
+		scheduler.clear();
+		scheduler.addAll(jobs, jobs.length);
+		return scheduler.schedule();
 	}
 
 
@@ -31,13 +31,23 @@ import java.util.Comparator;
 public class PriorityDispatchingRule {
 	
 	public final Comparator<IJob> priorityRule;
+	/**
+	 * packed key consistent with the priority rule (null if the jobs can only be sorted with the comparator).
+	 */
+	public final IJobKey priorityKey;
 	public final ICostFunction costFunction;
 	public final ICostAggregator globalCostFunction;
 	
 	public PriorityDispatchingRule(Comparator<IJob> priorityRule,
 			ICostFunction costFunction, ICostAggregator globalCostFunction) {
+		this(priorityRule, JobComparators.getKey(priorityRule), costFunction, globalCostFunction);
+	}
+
+	public PriorityDispatchingRule(Comparator<IJob> priorityRule, IJobKey priorityKey,
+			ICostFunction costFunction, ICostAggregator globalCostFunction) {
 		super();
 		this.priorityRule = priorityRule;
+		this.priorityKey = priorityKey;
 		this.costFunction = costFunction;
 		this.globalCostFunction = globalCostFunction;
 	}
@@ -46,6 +56,10 @@ public class PriorityDispatchingRule {
 		return priorityRule;
 	}
 
+	public final IJobKey getPriorityKey() {
+		return priorityKey;
+	}
+
 	public final ICostFunction getCostFunction() {
 		return costFunction;
 	}
@@ -0,0 +1,291 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+/**
+ * Evaluation of the moves of a job in a sequence scheduled without idle time from time 0.
+ * <p>
+ * The sequence is loaded once in O(n log n). Then, the cost of a move (insertion, swap or replacement) is evaluated without modifying the jobs : 
+ * in O(1) if the cost function is affine and the costs are summed (total (weighted) completion time) 
+ * or if the slopes are all equal and the maximal cost is computed (maximal lateness). 
+ * Otherwise, the costs of the shifted jobs are recomputed (e.g. total tardiness).
+ */
+public final class SequenceCostEvaluator {
+
+	private final static int DEFAULT_CAPACITY = 16;
+
+	private final ICostFunction costFunction;
+
+	/**
+	 * true if the costs are summed, false if the maximal cost is computed.
+	 */
+	private final boolean sumCosts;
+
+	private ITJob[] jobs;
+
+	private int nbJobs;
+
+	private int totalCost;
+
+	private int[] completionTimes;
+
+	private int[] costs;
+
+	/**
+	 * sum of the slopes of the jobs in [0, i[ (affine cost).
+	 */
+	private int[] prefixSlopes;
+
+	/**
+	 * true if all jobs have the same slope (affine cost).
+	 */
+	private boolean uniformSlope;
+
+	/**
+	 * maximal cost of the jobs in [0, i[ (maximal cost).
+	 */
+	private int[] prefixMax;
+
+	/**
+	 * sparse table of the range maxima of the costs : rangeMax[k][i] is the maximal cost in [i, i + 2^k[.
+	 */
+	private int[][] rangeMax;
+
+	public SequenceCostEvaluator(PriorityDispatchingRule rule) {
+		this(rule.costFunction, rule.globalCostFunction);
+	}
+
+	public SequenceCostEvaluator(ICostFunction costFunction, ICostAggregator globalCostFunction) {
+		super();
+		this.costFunction = costFunction;
+		this.sumCosts = ! (globalCostFunction instanceof MaxCosts);
+		ensureCapacity(DEFAULT_CAPACITY);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if(completionTimes == null || capacity > completionTimes.length) {
+			completionTimes = new int[capacity];
+			costs = new int[capacity];
+			prefixSlopes = new int[capacity + 1];
+			prefixMax = new int[capacity + 1];
+			rangeMax = new int[32 - Integer.numberOfLeadingZeros(capacity)][];
+			rangeMax[0] = costs;
+			for (int k = 1; k < rangeMax.length; k++) {
+				rangeMax[k] = new int[capacity - (1 << k) + 1];
+			}
+		}
+	}
+
+	/**
+	 * load the sequence of the n first jobs and return its cost.
+	 */
+	public int load(ITJob[] jobs, int n) {
+		ensureCapacity(n);
+		this.jobs = jobs;
+		this.nbJobs = n;
+		int time = 0;
+		int slope = 0;
+		uniformSlope = true;
+		prefixMax[0] = Integer.MIN_VALUE;
+		totalCost = sumCosts ? 0 : Integer.MIN_VALUE;
+		for (int i = 0; i < n; i++) {
+			time += jobs[i].getDuration();
+			completionTimes[i] = time;
+			costs[i] = costFunction.getCost(jobs[i], time);
+			if(sumCosts) {
+				totalCost += costs[i];
+			} else if(costs[i] > totalCost) {
+				totalCost = costs[i];
+			}
+			prefixMax[i + 1] = totalCost;
+			if(costFunction.isAffine()) {
+				final int s = getSlope(jobs[i]);
+				prefixSlopes[i + 1] = prefixSlopes[i] + s;
+				if(i == 0) {
+					slope = s;
+				} else if( s != slope) {
+					uniformSlope = false;
+				}
+			}
+		}
+		if( ! sumCosts) {
+			for (int k = 1; k < rangeMax.length && (1 << k) <= n; k++) {
+				final int half = 1 << (k - 1);
+				for (int i = 0; i + (1 << k) <= n; i++) {
+					rangeMax[k][i] = Math.max(rangeMax[k - 1][i], rangeMax[k - 1][i + half]);
+				}
+			}
+		}
+		return totalCost;
+	}
+
+	private int getSlope(ITJob job) {
+		return costFunction.getCost(job, 1) - costFunction.getCost(job, 0);
+	}
+
+	public final int getNbJobs() {
+		return nbJobs;
+	}
+
+	public final int getTotalCost() {
+		return totalCost;
+	}
+
+	public final int getCompletionTime(int position) {
+		return completionTimes[position];
+	}
+
+	private int getStartingTime(int position) {
+		return position > 0 ? completionTimes[position - 1] : 0;
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Shifted blocks ///////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	/**
+	 * variation of the total cost of the jobs in [from, to] if they are shifted by delta.
+	 */
+	private int getSumShift(int from, int to, int delta) {
+		if(from > to || delta == 0) return 0;
+		if(costFunction.isAffine()) {
+			return delta * (prefixSlopes[to + 1] - prefixSlopes[from]);
+		} else {
+			int sum = 0;
+			for (int i = from; i <= to; i++) {
+				sum += costFunction.getCost(jobs[i], completionTimes[i] + delta) - costs[i];
+			}
+			return sum;
+		}
+	}
+
+	private int getRangeMax(int from, int to) {
+		final int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+		return Math.max(rangeMax[k][from], rangeMax[k][to - (1 << k) + 1]);
+	}
+
+	/**
+	 * maximal cost of the jobs in [from, to] if they are shifted by delta.
+	 */
+	private int getMaxShift(int from, int to, int delta) {
+		if(from > to) return Integer.MIN_VALUE;
+		if(delta == 0) {
+			return getRangeMax(from, to);
+		} else if(costFunction.isAffine() && uniformSlope) {
+			return getRangeMax(from, to) + delta * getSlope(jobs[from]);
+		} else {
+			int max = Integer.MIN_VALUE;
+			for (int i = from; i <= to; i++) {
+				final int c = costFunction.getCost(jobs[i], completionTimes[i] + delta);
+				if(c > max) max = c;
+			}
+			return max;
+		}
+	}
+
+	////////////////////////////////////////////////////////////////////
+	///////////////////// Moves ////////////////////////////////////////
+	////////////////////////////////////////////////////////////////////
+
+	/**
+	 * variation of the cost if the job at position from is removed and the job is inserted at position to of the remaining sequence.
+	 */
+	public int getReplaceDelta(int from, int to, ITJob job) {
+		assert from >= 0 && from < nbJobs && to >= 0 && to < nbJobs;
+		final int oldDuration = jobs[from].getDuration();
+		final int newDuration = job.getDuration();
+		final int lo, hi, shift, completionTime;
+		if(to > from) {
+			//forward move : the jobs in [from + 1, to] are shifted to the left
+			lo = from + 1;
+			hi = to;
+			shift = - oldDuration;
+			completionTime = completionTimes[to] - oldDuration + newDuration;
+		} else {
+			//backward move : the jobs in [to, from - 1] are shifted to the right
+			lo = to;
+			hi = from - 1;
+			shift = newDuration;
+			completionTime = getStartingTime(to) + newDuration;
+		}
+		final int suffixShift = newDuration - oldDuration;
+		final int first = Math.min(from, to);
+		final int last = Math.max(from, to);
+		final int cost = costFunction.getCost(job, completionTime);
+		if(sumCosts) {
+			return cost - costs[from] + getSumShift(lo, hi, shift) + getSumShift(last + 1, nbJobs - 1, suffixShift);
+		} else {
+			int max = Math.max(prefixMax[first], cost);
+			max = Math.max(max, getMaxShift(lo, hi, shift));
+			max = Math.max(max, getMaxShift(last + 1, nbJobs - 1, suffixShift));
+			return max - totalCost;
+		}
+	}
+
+	/**
+	 * variation of the cost if the job at position from is moved to position to.
+	 */
+	public int getInsertDelta(int from, int to) {
+		return getReplaceDelta(from, to, jobs[from]);
+	}
+
+	/**
+	 * variation of the cost if the job is added at position to (the following jobs are shifted to the right).
+	 */
+	public int getAddDelta(int to, ITJob job) {
+		assert to >= 0 && to <= nbJobs;
+		final int completionTime = getStartingTime(to) + job.getDuration();
+		final int cost = costFunction.getCost(job, completionTime);
+		if(sumCosts) {
+			return cost + getSumShift(to, nbJobs - 1, job.getDuration());
+		} else {
+			final int max = Math.max( Math.max(prefixMax[to], cost), getMaxShift(to, nbJobs - 1, job.getDuration()));
+			return max - totalCost;
+		}
+	}
+
+	/**
+	 * variation of the cost if the jobs at positions i and j are swapped.
+	 */
+	public int getSwapDelta(int i, int j) {
+		if(i == j) return 0;
+		if(i > j) return getSwapDelta(j, i);
+		final int pi = jobs[i].getDuration();
+		final int pj = jobs[j].getDuration();
+		final int ci = costFunction.getCost(jobs[i], completionTimes[j]);
+		final int cj = costFunction.getCost(jobs[j], getStartingTime(i) + pj);
+		if(sumCosts) {
+			return ci - costs[i] + cj - costs[j] + getSumShift(i + 1, j - 1, pj - pi);
+		} else {
+			int max = Math.max(prefixMax[i], Math.max(ci, cj));
+			max = Math.max(max, getMaxShift(i + 1, j - 1, pj - pi));
+			max = Math.max(max, getMaxShift(j + 1, nbJobs - 1, 0));
+			return max - totalCost;
+		}
+	}
+
+}
@@ -0,0 +1,321 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common;
+
+import java.util.Arrays;
+
+/**
+ * Build the setup times row by row without storing the full matrix.
+ * While the jobs can be grouped into at most sqrt(n) families, only the row of a representative is stored for each family.
+ * The rows are hashed so that finding the family of a row is linear.
+ * Otherwise, each row is stored in the narrowest integer type.
+ */
+public final class SetupTimesBuilder {
+
+	private final int n;
+
+	private final int maxFamilies;
+
+	private int nbRows;
+
+	private int min;
+
+	private int max;
+
+	private long nnz;
+
+	//families (null when there are too many families).
+	private int[] families;
+
+	private int[] representatives;
+
+	private int[][] familyRows;
+
+	private long[] familyHashes;
+
+	private int nbFamilies;
+
+	//rows (stored only when there are too many families).
+	private byte[][] byteRows;
+
+	private short[][] shortRows;
+
+	private int[][] intRows;
+
+	public SetupTimesBuilder(int n) {
+		super();
+		this.n = n;
+		maxFamilies = (int) Math.sqrt(n);
+		families = new int[n];
+		representatives = new int[maxFamilies];
+		familyRows = new int[maxFamilies][];
+		familyHashes = new long[maxFamilies];
+	}
+
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * add the setup times of the next job (the diagonal is ignored). The row is copied.
+	 */
+	public void addRow(int[] row) {
+		if(nbRows == n) throw new IllegalStateException("too many rows");
+		final int i = nbRows++;
+		for (int j = 0; j < n; j++) {
+			if( j != i && row[j] != 0) {
+				nnz++;
+				if(row[j] < min) min = row[j];
+				else if(row[j] > max) max = row[j];
+			}
+		}
+		if(families != null) {
+			final long hash = hash(row, i);
+			final int f = findFamily(row, i, hash);
+			if( f >= 0) {
+				families[i] = f;
+				return;
+			} else if(nbFamilies < maxFamilies) {
+				familyRows[nbFamilies] = Arrays.copyOf(row, n);
+				familyRows[nbFamilies][i] = 0;
+				familyHashes[nbFamilies] = hash;
+				representatives[nbFamilies] = i;
+				families[i] = nbFamilies++;
+				return;
+			} else {
+				materializeFamilies(i);
+			}
+		}
+		storeRow(i, row);
+	}
+
+	/**
+	 * @return the smallest storage which represents exactly the setup times.
+	 */
+	public ISetupTimes build() {
+		if(nbRows < n) throw new IllegalStateException("missing rows: "+nbRows+"/"+n);
+		if(nnz == 0) return new ZeroSetupTimes(n);
+		final long denseSize = (long) n * n * getWidth(min, max);
+		final long sparseSize = 4L * (n + 1) + 8L * nnz;
+		if(families != null) {
+			final ISetupTimes fst = makeFamilySetupTimes();
+			if(fst != null && fst.getMemorySize() <= Math.min(denseSize, sparseSize)) {
+				return fst;
+			}
+			materializeFamilies(n);
+		}
+		return sparseSize < denseSize ? makeSparseSetupTimes() : makeDenseSetupTimes();
+	}
+
+	private static long mix(int j, int s) {
+		long h = ( (long) j << 32 ) ^ (s & 0xFFFFFFFFL);
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * The hash is additive so that it can be updated when two positions are swapped.
+	 */
+	private long hash(int[] row, int i) {
+		long h = 0;
+		for (int j = 0; j < n; j++) {
+			if( j != i) h += mix(j, row[j]);
+		}
+		return h;
+	}
+
+	/**
+	 * The jobs i and r are interchangeable if their rows are equal except for the setup times between them, which are swapped.
+	 * The columns are checked when the setup times are built.
+	 */
+	private int findFamily(int[] row, int i, long hash) {
+		for (int f = 0; f < nbFamilies; f++) {
+			final int r = representatives[f];
+			final int[] rrow = familyRows[f];
+			if( hash - mix(r, row[r]) == familyHashes[f] - mix(i, rrow[i]) && row[r] == rrow[i]) {
+				int j = 0;
+				while( j < n && ( j == i || j == r || row[j] == rrow[j])) {
+					j++;
+				}
+				if( j == n) return f;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * store the rows of the first jobs and forget the families.
+	 */
+	private void materializeFamilies(int nbJobs) {
+		byteRows = new byte[n][];
+		shortRows = new short[n][];
+		intRows = new int[n][];
+		final int[] row = new int[n];
+		for (int k = 0; k < nbJobs; k++) {
+			final int f = families[k];
+			final int r = representatives[f];
+			System.arraycopy(familyRows[f], 0, row, 0, n);
+			row[r] = familyRows[f][k];
+			storeRow(k, row);
+		}
+		families = null;
+		representatives = null;
+		familyRows = null;
+		familyHashes = null;
+	}
+
+	private static int getWidth(int min, int max) {
+		return min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE ? 1 :
+			min >= Short.MIN_VALUE && max <= Short.MAX_VALUE ? 2 : 4;
+	}
+
+	private void storeRow(int i, int[] row) {
+		int rmin = 0;
+		int rmax = 0;
+		for (int j = 0; j < n; j++) {
+			if( j != i) {
+				if(row[j] < rmin) rmin = row[j];
+				else if(row[j] > rmax) rmax = row[j];
+			}
+		}
+		switch (getWidth(rmin, rmax)) {
+		case 1 : {
+			final byte[] r = new byte[n];
+			for (int j = 0; j < n; j++) {
+				if( j != i) r[j] = (byte) row[j];
+			}
+			byteRows[i] = r;
+			break;
+		}
+		case 2 : {
+			final short[] r = new short[n];
+			for (int j = 0; j < n; j++) {
+				if( j != i) r[j] = (short) row[j];
+			}
+			shortRows[i] = r;
+			break;
+		}
+		default : {
+			final int[] r = Arrays.copyOf(row, n);
+			r[i] = 0;
+			intRows[i] = r;
+		}
+		}
+	}
+
+	private int getStoredSetupTime(int i, int j) {
+		return byteRows[i] != null ? byteRows[i][j] :
+			shortRows[i] != null ? shortRows[i][j] : intRows[i][j];
+	}
+
+	/**
+	 * @return the setup times between families, or <code>null</code> if the columns are not interchangeable.
+	 */
+	private ISetupTimes makeFamilySetupTimes() {
+		final int[][] familySetupTimes = new int[nbFamilies][nbFamilies];
+		for (int f = 0; f < nbFamilies; f++) {
+			for (int g = 0; g < nbFamilies; g++) {
+				if(f != g) familySetupTimes[f][g] = familyRows[f][representatives[g]];
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			final int f = families[i];
+			if(representatives[f] != i) familySetupTimes[f][f] = familyRows[f][i];
+		}
+		//the other rows of a family are deduced from the row of its representative.
+		for (int f = 0; f < nbFamilies; f++) {
+			for (int j = 0; j < n; j++) {
+				if(j != representatives[f] && familySetupTimes[f][families[j]] != familyRows[f][j]) return null;
+			}
+		}
+		return new FamilySetupTimes(Arrays.copyOf(families, n), familySetupTimes);
+	}
+
+	private ISetupTimes makeSparseSetupTimes() {
+		final int[] rows = new int[n + 1];
+		final int[] columns = new int[(int) nnz];
+		final int[] values = new int[(int) nnz];
+		int idx = 0;
+		for (int i = 0; i < n; i++) {
+			rows[i] = idx;
+			for (int j = 0; j < n; j++) {
+				final int s = getStoredSetupTime(i, j);
+				if(s != 0) {
+					columns[idx] = j;
+					values[idx] = s;
+					idx++;
+				}
+			}
+			byteRows[i] = null;
+			shortRows[i] = null;
+			intRows[i] = null;
+		}
+		rows[n] = idx;
+		return new SparseSetupTimes(rows, columns, values);
+	}
+
+	/**
+	 * The rows are widened one by one so that the peak memory stays close to the final one.
+	 */
+	private ISetupTimes makeDenseSetupTimes() {
+		switch (getWidth(min, max)) {
+		case 1 : return new ByteSetupTimes(byteRows);
+		case 2 : {
+			final short[][] rows = shortRows;
+			for (int i = 0; i < n; i++) {
+				if(rows[i] == null) {
+					rows[i] = new short[n];
+					for (int j = 0; j < n; j++) {
+						rows[i][j] = byteRows[i][j];
+					}
+					byteRows[i] = null;
+				}
+			}
+			return new ShortSetupTimes(rows);
+		}
+		default : {
+			final int[][] rows = intRows;
+			for (int i = 0; i < n; i++) {
+				if(rows[i] == null) {
+					rows[i] = new int[n];
+					for (int j = 0; j < n; j++) {
+						rows[i][j] = getStoredSetupTime(i, j);
+					}
+					byteRows[i] = null;
+					shortRows[i] = null;
+				}
+			}
+			return new IntSetupTimes(rows);
+		}
+		}
+	}
+
+}
@@ -0,0 +1,154 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common.choco;
+
+import choco.cp.solver.variables.integer.IntVarEvent;
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.solver.ContradictionException;
+import choco.kernel.solver.constraints.integer.AbstractLargeIntSConstraint;
+import choco.kernel.solver.variables.integer.IntDomainVar;
+
+/**
+ * A passive constraint which maintains an index of the bins ordered by their loads, and then by their signatures.
+ * The key of a bin is its remaining space (sup - inf of its load), or its opposite minimal load.
+ * It is shared by the best-fit value selection heuristics to find the best bin of an item without scanning its domain.
+ * @author Arnaud Malapert
+ */
+public class BinIndexSConstraint extends AbstractLargeIntSConstraint {
+
+	protected final int nbBins;
+
+	private final StoredBinIndex index;
+
+	private final boolean remainingSpace;
+
+	/**
+	 * buffers of the keys and signatures recomputed by a full propagation.
+	 */
+	private final int[] keys;
+
+	private final int[] signatures;
+
+	/**
+	 * @param loads the load variables of the bins
+	 * @param remainingSpace if <code>true</code>, the bins are ordered by increasing remaining space, otherwise by decreasing minimal load.
+	 */
+	public BinIndexSConstraint(IEnvironment environment, IntDomainVar[] loads, boolean remainingSpace) {
+		this(environment, loads, loads.length, remainingSpace);
+	}
+
+	/**
+	 * @param vars the load variables of the bins followed by blocks of variables of the bins which define their signatures.
+	 */
+	protected BinIndexSConstraint(IEnvironment environment, IntDomainVar[] vars, int nbBins, boolean remainingSpace) {
+		super(vars);
+		this.nbBins = nbBins;
+		this.remainingSpace = remainingSpace;
+		index = new StoredBinIndex(environment, nbBins);
+		keys = new int[nbBins];
+		signatures = new int[nbBins];
+	}
+
+	public final StoredBinIndex getIndex() {
+		return index;
+	}
+
+	private int getKey(int bin) {
+		return remainingSpace ? vars[bin].getSup() - vars[bin].getInf() : - vars[bin].getInf();
+	}
+
+	/**
+	 * @return the signature of the bin (0 by default).
+	 */
+	protected int getSignature(int bin) {
+		return 0;
+	}
+
+	private void update(int varIdx) {
+		final int bin = varIdx % nbBins;
+		index.setKey(bin, getKey(bin), getSignature(bin));
+	}
+
+	/**
+	 * @return the bin of the domain of the item with the smallest key (-1 if none).
+	 */
+	public int getBestBin(IntDomainVar item) {
+		int bin = index.getFirst(item.getInf(), item.getSup());
+		while(bin >= 0 && ! item.canBeInstantiatedTo(bin)) {
+			bin = index.getNext();
+		}
+		return bin;
+	}
+
+	@Override
+	public int getFilteredEventMask(int idx) {
+		return IntVarEvent.INCINF_MASK + IntVarEvent.DECSUP_MASK + IntVarEvent.BOUNDS_MASK + IntVarEvent.INSTINT_MASK;
+	}
+
+	@Override
+	public void awake() throws ContradictionException {
+		propagate();
+	}
+
+	@Override
+	public void propagate() throws ContradictionException {
+		for (int i = 0; i < nbBins; i++) {
+			keys[i] = getKey(i);
+			signatures[i] = getSignature(i);
+		}
+		index.setKeys(keys, signatures);
+	}
+
+	@Override
+	public void awakeOnInf(int varIdx) throws ContradictionException {
+		update(varIdx);
+	}
+
+	@Override
+	public void awakeOnSup(int varIdx) throws ContradictionException {
+		update(varIdx);
+	}
+
+	@Override
+	public void awakeOnBounds(int varIdx) throws ContradictionException {
+		update(varIdx);
+	}
+
+	@Override
+	public void awakeOnInst(int idx) throws ContradictionException {
+		update(idx);
+	}
+
+	/**
+	 * the constraint never filters.
+	 */
+	@Override
+	public boolean isSatisfied(int[] tuple) {
+		return true;
+	}
+
+}
@@ -0,0 +1,267 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.common.choco;
+
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.memory.IStateInt;
+
+/**
+ * Backtrackable index of bins ordered by increasing keys, then by increasing signatures (ties are broken by increasing index).
+ * The bins with the same key and signature are consecutive in the enumeration.
+ * The index is a tournament tree : a key is updated in O(log m) and the bins of a range are enumerated in order in O(log m) per bin.
+ * @author Arnaud Malapert
+ */
+public final class StoredBinIndex {
+
+	private final int nbBins;
+
+	/**
+	 * index of the first leaf (power of two).
+	 */
+	private final int offset;
+
+	private final IStateInt[] keys;
+
+	private final IStateInt[] signatures;
+
+	/**
+	 * bin with the smallest key in the subtree of each internal node (-1 if none).
+	 */
+	private final IStateInt[] winners;
+
+	/**
+	 * heap of the nodes of the current enumeration.
+	 */
+	private final int[] heap;
+
+	private int heapSize;
+
+	public StoredBinIndex(IEnvironment environment, int nbBins) {
+		super();
+		this.nbBins = nbBins;
+		int n = 1;
+		while(n < nbBins) {n <<= 1;}
+		offset = n;
+		keys = new IStateInt[nbBins];
+		signatures = new IStateInt[nbBins];
+		for (int i = 0; i < nbBins; i++) {
+			keys[i] = environment.makeInt(0);
+			signatures[i] = environment.makeInt(0);
+		}
+		winners = new IStateInt[offset];
+		for (int i = 1; i < offset; i++) {
+			winners[i] = environment.makeInt(-1);
+		}
+		heap = new int[2 * offset];
+		rebuild();
+	}
+
+	public final int getNbBins() {
+		return nbBins;
+	}
+
+	public final int getKey(int bin) {
+		return keys[bin].get();
+	}
+
+	public final int getSignature(int bin) {
+		return signatures[bin].get();
+	}
+
+	private boolean isBetter(int b1, int b2) {
+		if(b1 < 0) return false;
+		else if(b2 < 0) return true;
+		else {
+			final int k1 = keys[b1].get();
+			final int k2 = keys[b2].get();
+			if(k1 != k2) return k1 < k2;
+			final int s1 = signatures[b1].get();
+			final int s2 = signatures[b2].get();
+			return s1 < s2 || (s1 == s2 && b1 < b2);
+		}
+	}
+
+	private int getWinner(int node) {
+		if(node >= offset) {
+			final int bin = node - offset;
+			return bin < nbBins ? bin : -1;
+		} else {
+			return winners[node].get();
+		}
+	}
+
+	private int computeWinner(int node) {
+		final int w1 = getWinner(2 * node);
+		final int w2 = getWinner(2 * node + 1);
+		return isBetter(w2, w1) ? w2 : w1;
+	}
+
+	private void rebuild() {
+		for (int node = offset - 1; node > 0; node--) {
+			winners[node].set(computeWinner(node));
+		}
+	}
+
+	/**
+	 * set all the keys at once in O(m).
+	 */
+	public void setKeys(int[] values) {
+		for (int i = 0; i < nbBins; i++) {
+			keys[i].set(values[i]);
+		}
+		rebuild();
+	}
+
+	/**
+	 * set all the keys and signatures at once in O(m).
+	 */
+	public void setKeys(int[] values, int[] sigs) {
+		for (int i = 0; i < nbBins; i++) {
+			keys[i].set(values[i]);
+			signatures[i].set(sigs[i]);
+		}
+		rebuild();
+	}
+
+	public void setKey(int bin, int key) {
+		setKey(bin, key, signatures[bin].get());
+	}
+
+	public void setKey(int bin, int key, int signature) {
+		if(keys[bin].get() != key || signatures[bin].get() != signature) {
+			keys[bin].set(key);
+			signatures[bin].set(signature);
+			int node = (offset + bin) >> 1;
+			while(node > 0) {
+				final int old = winners[node].get();
+				final int winner = computeWinner(node);
+				if(winner == old && winner != bin) {
+					break; //the ancestors are unchanged
+				}
+				winners[node].set(winner);
+				node >>= 1;
+			}
+		}
+	}
+
+	/**
+	 * @return the bin with the smallest key (-1 if there is no bin).
+	 */
+	public final int getMinimum() {
+		return offset > 1 ? winners[1].get() : getWinner(1);
+	}
+
+	private void push(int node) {
+		final int bin = getWinner(node);
+		if(bin >= 0) {
+			int i = heapSize++;
+			while(i > 0) {
+				final int parent = (i - 1) >> 1;
+				if( ! isBetter(bin, getWinner(heap[parent])) ) break;
+				heap[i] = heap[parent];
+				i = parent;
+			}
+			heap[i] = node;
+		}
+	}
+
+	private int pop() {
+		final int root = heap[0];
+		final int last = heap[--heapSize];
+		final int bin = getWinner(last);
+		int i = 0;
+		int child = 1;
+		while(child < heapSize) {
+			if(child + 1 < heapSize && isBetter(getWinner(heap[child + 1]), getWinner(heap[child]))) {
+				child++;
+			}
+			if( ! isBetter(getWinner(heap[child]), bin)) break;
+			heap[i] = heap[child];
+			i = child;
+			child = 2 * i + 1;
+		}
+		heap[i] = last;
+		return root;
+	}
+
+	/**
+	 * start an enumeration of the bins by increasing keys.
+	 * @return the first bin (-1 if there is no bin).
+	 */
+	public int getFirst() {
+		heapSize = 0;
+		push(1);
+		return getNext();
+	}
+
+	/**
+	 * start an enumeration of the bins of the range [from, to] by increasing keys.
+	 * Only the O(log m) subtrees covering the range are visited.
+	 * @return the first bin of the range (-1 if there is no bin).
+	 */
+	public int getFirst(int from, int to) {
+		heapSize = 0;
+		int l = offset + Math.max(from, 0);
+		int r = offset + Math.min(to, nbBins - 1) + 1;
+		while(l < r) {
+			if( (l & 1) != 0) {push(l++);}
+			if( (r & 1) != 0) {push(--r);}
+			l >>= 1;
+			r >>= 1;
+		}
+		return getNext();
+	}
+
+	/**
+	 * The keys must not be modified during an enumeration.
+	 * @return the next bin of the enumeration (-1 if all bins have been enumerated).
+	 */
+	public int getNext() {
+		while(heapSize > 0) {
+			final int node = pop();
+			if(node >= offset) {
+				return node - offset;
+			} else {
+				push(2 * node);
+				push(2 * node + 1);
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder b = new StringBuilder();
+		int bin = getFirst();
+		while(bin >= 0) {
+			b.append(bin).append(':').append(getKey(bin)).append('/').append(getSignature(bin)).append(' ');
+			bin = getNext();
+		}
+		return b.toString();
+	}
+
+}
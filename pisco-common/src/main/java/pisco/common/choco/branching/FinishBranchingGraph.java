@@ -26,9 +26,6 @@
  */
 package pisco.common.choco.branching;
 
-import gnu.trove.TIntArrayList;
-import gnu.trove.TIntProcedure;
-
 import java.util.Arrays;
 import java.util.BitSet;
 
@@ -50,9 +47,23 @@ public class FinishBranchingGraph extends AbstractShopFakeBranching {
 
 	protected final ITemporalSRelation[] precedences;
 
-	private final TIntArrayList[] outgoing;
+	/**
+	 * arcs of the precedence graph : the static precedences are stored first, then the fixed disjunctions.
+	 */
+	private final int[] arcOrigins;
+
+	private final int[] arcDestinations;
+
+	private int nbStaticArcs;
+
+	/**
+	 * successors of the task i are stored in successors[succOffsets[i], succOffsets[i+1][ (compressed sparse row).
+	 */
+	private final int[] succOffsets;
+
+	private final int[] successors;
 
-	private final TIntArrayList[] incoming;
+	private final int[] predCounts;
 
 	private final TopologicalOrder topOrder;
 
@@ -64,8 +75,15 @@ public class FinishBranchingGraph extends AbstractShopFakeBranching {
 		this.disjSMod=disjSMod;
 		this.precedences = disjSMod.getEdges();
 		final int n = solver.getNbTaskVars();
-		incoming = new TIntArrayList[n];
-		outgoing = new TIntArrayList[n];
+		int m = precedences.length;
+		for (int i = 0; i < n; i++) {
+			m += disjSMod.getPrecSuccessors(i).cardinality();
+		}
+		arcOrigins = new int[m];
+		arcDestinations = new int[m];
+		succOffsets = new int[n + 1];
+		successors = new int[m];
+		predCounts = new int[n];
 		topOrder = new TopologicalOrder(n);
 		longestPath = new LongestPath(n);
 		initialize();
@@ -75,41 +93,53 @@ public class FinishBranchingGraph extends AbstractShopFakeBranching {
 
 	private final void initialize() {
 		final int n = solver.getNbTaskVars();
+		nbStaticArcs = 0;
 		for (int i = 0; i < n; i++) {
-			incoming[i]=new TIntArrayList();
-			outgoing[i]=new TIntArrayList();
 			if(tasks[i].getID() != i) {
 				LOGGER.severe("cant initalize Data structure: task ID Problem");
 				throw new SolverException("cant initialize branching");	
 			}
+			final BitSet succ = disjSMod.getPrecSuccessors(i);
+			for (int j = succ.nextSetBit(0); j >= 0; j = succ.nextSetBit(j + 1)) {
+				arcOrigins[nbStaticArcs] = i;
+				arcDestinations[nbStaticArcs++] = j;
+			}
 		}
 	}
 
 	protected final void buildGraph() {
-		for (int i = 0; i < incoming.length; i++) {
-			outgoing[i].resetQuick();
-			incoming[i].resetQuick();
-		}
-		
-		for (int i = 0; i < incoming.length; i++) {
-			BitSet succ = disjSMod.getPrecSuccessors(i);
-			for (int j = succ.nextSetBit(0); j >= 0; j = succ.nextSetBit(j + 1)) {
-				outgoing[i].add(j);
-				incoming[j].add(i);
-			}
-		}
 		//Add fixed disjunctions
+		int m = nbStaticArcs;
 		for (int i = 0; i < precedences.length; i++) {
 			final int lid = precedences[i].getOrigin().getID();
 			final int rid = precedences[i].getDestination().getID();
 			if(precedences[i].getDirection().isInstantiatedTo(1)) {
-				outgoing[lid].add(rid);
-				incoming[rid].add(lid);
+				arcOrigins[m] = lid;
+				arcDestinations[m++] = rid;
 			}else if(precedences[i].getDirection().isInstantiatedTo(0)) {
-				outgoing[rid].add(lid);
-				incoming[lid].add(rid);
+				arcOrigins[m] = rid;
+				arcDestinations[m++] = lid;
 			} else throw new SolverException("Precedence not fixed: "+precedences[i]);
 		}
+		//Counting sort of the arcs by origin
+		final int n = predCounts.length;
+		Arrays.fill(succOffsets, 0);
+		Arrays.fill(predCounts, 0);
+		for (int i = 0; i < m; i++) {
+			succOffsets[arcOrigins[i] + 1]++;
+			predCounts[arcDestinations[i]]++;
+		}
+		for (int i = 0; i < n; i++) {
+			succOffsets[i + 1] += succOffsets[i];
+		}
+		for (int i = 0; i < m; i++) {
+			successors[succOffsets[arcOrigins[i]]++] = arcDestinations[i];
+		}
+		//restore the offsets
+		for (int i = n; i > 0; i--) {
+			succOffsets[i] = succOffsets[i - 1];
+		}
+		succOffsets[0] = 0;
 	}
 
 
@@ -124,22 +154,14 @@ public class FinishBranchingGraph extends AbstractShopFakeBranching {
 	@Override
 	protected void doFakeBranching() throws ContradictionException {
 		buildGraph();
-		topOrder.initialize();
 		topOrder.compute();
 		longestPath.initialize();
 		longestPath.compute();
 		int makespan = Integer.MIN_VALUE;
-		//		System.out.println(makespan.pretty());
-		//		System.out.println(ChocoUtil.pretty(tasks));
-		//		System.out.println("start"+Arrays.toString(longestPath.paths));
-		//		System.out.println("top. index"+Arrays.toString(topOrder.topologicalIndex));
-		//		System.out.println("top. order"+Arrays.toString(topOrder.topologicalOrder));
 		for (int i = 0; i < tasks.length; i++) {
 			int time = longestPath.paths[i];
-			//System.out.println(tasks[i].pretty()+" - start:"+time);
 			tasks[i].start().instantiate(time, null, true);
 			time += tasks[i].duration().getVal();
-			//System.out.println(tasks[i].pretty()+" - end:"+time);
 			tasks[i].end().instantiate(time , null, true);
 			if(time > makespan) {makespan = time;}
 		}
@@ -150,75 +172,74 @@ public class FinishBranchingGraph extends AbstractShopFakeBranching {
 		return topOrder.topologicalOrder;
 	}
 
-	private final class TopologicalOrder implements TIntProcedure {
+	/**
+	 * Kahn algorithm with an array queue. 
+	 * The order of the previous call is kept if it is still a topological order, and is used otherwise to break ties.
+	 */
+	private final class TopologicalOrder {
 
 		public final int[] topologicalOrder;
 
 		public final int[] topologicalIndex;
 
-		private final TIntArrayList noPred = new TIntArrayList();
+		private final int[] queue;
 
 		private final int[] predCounter;
 
-		private int nbHasPred;
-
 		public TopologicalOrder(int n) {
 			topologicalOrder = new int[n];
 			topologicalIndex = new int[n];
+			queue = new int[n];
 			predCounter = new int[n];
+			for (int i = 0; i < n; i++) {
+				topologicalOrder[i] = i;
+				topologicalIndex[i] = i;
+			}
 		}
 
-		public void initialize() {
-			noPred.resetQuick();
-			nbHasPred = 0;
-			for (int i = 0; i < predCounter.length; i++) {
-				predCounter[i] = incoming[i].size();
-				if(predCounter[i] == 0) {
-					noPred.add(i);
-				}else {
-					nbHasPred++;
+		private boolean isTopologicalOrder() {
+			for (int i = 0; i < topologicalOrder.length; i++) {
+				for (int k = succOffsets[i]; k < succOffsets[i + 1]; k++) {
+					if(topologicalIndex[i] > topologicalIndex[successors[k]]) return false;
 				}
-			}			
+			}
+			return true;
 		}
 
-
 		public void compute() {
+			if(isTopologicalOrder()) return;
+			int head = 0, tail = 0;
+			for (int i = 0; i < topologicalOrder.length; i++) {
+				final int task = topologicalOrder[i];
+				predCounter[task] = predCounts[task];
+				if(predCounter[task] == 0) {
+					queue[tail++] = task;
+				}
+			}
 			//main loop
-			int idx = 0;
-			while( nbHasPred > 0) {
-				final int task = noPred.remove(0);
-				outgoing[task].forEach(this);
-				topologicalIndex[task] = idx;
-				topologicalOrder[idx++] = task;
+			while(head < tail) {
+				final int task = queue[head++];
+				for (int k = succOffsets[task]; k < succOffsets[task + 1]; k++) {
+					//decrement predecessors counter and add the task to the queue of tasks without predecessors
+					if( --predCounter[successors[k]] == 0) {
+						queue[tail++] = successors[k];
+					}
+				}
 			}
-			//add remaining tasks
-			for (int i = 0; i < noPred.size(); i++) {
-				final int task = noPred.getQuick(i);
-				topologicalIndex[task] = idx;
-				topologicalOrder[idx++] = task;
+			if(tail < queue.length) {
+				throw new SolverException("cycle in the precedence graph");
 			}
-		}
-
-		@Override
-		public boolean execute(int arg0) {
-			//decrement predecessors counter
-			predCounter[arg0]--;
-			//add the task to the list of tasks without predecessors
-			if(predCounter[arg0] == 0) {
-				noPred.add(arg0);
-				nbHasPred--;				
+			for (int i = 0; i < queue.length; i++) {
+				topologicalOrder[i] = queue[i];
+				topologicalIndex[queue[i]] = i;
 			}
-			return true;
 		}
 
 	}
 
 
 
-	private final class LongestPath implements TIntProcedure {
-
-		private int taskIndex;
-
+	private final class LongestPath {
 
 		public final int[] paths;
 
@@ -236,23 +257,18 @@ public class FinishBranchingGraph extends AbstractShopFakeBranching {
 
 		public void compute() {
 			for (int i = 0; i < paths.length; i++) {
-				taskIndex = topOrder.topologicalOrder[i]; 
-				incoming[taskIndex].forEach(this);
-			}
-		}
-
-
-		@Override
-		public boolean execute(int arg0) {
-			final int l = paths[arg0] + tasks[arg0].duration().getVal();
-			if( l > paths[taskIndex]) {
-				paths[taskIndex] = l;
-				predecessors[taskIndex] = arg0;
+				final int task = topOrder.topologicalOrder[i];
+				final int l = paths[task] + tasks[task].duration().getVal();
+				for (int k = succOffsets[task]; k < succOffsets[task + 1]; k++) {
+					final int succ = successors[k];
+					if( l > paths[succ]) {
+						paths[succ] = l;
+						predecessors[succ] = task;
+					}
+				}
 			}
-			return true;
 		}
 
 	}		
 
 }
-
@@ -1,17 +1,25 @@
 package pisco.common;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
 import gnu.trove.TLinkableAdapter;
 import gnu.trove.TLinkedList;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
 
 import junit.framework.Assert;
 
 import org.junit.Test;
 
+import pisco.common.choco.StoredBinIndex;
+
 import choco.kernel.common.DottyBean;
+import choco.kernel.common.util.iterators.DisposableIterator;
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.memory.trailing.EnvironmentTrailing;
 import choco.kernel.visu.VisuFactory;
 
 public class TestCommon {
@@ -144,6 +152,342 @@ public class TestCommon {
 		
 	}
 
+	private static NPJob makeJob(int id, int duration, int size, int releaseDate, int weight, int dueDate) {
+		final NPJob job = new NPJob(id, duration);
+		job.setSize(size);
+		job.setReleaseDate(releaseDate);
+		job.setWeight(weight);
+		job.setDueDate(dueDate);
+		return job;
+	}
+
+	@Test
+	public void testMerge() {
+		final NPJob j1 = makeJob(1, 5, 2, 3, 1, 10);
+		final NPJob j2 = makeJob(2, 4, 3, 1, 2, 7);
+		final NPJob j3 = makeJob(3, 6, 1, 0, 3, 12);
+		final NPJob batch = new NPJob(0);
+		batch.reset();
+		batch.parallelMerge(j1);
+		batch.parallelMerge(j2);
+		batch.parallelMerge(j3);
+		assertEquals(6, batch.getDuration());
+		assertEquals(6, batch.getSize());
+		assertEquals(3, batch.getReleaseDate());
+		assertEquals(6, batch.getWeight());
+		//the due date of the merged jobs is the minimal one
+		assertEquals(7, batch.getDueDate());
+		final NPJob comb = new NPJob(0);
+		comb.parallelCombinaison(j1, j2);
+		comb.parallelMerge(j3);
+		assertEquals(batch.getDueDate(), comb.getDueDate());
+		assertEquals(batch.getDuration(), comb.getDuration());
+		batch.reset();
+		batch.serialMerge(j3);
+		batch.serialMerge(j2);
+		assertEquals(10, batch.getDuration());
+		assertEquals(7, batch.getDueDate());
+	}
+
+	@Test
+	public void testJobTable() {
+		final PJob[] jobs = buildInstance();
+		final JobTable table = JobTable.build(jobs);
+		assertEquals(2, table.getNbArcs());
+		for (int i = 0; i < jobs.length; i++) {
+			assertEquals(jobs[i].getPredecessorCount(), table.getPredecessorCount(i));
+			assertEquals(jobs[i].getSuccessorCount(), table.getSuccessorCount(i));
+		}
+		assertEquals(3, table.getSuccessors()[table.getSuccOffsets()[0]]);
+		assertEquals(2, table.getPredecessors()[table.getPredOffsets()[1]]);
+		assertEquals(JobUtils.sumDurations(jobs), JobUtils.sumDurations(table));
+		assertEquals(JobUtils.maxDueDate(jobs), JobUtils.maxDueDate(table));
+		assertEquals(JobUtils.minSlackTime(jobs), JobUtils.minSlackTime(table));
+		final int[] order = {1, 4, 3, 0, 2};
+		assertEquals(14, PDR1Scheduler.sequenceWithReleaseDates(table, order, order.length, CostFactory.getLateness(), CostFactory.makeMaxCosts()));
+		assertEquals(37, table.getCompletionTime(2));
+		assertTrue(JobUtils.isScheduledInTimeWindows(table));
+		//release-free sequence: the release dates are ignored
+		assertEquals(11, PDR1Scheduler.sequence(table, order, order.length, PDR1Scheduler.getRuleEDD()));
+		assertEquals(34, table.getCompletionTime(2));
+		assertFalse(JobUtils.isScheduledInTimeWindows(table));
+	}
+
+	@Test
+	public void testIndexedIntHeap() {
+		final Random rnd = new Random(0);
+		final int n = 100;
+		final IndexedIntHeap heap = new IndexedIntHeap(10, 3);
+		heap.ensureCapacity(n);
+		final int[] keys = new int[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = rnd.nextInt(50);
+			heap.add(i, keys[i]);
+		}
+		for (int i = 0; i < n; i += 3) {
+			keys[i] = rnd.nextInt(50);
+			heap.update(i, keys[i]);
+		}
+		heap.remove(7);
+		assertEquals(n - 1, heap.size());
+		int last = Integer.MIN_VALUE;
+		while( ! heap.isEmpty()) {
+			final int key = heap.peekKey();
+			final int i = heap.poll();
+			assertEquals(keys[i], key);
+			assertTrue(last <= key);
+			assertTrue( ! heap.contains(i));
+			last = key;
+		}
+	}
+
+	@Test
+	public void testLawler() {
+		final PJob[] jobs = buildInstance();
+		jobs[1].addSuccessor(jobs[4]);
+		for (PJob job : jobs) {
+			job.setReleaseDate(0);
+			job.resetSchedule();
+		}
+		final JobTable table = JobTable.build(jobs);
+		final int lmax = PDR1Scheduler.schedule1PrecLmax(jobs);
+		assertEquals(lmax, PDR1Scheduler.schedule1PrecLmax(table));
+		for (int i = 0; i < jobs.length; i++) {
+			testJob(jobs[i], table.getStartingTime(i), table.getCompletionTime(i));
+		}
+	}
+
+	@Test
+	public void testIncLawler() {
+		final Random rnd = new Random(0);
+		final int n = 30;
+		final NPJob[] jobs = new NPJob[n];
+		for (int i = 0; i < n; i++) {
+			jobs[i] = new NPJob(i, 1 + rnd.nextInt(10));
+			jobs[i].setDueDate(rnd.nextInt(100));
+		}
+		final EnvironmentTrailing env = new EnvironmentTrailing();
+		final IncLawler1Scheduler scheduler = new IncLawler1Scheduler(env, jobs);
+		final NPJob[] tjobs = Arrays.copyOf(jobs, n);
+		assertEquals(PDR1Scheduler.schedule1PrecLmax(tjobs), scheduler.schedule());
+		final int[] lmax = new int[n];
+		//dive : add a precedence and tighten a due date at each node
+		for (int k = 0; k < n; k++) {
+			lmax[k] = scheduler.getMaximalLateness();
+			env.worldPush();
+			final int i = rnd.nextInt(n - 1);
+			final int j = i + 1 + rnd.nextInt(n - i - 1);
+			jobs[i].addSuccessor(jobs[j]);
+			scheduler.addPrecedence(i, j);
+			final int d = rnd.nextInt(n);
+			jobs[d].setDueDate(jobs[d].getDueDate() - rnd.nextInt(5));
+			scheduler.updateDueDate(d);
+			final int inc = scheduler.schedule();
+			for (int l = 0; l < n; l++) {
+				final DisposableIterator<ITJob> iter = jobs[l].getSuccIterator();
+				while(iter.hasNext()) {
+					assertTrue(scheduler.getPosition(l) < scheduler.getPosition(iter.next().getID()));
+				}
+			}
+			assertEquals(PDR1Scheduler.schedule1PrecLmax(tjobs), inc);
+		}
+		//backtrack
+		for (int k = n - 1; k >= 0; k--) {
+			env.worldPop();
+			assertEquals(lmax[k], scheduler.getMaximalLateness());
+		}
+	}
+
+	/**
+	 * optimal non-preemptive total weighted completion time by enumeration.
+	 */
+	private static int bruteForceWFlow(NPJob[] jobs, int k, int time) {
+		if(k == jobs.length) return 0;
+		int best = Integer.MAX_VALUE;
+		for (int i = k; i < jobs.length; i++) {
+			NPJob tmp = jobs[k]; jobs[k] = jobs[i]; jobs[i] = tmp;
+			final int end = Math.max(time, jobs[k].getReleaseDate()) + jobs[k].getDuration();
+			best = Math.min(best, jobs[k].getWeight() * end + bruteForceWFlow(jobs, k + 1, end));
+			tmp = jobs[k]; jobs[k] = jobs[i]; jobs[i] = tmp;
+		}
+		return best;
+	}
+
+	@Test
+	public void testPmtnFlow() {
+		final PJob[] pjobs = buildInstance();
+		assertEquals(101, Pmtn1Scheduler.schedule1rjFlow(pjobs));
+		final Random rnd = new Random(0);
+		final int n = 7;
+		final NPJob[] jobs = new NPJob[n];
+		final Pmtn1FlowScheduler srpt = new Pmtn1FlowScheduler(false);
+		final Pmtn1FlowScheduler wsrpt = new Pmtn1FlowScheduler(true);
+		for (int k = 0; k < 20; k++) {
+			srpt.clear();
+			wsrpt.clear();
+			for (int i = 0; i < n; i++) {
+				jobs[i] = new NPJob(i, rnd.nextInt(10));
+				jobs[i].setWeight(1);
+				jobs[i].setReleaseDate(rnd.nextInt(20));
+				srpt.add(jobs[i]);
+			}
+			final int sumCi = srpt.schedule();
+			assertTrue(sumCi <= bruteForceWFlow(jobs, 0, 0));
+			for (int i = 0; i < n; i++) {
+				jobs[i].setWeight(1 + rnd.nextInt(5));
+				wsrpt.add(jobs[i]);
+			}
+			assertTrue(wsrpt.schedule() <= bruteForceWFlow(jobs, 0, 0));
+			//equal release dates : WSPT is optimal
+			wsrpt.clear();
+			for (int i = 0; i < n; i++) {
+				jobs[i].setReleaseDate(0);
+				wsrpt.add(jobs[i]);
+			}
+			assertEquals(bruteForceWFlow(jobs, 0, 0), wsrpt.schedule());
+			assertEquals(PDR1Scheduler.schedule1WFlow(Arrays.copyOf(jobs, n)), wsrpt.schedule());
+			//the reused engines are cleared
+			assertEquals(Pmtn1Scheduler.schedule1rjFlow(jobs), Pmtn1Scheduler.schedule1rjFlow(jobs, srpt));
+			assertEquals(Pmtn1Scheduler.schedule1rjWFlow(jobs), Pmtn1Scheduler.schedule1rjWFlow(jobs, wsrpt));
+		}
+	}
+
+	private static void testJobKey(NPJob[] instance, Comparator<IJob> comparator, JobKeySorter sorter) {
+		final IJobKey key = JobComparators.getKey(comparator);
+		Assert.assertNotNull(key);
+		final NPJob[] jobs1 = Arrays.copyOf(instance, instance.length);
+		final NPJob[] jobs2 = Arrays.copyOf(instance, instance.length);
+		Arrays.sort(jobs1, comparator);
+		sorter.sort(jobs2, jobs2.length, key);
+		for (int i = 0; i < jobs1.length; i++) {
+			assertEquals(0, comparator.compare(jobs1[i], jobs2[i]));
+		}
+	}
+
+	@Test
+	public void testJobKeySorter() {
+		final Random rnd = new Random(0);
+		final int n = 1000;
+		final NPJob[] jobs = new NPJob[n];
+		for (int i = 0; i < n; i++) {
+			jobs[i] = new NPJob(i, 1 + rnd.nextInt(50));
+			jobs[i].setWeight(1 + rnd.nextInt(10));
+			jobs[i].setSize(1 + rnd.nextInt(10));
+			jobs[i].setReleaseDate(rnd.nextInt(500));
+			jobs[i].setDueDate(rnd.nextInt(1000) - 200);
+		}
+		final JobKeySorter sorter = new JobKeySorter();
+		testJobKey(jobs, JobComparators.getShortestProcessingTime(), sorter);
+		testJobKey(jobs, JobComparators.getLongestProcessingTime(), sorter);
+		testJobKey(jobs, JobComparators.getWeightedShortestProcessingTime(), sorter);
+		testJobKey(jobs, JobComparators.getEarliestReleaseDate(), sorter);
+		testJobKey(jobs, JobComparators.getEarliestDueDate(), sorter);
+		testJobKey(jobs, JobComparators.getLatestDueDate(), sorter);
+		testJobKey(jobs, JobComparators.getMinimalSlackTime(), sorter);
+		testJobKey(jobs, JobComparators.getDecreasingSize(), sorter);
+		testJobKey(jobs, JobComparators.getDecreasingParallelUnitWeight(), sorter);
+		testJobKey(jobs, JobComparators.getCompositeComparator(JobComparators.getEarliestReleaseDate(), JobComparators.getEarliestDueDate()), sorter);
+		testJobKey(jobs, JobComparators.getCompositeComparator(JobComparators.getDecreasingSize(), JobComparators.getShortestProcessingTime()), sorter);
+		Assert.assertNull(JobComparators.getKey(JobComparators.getCompositeComparator(JobComparators.getDecreasingSize(), JobComparators.getWeightedShortestProcessingTime())));
+		//dispatching
+		for (int i = 0; i < n; i++) {
+			jobs[i].setReleaseDate(0);
+		}
+		final NPJob[] jobs1 = Arrays.copyOf(jobs, n);
+		Arrays.sort(jobs1, PDR1Scheduler.WSPT.priorityRule);
+		assertEquals(PDR1Scheduler.sequence(jobs1, n, PDR1Scheduler.WSPT), PDR1Scheduler.schedule1WFlow(Arrays.copyOf(jobs, n)));
+		//the shared sorter is reused with a smaller set
+		final int m = PDR1Scheduler.RADIX_SORT_THRESHOLD;
+		final NPJob[] jobs2 = Arrays.copyOf(jobs, m);
+		Arrays.sort(jobs2, PDR1Scheduler.SPT.priorityRule);
+		assertEquals(PDR1Scheduler.sequence(jobs2, m, PDR1Scheduler.SPT), PDR1Scheduler.schedule1Flow(Arrays.copyOf(jobs, m)));
+	}
+
+	@Test
+	public void testJobSet() {
+		final PJob[] jobs = buildInstance();
+		final JobSet set = new JobSet(jobs);
+		assertEquals(JobUtils.minDuration(jobs), set.minDuration());
+		assertEquals(JobUtils.sumDurations(jobs), set.sumDurations());
+		assertEquals(JobUtils.maxReleaseDate(jobs), set.maxReleaseDate());
+		assertEquals(JobUtils.minDueDate(jobs), set.minDueDate());
+		assertEquals(JobUtils.maxDueDate(jobs), set.maxDueDate());
+		assertEquals(JobUtils.minSlackTime(jobs), set.minSlackTime());
+		assertEquals(JobUtils.maxSlackTime(jobs), set.maxSlackTime());
+		assertEquals(JobUtils.sumWeights(jobs), set.sumWeights());
+		Assert.assertSame(set.constDueDates(), set.constDueDates());
+		jobs[2].setDueDate(3);
+		set.invalidate();
+		assertEquals(3, set.minDueDate());
+		set.modifyDeadlines(30);
+		assertEquals(30, set.maxDeadline());
+		assertEquals(30, JobUtils.maxDeadline(jobs));
+	}
+
+	private static int evaluate(ITJob[] jobs, ICostFunction costFunction, ICostAggregator globalCostFunction) {
+		final int[] completionTimes = new int[jobs.length];
+		int time = 0;
+		for (int i = 0; i < jobs.length; i++) {
+			time += jobs[i].getDuration();
+			completionTimes[i] = time;
+		}
+		return costFunction.getCost(jobs, completionTimes, jobs.length, globalCostFunction);
+	}
+
+	private static void testMoves(NPJob[] jobs, ICostFunction costFunction, ICostAggregator globalCostFunction, Random rnd) {
+		final int n = jobs.length;
+		final SequenceCostEvaluator evaluator = new SequenceCostEvaluator(costFunction, globalCostFunction);
+		final int cost = evaluator.load(jobs, n);
+		assertEquals(evaluate(jobs, costFunction, globalCostFunction), cost);
+		for (int k = 0; k < 50; k++) {
+			final int i = rnd.nextInt(n);
+			final int j = rnd.nextInt(n);
+			//swap
+			NPJob[] moved = Arrays.copyOf(jobs, n);
+			moved[i] = jobs[j];
+			moved[j] = jobs[i];
+			assertEquals(evaluate(moved, costFunction, globalCostFunction) - cost, evaluator.getSwapDelta(i, j));
+			//insert : remove the job i and insert it at position j
+			final NPJob[] removed = new NPJob[n - 1];
+			System.arraycopy(jobs, 0, removed, 0, i);
+			System.arraycopy(jobs, i + 1, removed, i, n - i - 1);
+			moved = new NPJob[n];
+			System.arraycopy(removed, 0, moved, 0, j);
+			moved[j] = jobs[i];
+			System.arraycopy(removed, j, moved, j + 1, n - 1 - j);
+			assertEquals(evaluate(moved, costFunction, globalCostFunction) - cost, evaluator.getInsertDelta(i, j));
+			//add
+			final NPJob job = new NPJob(n, 1 + rnd.nextInt(10));
+			job.setWeight(1 + rnd.nextInt(5));
+			job.setDueDate(rnd.nextInt(50));
+			moved = new NPJob[n + 1];
+			System.arraycopy(jobs, 0, moved, 0, j);
+			moved[j] = job;
+			System.arraycopy(jobs, j, moved, j + 1, n - j);
+			assertEquals(evaluate(moved, costFunction, globalCostFunction) - cost, evaluator.getAddDelta(j, job));
+		}
+	}
+
+	@Test
+	public void testSequenceCostEvaluator() {
+		final Random rnd = new Random(0);
+		final int n = 20;
+		final NPJob[] jobs = new NPJob[n];
+		for (int i = 0; i < n; i++) {
+			jobs[i] = new NPJob(i, 1 + rnd.nextInt(10));
+			jobs[i].setWeight(1 + rnd.nextInt(5));
+			jobs[i].setDueDate(rnd.nextInt(100));
+		}
+		final ICostFunction[] costFunctions = new ICostFunction[] {
+				CostFactory.getLateness(), CostFactory.getCTime(), CostFactory.getWeightedCTime(), 
+				CostFactory.getTardiness(), CostFactory.getWeightedTardiness()
+		};
+		for (ICostFunction costFunction : costFunctions) {
+			testMoves(jobs, costFunction, CostFactory.makeSumCosts(), rnd);
+			testMoves(jobs, costFunction, CostFactory.makeMaxCosts(), rnd);
+		}
+	}
+
 	@Test
 	public void testSortTLinkedList() {
 		TLinkedList<TLinkableInteger> list = new TLinkedList<TestCommon.TLinkableInteger>();
@@ -188,4 +532,162 @@ public class TestCommon {
 
 
 	}
+
+	private static void checkBinIndex(StoredBinIndex index, final int[] keys, final int[] sigs) {
+		final Integer[] bins = new Integer[keys.length];
+		for (int i = 0; i < bins.length; i++) {
+			bins[i] = i;
+		}
+		Arrays.sort(bins, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return keys[o1] != keys[o2] ? (keys[o1] < keys[o2] ? -1 : 1) : 
+					sigs[o1] != sigs[o2] ? (sigs[o1] < sigs[o2] ? -1 : 1) : o1.compareTo(o2);
+			}
+		});
+		int bin = index.getFirst();
+		for (int i = 0; i < bins.length; i++) {
+			assertEquals(bins[i].intValue(), bin);
+			assertEquals(keys[bin], index.getKey(bin));
+			assertEquals(sigs[bin], index.getSignature(bin));
+			bin = index.getNext();
+		}
+		assertEquals(-1, bin);
+		assertEquals(bins.length == 0 ? -1 : bins[0].intValue(), index.getMinimum());
+		//ranges
+		for (int from = 0; from < bins.length; from++) {
+			for (int to = from; to < bins.length; to++) {
+				bin = index.getFirst(from, to);
+				for (int i = 0; i < bins.length; i++) {
+					if(bins[i] >= from && bins[i] <= to) {
+						assertEquals(bins[i].intValue(), bin);
+						bin = index.getNext();
+					}
+				}
+				assertEquals(-1, bin);
+			}
+		}
+	}
+
+	@Test
+	public void testStoredBinIndex() {
+		final Random rnd = new Random(0);
+		for (int n = 0; n < 20; n++) {
+			final IEnvironment env = new EnvironmentTrailing();
+			final StoredBinIndex index = new StoredBinIndex(env, n);
+			final int[] keys = new int[n];
+			final int[] sigs = new int[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = rnd.nextInt(10);
+			}
+			index.setKeys(keys);
+			checkBinIndex(index, keys, sigs);
+			for (int i = 0; i < n; i++) {
+				sigs[i] = rnd.nextInt(3);
+			}
+			index.setKeys(keys, sigs);
+			checkBinIndex(index, keys, sigs);
+			for (int k = 0; k < 5 && n > 0; k++) {
+				final int[] saved = Arrays.copyOf(keys, n);
+				final int[] savedSigs = Arrays.copyOf(sigs, n);
+				env.worldPush();
+				for (int i = 0; i < 10; i++) {
+					final int bin = rnd.nextInt(n);
+					keys[bin] = rnd.nextInt(10) - 5;
+					if(rnd.nextBoolean()) {
+						index.setKey(bin, keys[bin]);
+					} else {
+						sigs[bin] = rnd.nextInt(3);
+						index.setKey(bin, keys[bin], sigs[bin]);
+					}
+					checkBinIndex(index, keys, sigs);
+				}
+				env.worldPop();
+				checkBinIndex(index, saved, savedSigs);
+				System.arraycopy(saved, 0, keys, 0, n);
+				System.arraycopy(savedSigs, 0, sigs, 0, n);
+			}
+		}
+	}
+
+	private static void checkSetupTimes(int[][] matrix, Class<?> storage) {
+		final ISetupTimes setupTimes = SetupTimesFactory.makeSetupTimes(matrix);
+		assertEquals(storage, setupTimes.getClass());
+		assertEquals(matrix.length, setupTimes.size());
+		for (int i = 0; i < matrix.length; i++) {
+			for (int j = 0; j < matrix.length; j++) {
+				assertEquals(i == j ? 0 : matrix[i][j], setupTimes.getSetupTime(i, j));
+			}
+		}
+	}
+
+	@Test
+	public void testSetupTimes() {
+		final Random rnd = new Random(0);
+		final int n = 100;
+		for (int k = 0; k < 5; k++) {
+			final int[][] matrix = new int[n][n];
+			checkSetupTimes(matrix, ZeroSetupTimes.class);
+			//families
+			final int[] families = new int[n];
+			final int[][] familySetupTimes = new int[5][5];
+			for (int i = 0; i < n; i++) {
+				families[i] = rnd.nextInt(5);
+			}
+			for (int f = 0; f < 5; f++) {
+				for (int g = 0; g < 5; g++) {
+					familySetupTimes[f][g] = rnd.nextInt(1000);
+				}
+			}
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					matrix[i][j] = i == j ? rnd.nextInt(5) : familySetupTimes[families[i]][families[j]];
+				}
+			}
+			checkSetupTimes(matrix, FamilySetupTimes.class);
+			//the last row breaks the columns of the families
+			matrix[n - 1][0] = 1000 + rnd.nextInt(1000);
+			checkSetupTimes(matrix, ShortSetupTimes.class);
+			//too many families
+			for (int f = 0; f < 5; f++) {
+				familySetupTimes[f][f] = -1;
+			}
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					matrix[i][j] = i == j ? 0 : 
+						families[i] == families[j] && i % 11 != j % 11 ? familySetupTimes[families[i]][families[j]] : 
+							familySetupTimes[families[i]][families[j]] + 1;
+				}
+			}
+			checkSetupTimes(matrix, ShortSetupTimes.class);
+			//sparse
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					matrix[i][j] = rnd.nextInt(20) == 0 ? rnd.nextInt(Integer.MAX_VALUE) : 0;
+				}
+			}
+			checkSetupTimes(matrix, SparseSetupTimes.class);
+			//dense
+			final int[] bounds = {Byte.MAX_VALUE, Short.MAX_VALUE, Integer.MAX_VALUE};
+			final Class<?>[] storages = {ByteSetupTimes.class, ShortSetupTimes.class, IntSetupTimes.class};
+			for (int b = 0; b < bounds.length; b++) {
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j < n; j++) {
+						matrix[i][j] = rnd.nextInt(bounds[b]);
+					}
+				}
+				checkSetupTimes(matrix, storages[b]);
+			}
+			//dense with rows of different widths
+			for (int b = 0; b < bounds.length; b++) {
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j < n; j++) {
+						matrix[i][j] = 1 + rnd.nextInt(i == k ? bounds[b] : Byte.MAX_VALUE);
+					}
+				}
+				checkSetupTimes(matrix, storages[b]);
+			}
+		}
+	}
+
 }
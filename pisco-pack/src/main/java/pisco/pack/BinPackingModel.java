@@ -49,6 +49,7 @@ import gnu.trove.TIntArrayList;
 import parser.instances.AbstractMinimizeModel;
 import parser.instances.BasicSettings;
 import parser.instances.ReportFormatter;
+import pisco.common.choco.BinIndexSConstraint;
 import pisco.pack.choco.branching.BinSymBreakDecreasing;
 import pisco.pack.choco.branching.ItemSymBreakDecreasing;
 import pisco.pack.choco.valselector.BestFit;
@@ -126,7 +127,14 @@ public class BinPackingModel extends AbstractMinimizeModel
     return m;
   }
 
-  private ValSelector<IntDomainVar> createValueSelector(PackSConstraint ct, int capa)
+  private BinIndexSConstraint postBinIndex(Solver s, PackSConstraint ct, boolean remainingSpace)
+  {
+    BinIndexSConstraint index = new BinIndexSConstraint(s.getEnvironment(), ct.getLoads(), remainingSpace);
+    s.post(index);
+    return index;
+  }
+
+  private ValSelector<IntDomainVar> createValueSelector(Solver s, PackSConstraint ct, int capa)
   {
     switch (BinPackingSettings.getValSel(getConfiguration())) { 
     	case RAND:
@@ -135,10 +143,14 @@ public class BinPackingModel extends AbstractMinimizeModel
       return new MinVal();
     case BF:
       return new BestFit(ct);
+    case IBF:
+      return new BestFit(ct, postBinIndex(s, ct, false));
     case WF:
       return new WorstFit(ct);
     case DBF:
       return new DynBestFit(ct);
+    case IDBF:
+      return new DynBestFit(ct, postBinIndex(s, ct, true));
     case DWF:
       return new DynWorstFit(ct);
     }
@@ -150,7 +162,7 @@ public class BinPackingModel extends AbstractMinimizeModel
     PackSConstraint ct = (PackSConstraint)s.getCstr(this.pack);
     IntDomainVar[] vars = ct.getBins();
 
-    ValSelector valSel = createValueSelector(ct, this.modeler.getMaxCapacity());
+    ValSelector valSel = createValueSelector(s, ct, this.modeler.getMaxCapacity());
     switch (BinPackingSettings.getBranching(getConfiguration()))
     { case CD:
       return BranchingFactory.lexicographic(s, vars, valSel);
@@ -87,13 +87,19 @@ public final class BinPackingSettings extends BasicSettings
     CDBI;
   }
 
+  /**
+   * IBF and IDBF are the best-fit heuristics with a shared index of the bins ordered by the bounds of their loads.
+   * Unlike BF and DBF, they do not stop at the first empty bin.
+   */
   public static enum ValSel {
     RAND, 
     FF, 
     BF, 
     WF, 
     DBF, 
-    DWF;
+    DWF,
+    IBF,
+    IDBF;
   }
   
 }
@@ -26,6 +26,7 @@
  */
 package pisco.pack.choco.valselector;
 
+import pisco.common.choco.BinIndexSConstraint;
 import choco.cp.solver.constraints.global.pack.PackSConstraint;
 import choco.kernel.common.util.iterators.DisposableIntIterator;
 import choco.kernel.solver.search.ValSelector;
@@ -37,14 +38,29 @@ public abstract class AbstractBinPackingSelector
 {
   public final PackSConstraint pack;
 
+  /**
+   * optional index of the bins ordered by the bounds of their loads : the domain is not scanned.
+   * The index returns the best bin of the domain, whereas the scan stops at the first empty bin.
+   */
+  protected final BinIndexSConstraint index;
+
   public AbstractBinPackingSelector(PackSConstraint cstr)
+  {
+    this(cstr, null);
+  }
+
+  public AbstractBinPackingSelector(PackSConstraint cstr, BinIndexSConstraint index)
   {
     this.pack = cstr;
+    this.index = index;
   }
 
   protected abstract int getFitness(int paramInt);
 
   public int getBestVal(IntDomainVar x) {
+    if (this.index != null) {
+      return this.index.getBestBin(x);
+    }
     DisposableIntIterator iter = x.getDomain().getIterator();
     int bin = iter.next();
     int bestFitness = getFitness(bin);
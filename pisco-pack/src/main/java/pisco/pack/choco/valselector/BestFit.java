@@ -26,6 +26,7 @@
  */
 package pisco.pack.choco.valselector;
 
+import pisco.common.choco.BinIndexSConstraint;
 import choco.cp.solver.constraints.global.pack.PackSConstraint;
 
 public class BestFit extends AbstractBinPackingSelector
@@ -35,6 +36,14 @@ public class BestFit extends AbstractBinPackingSelector
     super(cstr);
   }
 
+  /**
+   * @param index bins ordered by decreasing minimal load.
+   */
+  public BestFit(PackSConstraint cstr, BinIndexSConstraint index)
+  {
+    super(cstr, index);
+  }
+
   protected int getFitness(int bin)
   {
     return -this.pack.getRequiredSpace(bin);
@@ -26,6 +26,7 @@
  */
 package pisco.pack.choco.valselector;
 
+import pisco.common.choco.BinIndexSConstraint;
 import choco.cp.solver.constraints.global.pack.PackSConstraint;
 
 public class DynBestFit extends AbstractBinPackingSelector
@@ -35,6 +36,14 @@ public class DynBestFit extends AbstractBinPackingSelector
     super(cstr);
   }
 
+  /**
+   * @param index bins ordered by increasing remaining space.
+   */
+  public DynBestFit(PackSConstraint cstr, BinIndexSConstraint index)
+  {
+    super(cstr, index);
+  }
+
   protected int getFitness(int bin)
   {
     return this.pack.getRemainingSpace(bin);
@@ -34,8 +34,11 @@ import static choco.Choco.MAX_UPPER_BOUND;
 import static choco.Choco.constantArray;
 import static choco.Choco.disjunctive;
 import static choco.Choco.makeBooleanVar;
+import static choco.Choco.precedence;
 import static choco.Choco.precedenceDisjoint;
 
+import gnu.trove.TIntArrayList;
+
 import java.io.File;
 import java.util.Arrays;
 
@@ -45,8 +48,9 @@ import pisco.common.AbstractDisjunctiveProblem;
 import pisco.common.DisjunctiveSettings;
 import pisco.common.ICostAggregator;
 import pisco.common.ICostFunction;
+import pisco.common.ISetupTimes;
 import pisco.common.ITJob;
-import pisco.common.JobUtils;
+import pisco.common.JobSet;
 import pisco.single.SingleMachineSettings.PropagagationLevel;
 import pisco.single.parsers.Abstract1MachineParser;
 import choco.Choco;
@@ -80,11 +84,28 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 
 	public ITJob[] jobs;
 
+	/**
+	 * cached aggregates of the jobs.
+	 */
+	public JobSet jobSet;
+
 	protected TaskVariable[] tasks;
 
 	protected IntegerVariable[] disjuncts;
 
-	public int[][] setupTimes;
+	/**
+	 * sparse index of the disjuncts: the disjuncts of the pairs (i, j) with i < j are stored between disjunctRows[i] and disjunctRows[i+1] by increasing j.
+	 */
+	protected int[] disjunctRows;
+
+	protected int[] disjunctColumns;
+
+	/**
+	 * pairs (predecessor, successor) ordered by a precedence instead of a disjunct.
+	 */
+	protected int[] orderings;
+
+	public ISetupTimes setupTimes;
 
 	protected Constraint machine;
 
@@ -112,7 +133,7 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 	//****************************************************************//
 
 	protected int getHorizon() {
-		return JobUtils.maxDeadline(jobs);
+		return jobSet.maxDeadline();
 	}
 	
 	public abstract ICostFunction getCostFunction();
@@ -130,7 +151,29 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 	}
 
 	public final int getDisjunctCount() {
-		return (nbJobs * (nbJobs -1)) /2;
+		return disjuncts == null ? (nbJobs * (nbJobs -1)) /2 : disjuncts.length;
+	}
+
+	/**
+	 * @return the index of the disjunct of the pair (i,j) with i < j, or -1 if the pair has no disjunct.
+	 */
+	public final int getDisjunctIndex(final int i, final int j) {
+		if(i < j) {
+			final int idx = Arrays.binarySearch(disjunctColumns, disjunctRows[i], disjunctRows[i+1], j);
+			return idx < 0 ? -1 : idx;
+		} else return -1;
+	}
+
+	public final int[] getDisjunctRows() {
+		return disjunctRows;
+	}
+
+	public final int[] getDisjunctColumns() {
+		return disjunctColumns;
+	}
+
+	public final int[] getOrderings() {
+		return orderings;
 	}
 
 	public final TaskVariable getTask(int job) {
@@ -142,9 +185,13 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 	public void initialize() {
 		super.initialize();
 		jobs = null;
+		jobSet = null;
 		tasks = null;
 		setupTimes = null;
 		disjuncts = null;
+		disjunctRows = null;
+		disjunctColumns = null;
+		orderings = null;
 		machine = null;
 	}
 
@@ -157,11 +204,12 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 		Abstract1MachineParser parser = (Abstract1MachineParser) this.parser;
 		nbJobs = parser.nbJobs;
 		jobs = parser.jobs;
+		jobSet = new JobSet(jobs);
 		setupTimes = parser.setupTimes;
 		setHeuristic(new SingleMachineRHeuristic(this));
 
 		/////////////////
-		shiftLeftReleaseDates(jobs);
+		jobSet.shiftLeftReleaseDates();
 	}
 
 
@@ -181,7 +229,30 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 
 	}
 
-	
+	/**
+	 * @return <code>true</code> if the job j can not be scheduled before the job i within their time windows.
+	 */
+	private boolean isForcedBefore(final int i, final int j) {
+		return jobs[j].getReleaseDate() + jobs[j].getDuration() + setupTimes.getSetupTime(j, i) > jobs[i].getDeadline() - jobs[i].getDuration();
+	}
+
+	/**
+	 * @return <code>true</code> if a dominance rule schedules the job i before the job j.
+	 */
+	protected boolean isDominant(final int i, final int j) {
+		return false;
+	}
+
+	private void postOrdering(final Model model, final TIntArrayList pairs, final int i, final int j) {
+		final int setup = setupTimes.getSetupTime(i, j);
+		if(jobs[i].getDeadline() + setup > jobs[j].getReleaseDate()) {
+			//the precedence is not implied by the time windows
+			model.addConstraint(precedence(tasks[i], tasks[j], setup));
+			pairs.add(i);
+			pairs.add(j);
+		}
+	}
+
 	@Override
 	public Model buildModel() {
 		CPModel model =new CPModel( nbJobs * nbJobs, 6 * nbJobs, 10, 10, 2 * nbJobs, 10, nbJobs );
@@ -190,20 +261,37 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 		makespan = Choco.makeIntVar("makespan",0 , horizon,
 				Options.V_MAKESPAN,Options.V_BOUND, Options.V_NO_DECISION);
 		model.addVariables(makespan);
-		modifyDeadlines(horizon, jobs);
-		tasks = Choco.makeTaskVarArray("T", releaseDates(jobs), deadlines(jobs), constDurations(jobs), Options.V_BOUND);
+		jobSet.modifyDeadlines(horizon);
+		tasks = Choco.makeTaskVarArray("T", releaseDates(jobs), deadlines(jobs), jobSet.constDurations(), Options.V_BOUND);
 		for (int i = 0; i < tasks.length; i++) {
 			if( jobs[i].getDuration() == 0) model.addConstraint(Choco.eq(tasks[i].start(), jobs[i].getReleaseDate()));
 			tasks[i].end().addOption(Options.V_NO_DECISION);
 
 		}
-		disjuncts = new IntegerVariable[getDisjunctCount()];
-		int idx=0;
+		final boolean sparse = defaultConf.readBoolean(SingleMachineSettings.SPARSE_DISJUNCTS);
+		final TIntArrayList columns = new TIntArrayList(sparse ? nbJobs : getDisjunctCount());
+		final TIntArrayList pairs = new TIntArrayList();
+		disjunctRows = new int[nbJobs + 1];
 		for (int i = 0; i < tasks.length; i++) {
+			disjunctRows[i] = columns.size();
 			for (int j = i+1; j < tasks.length; j++) {
+				if( ! sparse ) columns.add(j);
+				else if( isForcedBefore(i, j) ) postOrdering(model, pairs, i, j);
+				else if( isForcedBefore(j, i) ) postOrdering(model, pairs, j, i);
+				else if( isDominant(i, j) ) postOrdering(model, pairs, i, j);
+				else if( isDominant(j, i) ) postOrdering(model, pairs, j, i);
+				else columns.add(j);
+			}
+		}
+		disjunctRows[nbJobs] = columns.size();
+		disjunctColumns = columns.toNativeArray();
+		orderings = pairs.toNativeArray();
+		disjuncts = new IntegerVariable[disjunctColumns.length];
+		for (int i = 0; i < tasks.length; i++) {
+			for (int idx = disjunctRows[i]; idx < disjunctRows[i+1]; idx++) {
+				final int j = disjunctColumns[idx];
 				disjuncts[idx] = makeBooleanVar("b"+i+"_"+j);
-				model.addConstraint( precedenceDisjoint(tasks[i], tasks[j], disjuncts[idx], setupTimes[i][j], setupTimes[j][i]));
-				idx++;
+				model.addConstraint( precedenceDisjoint(tasks[i], tasks[j], disjuncts[idx], setupTimes.getSetupTime(i, j), setupTimes.getSetupTime(j, i)));
 			}
 		}
 
@@ -302,9 +390,10 @@ public abstract class Abstract1MachineProblem extends AbstractDisjunctiveProblem
 		for (int i = 0; i < tvars.length - 1; i++) {
 			final int j = tvars[i].getID();
 			final int k = tvars[i+1].getID();
-			if( tvars[i].getLCT() + setupTimes[j][k] > jobs[k].getReleaseDate()) {
+			final int setup = setupTimes.getSetupTime(j, k);
+			if( tvars[i].getLCT() + setup > jobs[k].getReleaseDate()) {
 				//the next task is postponed because of the setup time 
-				setups[j] = setupTimes[j][k]; 
+				setups[j] = setup; 
 			}
 		}
 		return setups;
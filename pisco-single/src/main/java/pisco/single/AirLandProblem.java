@@ -29,7 +29,6 @@ import choco.kernel.model.variables.integer.IntegerVariable;
 
 public class AirLandProblem extends Abstract1MachineProblem {
 
-	public int[][] setupTimes;
 	public int[] earlinessPenalties;
 	public int[] tardinessPenalties;
 
@@ -9,8 +9,6 @@ import static choco.Choco.makeBooleanVar;
 import static choco.Choco.precedenceDisjoint;
 import static choco.Choco.sum;
 
-import java.util.Arrays;
-
 import choco.Choco;
 import choco.Options;
 import choco.cp.model.CPModel;
@@ -24,12 +22,18 @@ import pisco.common.CostFactory;
 import pisco.common.ICostAggregator;
 import pisco.common.ICostFunction;
 import pisco.common.JobUtils;
-import pisco.common.PDR1Scheduler;
+import pisco.common.Pmtn1FlowScheduler;
+import pisco.common.Pmtn1Scheduler;
 import pisco.single.parsers.Abstract1MachineParser;
 
 
 public class SingleMachineFlow extends Abstract1MachineProblem {
 
+	/**
+	 * reused by the successive preprocessings.
+	 */
+	private final Pmtn1FlowScheduler flowScheduler = new Pmtn1FlowScheduler(false);
+
 	
 	public SingleMachineFlow(BasicSettings settings,
 			Abstract1MachineParser parser) {
@@ -52,7 +56,7 @@ public class SingleMachineFlow extends Abstract1MachineProblem {
 
 	@Override
 	public Boolean preprocess() {
-		setComputedLowerBound( PDR1Scheduler.schedule1Flow(Arrays.copyOf(jobs, jobs.length)));
+		setComputedLowerBound( Pmtn1Scheduler.schedule1rjFlow(jobs, flowScheduler));
 		return super.preprocess();
 	}
 
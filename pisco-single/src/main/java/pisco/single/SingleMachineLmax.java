@@ -2,7 +2,6 @@ package pisco.single;
 
 import static pisco.common.JobUtils.*;
 import static choco.Choco.MAX_UPPER_BOUND;
-import static choco.Choco.constant;
 import static choco.Choco.eq;
 import static choco.Choco.geq;
 import static choco.Choco.makeIntVar;
@@ -16,10 +15,6 @@ import static choco.cp.solver.search.BranchingFactory.*;
 import static pisco.common.JobComparators.getCompositeComparator;
 import static pisco.common.JobComparators.getShortestProcessingTime;
 import static pisco.common.JobUtils.dueDates;
-import static pisco.common.JobUtils.maxDueDate;
-import static pisco.common.JobUtils.maxReleaseDate;
-import static pisco.common.JobUtils.minDueDate;
-import static pisco.common.JobUtils.sumDurations;
 
 import java.util.Arrays;
 
@@ -34,7 +29,7 @@ import pisco.common.PDR1Scheduler;
 import pisco.common.Pmtn1Scheduler;
 import pisco.common.SchedulingBranchingFactory;
 import pisco.common.choco.branching.LexMaxFakeBranching;
-import pisco.single.choco.constraints.ModifyDueDateManager;
+import pisco.single.choco.constraints.GlobalModifyDueDateManager;
 import pisco.single.choco.constraints.RelaxLmaxConstraint;
 import pisco.single.choco.constraints.RelaxLmaxManager;
 import pisco.single.parsers.Abstract1MachineParser;
@@ -97,7 +92,7 @@ public class SingleMachineLmax extends Abstract1MachineProblem {
 				}
 			}
 		} else {
-			setComputedLowerBound( JobUtils.minSlackTime(jobs));
+			setComputedLowerBound( jobSet.minSlackTime());
 		}
 		return super.preprocess();
 	}
@@ -114,7 +109,18 @@ public class SingleMachineLmax extends Abstract1MachineProblem {
 
 	@Override
 	protected int getHorizon() {
-		return isFeasible() == Boolean.TRUE ? JobUtils.maxDueDate(jobs)  + objective.intValue(): maxReleaseDate(jobs) + sumDurations(jobs);
+		return isFeasible() == Boolean.TRUE ? jobSet.maxDueDate()  + objective.intValue(): jobSet.maxReleaseDate() + jobSet.sumDurations();
+	}
+
+
+	@Override
+	protected boolean isDominant(int i, int j) {
+		//same dominance conditions than the pre-ordering constraints
+		return defaultConf.readBoolean(SingleMachineSettings.TASK_ORDERING) && ! hasSetupTimes() && 
+				jobs[i].getDuration() == jobs[j].getDuration() && 
+				( jobs[i].getReleaseDate() < jobs[j].getReleaseDate() || ( jobs[i].getReleaseDate() == jobs[j].getReleaseDate() && i < j) ) &&
+				jobs[i].getDeadline() <= jobs[j].getDeadline() && 
+				jobs[i].getDueDate() <= jobs[j].getDueDate();
 	}
 
 
@@ -127,28 +133,21 @@ public class SingleMachineLmax extends Abstract1MachineProblem {
 			//Create Due date Variables 
 			dueDates = new IntegerVariable[nbJobs];
 			//The job with smallest due date is scheduled last
-			final int minDueDate = minDueDate(jobs) - sumDurations(jobs);
+			final int minDueDate = jobSet.minDueDate() - jobSet.sumDurations();
 			for (int i = 0; i < tasks.length; i++) {
 				dueDates[i] = makeIntVar("D"+i, minDueDate, jobs[i].getDueDate(), 
 						Options.V_BOUND, Options.V_NO_DECISION);
 			}
 			///////////
-			//Add constraints which modify Due Dates on the fly
-			int idx=0;
-			for (int i = 0; i < tasks.length; i++) {
-				for (int j = i+1; j < tasks.length; j++) {
-					model.addConstraint( new ComponentConstraint( ModifyDueDateManager.class, null, 
-							new IntegerVariable[]{dueDates[i], constant(jobs[j].getDuration()), 
-						dueDates[j], constant(jobs[i].getDuration()), disjuncts[idx]})
-							);
-					idx++;
-				}
-			}
-		} else dueDates = constDueDates(jobs);
+			//Add the constraint which modifies Due Dates on the fly (disjuncts and orderings)
+			model.addConstraint( new ComponentConstraint( GlobalModifyDueDateManager.class, this, 
+					ArrayUtils.append(dueDates, disjuncts))
+					);
+		} else dueDates = jobSet.constDueDates();
 		///////////
 		//state lateness constraints
 		IntegerVariable[] lateness = makeIntVarArray("L", nbJobs, 
-				- maxDueDate(jobs), makespan.getUppB() - minDueDate(jobs), 
+				- jobSet.maxDueDate(), makespan.getUppB() - jobSet.minDueDate(), 
 				Options.V_BOUND, Options.V_NO_DECISION);
 		for (int i = 0; i < nbJobs; i++) {
 			model.addConstraint(eq(lateness[i], minus(tasks[i].end(), dueDates[i])));
@@ -159,12 +158,13 @@ public class SingleMachineLmax extends Abstract1MachineProblem {
 		//create objective constraints
 		model.addConstraints(
 				max(lateness, objVar),
-				geq( objVar, minus(makespan,maxDueDate(jobs)))
+				geq( objVar, minus(makespan,jobSet.maxDueDate()))
 				);
 
 
 
-		if( defaultConf.readBoolean(SingleMachineSettings.TASK_ORDERING) && ! hasSetupTimes() ) {
+		if( defaultConf.readBoolean(SingleMachineSettings.TASK_ORDERING) && ! hasSetupTimes() && 
+				! defaultConf.readBoolean(SingleMachineSettings.SPARSE_DISJUNCTS) ) {
 			////////////
 			//Add pre-ordering constraints from dominance conditions
 			final ITJob[] sjobs = Arrays.copyOf(jobs, nbJobs);
@@ -178,7 +178,7 @@ public class SingleMachineLmax extends Abstract1MachineProblem {
 						// i precedes j
 						final int ti = sjobs[i].getID();
 						final int tj = sjobs[j].getID();
-						model.addConstraint(precedence(tasks[ti], tasks[tj], setupTimes[ti][tj]));
+						model.addConstraint(precedence(tasks[ti], tasks[tj], setupTimes.getSetupTime(ti, tj)));
 					}
 					j++;
 				}
@@ -282,7 +282,7 @@ public class SingleMachineLmax extends Abstract1MachineProblem {
 	}
 
 	protected double getGapILB() {
-		final int maxDueDate = maxDueDate(jobs);
+		final int maxDueDate = jobSet.maxDueDate();
 		return ( objective.doubleValue() + maxDueDate) / ( getComputedLowerBound()+ maxDueDate);
 	}
 
@@ -68,6 +68,14 @@ public class SingleMachineSettings extends DisjunctiveSettings {
 	@Default(value = VALUE_TRUE)
 	public static final String INITIAL_LOWER_BOUND= "tools.cp.preprocess.lb";
 
+	/**
+	 * <br/><b>Goal</b>: create a disjunct only for the pairs of jobs which are not ordered by their time windows or by a dominance rule.
+	 * <br/><b>Type</b>: boolean
+	 * <br/><b>Default value</b>: false
+	 */
+	@Default(value = VALUE_FALSE)
+	public static final String SPARSE_DISJUNCTS= "tools.cp.model.disjuncts.sparse";
+
 
 	public static final PropagagationLevel readPmtnLevel(AbstractInstanceModel problem) {
 		return problem.getConfiguration().readEnum(RELAX_PMTN_PROPAGATION, PropagagationLevel.class);
@@ -86,6 +94,7 @@ public class SingleMachineSettings extends DisjunctiveSettings {
 		if(conf.readBoolean(MODIFY_DUE_DATES)) b.append("MODIFY_DUE_DATES    ");
 		if(conf.readBoolean(TASK_ORDERING)) b.append("TASK_ORDERING    ");
 		if(conf.readBoolean(TASK_WEAK_ORDERING)) b.append(" TASK_WEAK_ORDERING    ");
+		if(conf.readBoolean(SPARSE_DISJUNCTS)) b.append("SPARSE_DISJUNCTS    ");
 		PropagagationLevel level = conf.readEnum(RELAX_PMTN_PROPAGATION, PropagagationLevel.class);
 		b.append(level).append(" PMTN_RELAX    ");
 		level = conf.readEnum(RELAX_PREC_PROPAGATION, PropagagationLevel.class);
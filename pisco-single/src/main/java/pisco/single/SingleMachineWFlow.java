@@ -3,13 +3,12 @@ import static choco.Choco.MAX_UPPER_BOUND;
 import static choco.Choco.eq;
 import static choco.Choco.scalar;
 
-import java.util.Arrays;
-
 import parser.instances.BasicSettings;
 import pisco.common.CostFactory;
 import pisco.common.ICostFunction;
 import pisco.common.JobUtils;
-import pisco.common.PDR1Scheduler;
+import pisco.common.Pmtn1FlowScheduler;
+import pisco.common.Pmtn1Scheduler;
 import pisco.single.parsers.Abstract1MachineParser;
 import choco.kernel.common.util.tools.VariableUtils;
 import choco.kernel.model.Model;
@@ -18,6 +17,11 @@ import choco.kernel.model.variables.integer.IntegerVariable;
 
 public class SingleMachineWFlow extends Abstract1MachineProblem {
 
+	/**
+	 * reused by the successive preprocessings.
+	 */
+	private final Pmtn1FlowScheduler flowScheduler = new Pmtn1FlowScheduler(true);
+
 	public SingleMachineWFlow(BasicSettings settings,
 			Abstract1MachineParser parser) {
 		super(settings, parser, CostFactory.makeSumCosts());
@@ -34,7 +38,7 @@ public class SingleMachineWFlow extends Abstract1MachineProblem {
 
 	@Override
 	public Boolean preprocess() {
-		setComputedLowerBound( PDR1Scheduler.schedule1WFlow(Arrays.copyOf(jobs, jobs.length)));
+		setComputedLowerBound( Pmtn1Scheduler.schedule1rjWFlow(jobs, flowScheduler));
 		return super.preprocess();
 	}
 
@@ -0,0 +1,380 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.single.choco.constraints;
+
+import pisco.common.ITJob;
+import pisco.common.IJobProcedure;
+import pisco.common.JobUtils;
+import pisco.common.JobUtils.ProcModDueDate;
+import pisco.common.PJob;
+import choco.cp.solver.variables.integer.IntVarEvent;
+import choco.kernel.common.util.tools.ArrayUtils;
+import choco.kernel.memory.IEnvironment;
+import choco.kernel.memory.IStateInt;
+import choco.kernel.solver.ContradictionException;
+import choco.kernel.solver.constraints.integer.AbstractLargeIntSConstraint;
+import choco.kernel.solver.variables.integer.IntDomainVar;
+
+/**
+ * Global version of the {@link ModifyDueDateConstraint} over all due dates and disjuncts.
+ * The fixed disjuncts and the static orderings form a precedence graph: if i precedes j, then D_i + p_j <= D_j.
+ * The upper bounds of the due dates are modified backward ({@link JobUtils#modifyDueDates(ITJob[], ProcModDueDate)}) 
+ * and the lower bounds forward, in linear time in the size of the graph.
+ * A disjunct is fixed when the bounds of the due dates forbid one of its directions.
+ * @author Arnaud Malapert
+ */
+public final class GlobalModifyDueDateConstraint extends AbstractLargeIntSConstraint {
+
+	private final int n;
+
+	/**
+	 * the disjunct d is between the jobs origins[d] and destinations[d] (forward if its value is 1).
+	 */
+	private final int[] origins;
+
+	private final int[] destinations;
+
+	/**
+	 * pairs (predecessor, successor) always ordered.
+	 */
+	private final int[] orderings;
+
+	/**
+	 * the disjuncts incident to the job i are between incidentRows[i] and incidentRows[i+1].
+	 */
+	private final int[] incidentRows;
+
+	private final int[] incidentDisjuncts;
+
+	/**
+	 * the fixed disjuncts are stored before nbFixedDisjuncts (in the order where they have been fixed).
+	 */
+	private final int[] fixedDisjuncts;
+
+	private final IStateInt nbFixedDisjuncts;
+
+	/**
+	 * position of a disjunct in the list of fixed disjuncts (meaningful only if it is before nbFixedDisjuncts).
+	 */
+	private final int[] fixedPositions;
+
+	private final ITJob[] jobs;
+
+	private final ProcModDueDate procedure = new ProcModDueDate();
+
+	private final ProcForward forwardProcedure = new ProcForward();
+
+	private final int[] lowerBounds;
+
+	private final int[] stack;
+
+	private int stackSize;
+
+	/**
+	 * jobs whose due date bounds have changed since the last check of the disjuncts.
+	 */
+	private final boolean[] dirty;
+
+	private final int[] dirtyList;
+
+	private int dirtyCount;
+
+	public GlobalModifyDueDateConstraint(IEnvironment environment, IntDomainVar[] dueDates, IntDomainVar[] disjuncts, int[] durations, int[] origins, int[] destinations, int[] orderings) {
+		super(ArrayUtils.append(dueDates, disjuncts));
+		n = dueDates.length;
+		this.origins = origins;
+		this.destinations = destinations;
+		this.orderings = orderings;
+		jobs = new ITJob[n];
+		for (int i = 0; i < n; i++) {
+			jobs[i] = new PJob(i);
+			jobs[i].setDuration(durations[i]);
+		}
+		//incident disjuncts
+		incidentRows = new int[n + 1];
+		for (int d = 0; d < origins.length; d++) {
+			incidentRows[origins[d] + 1]++;
+			incidentRows[destinations[d] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			incidentRows[i + 1] += incidentRows[i];
+		}
+		incidentDisjuncts = new int[2 * origins.length];
+		final int[] offsets = new int[n];
+		for (int d = 0; d < origins.length; d++) {
+			incidentDisjuncts[incidentRows[origins[d]] + offsets[origins[d]]++] = d;
+			incidentDisjuncts[incidentRows[destinations[d]] + offsets[destinations[d]]++] = d;
+		}
+		fixedDisjuncts = new int[origins.length];
+		nbFixedDisjuncts = environment.makeInt(0);
+		fixedPositions = new int[origins.length];
+		lowerBounds = new int[n];
+		stack = new int[n];
+		dirty = new boolean[n];
+		dirtyList = new int[n];
+	}
+
+	@Override
+	public int getFilteredEventMask(int idx) {
+		return idx < n ? IntVarEvent.INCINF_MASK + IntVarEvent.DECSUP_MASK + IntVarEvent.BOUNDS_MASK + IntVarEvent.INSTINT_MASK : IntVarEvent.INSTINT_MASK;
+	}
+
+	private void markDirty(int job) {
+		if( ! dirty[job]) {
+			dirty[job] = true;
+			dirtyList[dirtyCount++] = job;
+		}
+	}
+
+	private void addFixedDisjunct(int disjunct) {
+		final int nb = nbFixedDisjuncts.get();
+		final int pos = fixedPositions[disjunct];
+		if(pos >= nb || fixedDisjuncts[pos] != disjunct) {
+			fixedDisjuncts[nb] = disjunct;
+			fixedPositions[disjunct] = nb;
+			nbFixedDisjuncts.set(nb + 1);
+		}
+	}
+
+	@Override
+	public void awake() throws ContradictionException {
+		for (int d = 0; d < origins.length; d++) {
+			if(vars[n + d].isInstantiated()) addFixedDisjunct(d);
+		}
+		for (int i = 0; i < n; i++) {
+			markDirty(i);
+		}
+		propagate();
+	}
+
+	@Override
+	public void awakeOnInf(int varIdx) throws ContradictionException {
+		markDirty(varIdx);
+		constAwake(false);
+	}
+
+	@Override
+	public void awakeOnSup(int varIdx) throws ContradictionException {
+		markDirty(varIdx);
+		constAwake(false);
+	}
+
+	@Override
+	public void awakeOnBounds(int varIdx) throws ContradictionException {
+		markDirty(varIdx);
+		constAwake(false);
+	}
+
+	@Override
+	public void awakeOnInst(int idx) throws ContradictionException {
+		if(idx < n) markDirty(idx);
+		else addFixedDisjunct(idx - n);
+		constAwake(false);
+	}
+
+	@Override
+	public void propagate() throws ContradictionException {
+		do {
+			buildPrecedenceGraph();
+			if(filterUpperBounds()) filterLowerBounds();
+			else filterCycles();
+		} while(filterDisjuncts());
+	}
+
+	private void addPrecedence(int origin, int destination) {
+		jobs[origin].addSuccessor(jobs[destination]);
+	}
+
+	private void buildPrecedenceGraph() {
+		for (int i = 0; i < n; i++) {
+			jobs[i].resetPrecedences();
+			jobs[i].setDueDate(vars[i].getSup());
+		}
+		for (int k = 0; k < orderings.length; k += 2) {
+			addPrecedence(orderings[k], orderings[k + 1]);
+		}
+		final int nb = nbFixedDisjuncts.get();
+		for (int k = 0; k < nb; k++) {
+			final int d = fixedDisjuncts[k];
+			if(vars[n + d].getVal() == 1) addPrecedence(origins[d], destinations[d]);
+			else addPrecedence(destinations[d], origins[d]);
+		}
+	}
+
+	/**
+	 * @return <code>false</code> if the precedence graph contains a cycle (nothing is filtered).
+	 */
+	private boolean filterUpperBounds() throws ContradictionException {
+		int i = 0;
+		while(i < n && jobs[i].getSuccessorCount() > 0) {
+			i++;
+		}
+		//each job has a successor
+		if(i == n) return false;
+		JobUtils.modifyDueDates(jobs, procedure);
+		for (i = 0; i < n; i++) {
+			//the jobs of a cycle are never visited
+			if(jobs[i].getHook() > 0) return false;
+		}
+		for (i = 0; i < n; i++) {
+			if(jobs[i].getDueDate() < vars[i].getSup()) {
+				vars[i].updateSup(jobs[i].getDueDate(), this, false);
+				markDirty(i);
+			}
+		}
+		return true;
+	}
+
+	private void filterLowerBounds() throws ContradictionException {
+		stackSize = 0;
+		for (int i = 0; i < n; i++) {
+			lowerBounds[i] = vars[i].getInf();
+			jobs[i].setHook(jobs[i].getPredecessorCount());
+			if(jobs[i].getHook() == 0) stack[stackSize++] = i;
+		}
+		while(stackSize > 0) {
+			final int job = stack[--stackSize];
+			forwardProcedure.lowerBound = lowerBounds[job];
+			jobs[job].forEachSuccessor(forwardProcedure);
+		}
+		for (int i = 0; i < n; i++) {
+			if(lowerBounds[i] > vars[i].getInf()) {
+				vars[i].updateInf(lowerBounds[i], this, false);
+				markDirty(i);
+			}
+		}
+	}
+
+	private boolean filterArc(int origin, int destination) throws ContradictionException {
+		final int duration = jobs[destination].getDuration();
+		boolean changed = false;
+		if(vars[origin].getInf() + duration > vars[destination].getInf()) {
+			vars[destination].updateInf(vars[origin].getInf() + duration, this, false);
+			markDirty(destination);
+			changed = true;
+		}
+		if(vars[destination].getSup() - duration < vars[origin].getSup()) {
+			vars[origin].updateSup(vars[destination].getSup() - duration, this, false);
+			markDirty(origin);
+			changed = true;
+		}
+		return changed;
+	}
+
+	/**
+	 * Bellman-Ford propagation of the arcs when the precedence graph contains a cycle, which is only consistent with null durations.
+	 */
+	private void filterCycles() throws ContradictionException {
+		final int nb = nbFixedDisjuncts.get();
+		for (int round = 0; round <= n; round++) {
+			boolean changed = false;
+			for (int k = 0; k < orderings.length; k += 2) {
+				changed |= filterArc(orderings[k], orderings[k + 1]);
+			}
+			for (int k = 0; k < nb; k++) {
+				final int d = fixedDisjuncts[k];
+				if(vars[n + d].getVal() == 1) changed |= filterArc(origins[d], destinations[d]);
+				else changed |= filterArc(destinations[d], origins[d]);
+			}
+			if( ! changed) return;
+		}
+		//positive cycle
+		fail();
+	}
+
+	/**
+	 * fix the disjuncts incident to a dirty job whose bounds forbid a direction.
+	 * @return <code>true</code> if a disjunct has been fixed.
+	 */
+	private boolean filterDisjuncts() throws ContradictionException {
+		boolean fixed = false;
+		while(dirtyCount > 0) {
+			final int i = dirtyList[--dirtyCount];
+			dirty[i] = false;
+			for (int k = incidentRows[i]; k < incidentRows[i + 1]; k++) {
+				final int d = incidentDisjuncts[k];
+				if( ! vars[n + d].isInstantiated()) {
+					final int o = origins[d];
+					final int t = destinations[d];
+					final boolean forward = vars[o].getInf() + jobs[t].getDuration() <= vars[t].getSup();
+					final boolean backward = vars[t].getInf() + jobs[o].getDuration() <= vars[o].getSup();
+					if( ! forward) {
+						if( ! backward) fail();
+						vars[n + d].instantiate(0, this, false);
+						addFixedDisjunct(d);
+						fixed = true;
+					} else if( ! backward) {
+						vars[n + d].instantiate(1, this, false);
+						addFixedDisjunct(d);
+						fixed = true;
+					}
+				}
+			}
+		}
+		return fixed;
+	}
+
+	@Override
+	public boolean isSatisfied(int[] tuple) {
+		for (int k = 0; k < orderings.length; k += 2) {
+			if(tuple[orderings[k]] + jobs[orderings[k + 1]].getDuration() > tuple[orderings[k + 1]]) return false;
+		}
+		for (int d = 0; d < origins.length; d++) {
+			final int o = origins[d];
+			final int t = destinations[d];
+			if( tuple[n + d] == 1 ? 
+					tuple[o] + jobs[t].getDuration() > tuple[t] : 
+						tuple[t] + jobs[o].getDuration() > tuple[o]) return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String pretty() {
+		return "Global Modify Due Date (" + n + " jobs, " + origins.length + " disjuncts)";
+	}
+
+	/**
+	 * propagate the lower bound of a job to its successors in topological order.
+	 */
+	private final class ProcForward implements IJobProcedure {
+
+		private int lowerBound;
+
+		@Override
+		public void execute(ITJob arg) {
+			final int id = arg.getID();
+			if(lowerBounds[id] < lowerBound + arg.getDuration()) {
+				lowerBounds[id] = lowerBound + arg.getDuration();
+			}
+			if(arg.decHook() == 0) {
+				stack[stackSize++] = id;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+/**
+*  Copyright (c) 2011, Arnaud Malapert
+*  All rights reserved.
+*  Redistribution and use in source and binary forms, with or without
+*  modification, are permitted provided that the following conditions are met:
+*
+*      * Redistributions of source code must retain the above copyright
+*        notice, this list of conditions and the following disclaimer.
+*      * Redistributions in binary form must reproduce the above copyright
+*        notice, this list of conditions and the following disclaimer in the
+*        documentation and/or other materials provided with the distribution.
+*      * Neither the name of the Arnaud Malapert nor the
+*        names of its contributors may be used to endorse or promote products
+*        derived from this software without specific prior written permission.
+*
+*  THIS SOFTWARE IS PROVIDED BY THE REGENTS AND CONTRIBUTORS ``AS IS'' AND ANY
+*  EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+*  WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+*  DISCLAIMED. IN NO EVENT SHALL THE REGENTS AND CONTRIBUTORS BE LIABLE FOR ANY
+*  DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+*  (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+*  LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+*  ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+*  (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+*  SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package pisco.single.choco.constraints;
+
+import static choco.kernel.common.util.tools.VariableUtils.*;
+
+import java.util.List;
+
+import pisco.single.Abstract1MachineProblem;
+import choco.cp.model.managers.MixedConstraintManager;
+import choco.kernel.model.variables.Variable;
+import choco.kernel.solver.Solver;
+import choco.kernel.solver.constraints.SConstraint;
+import choco.kernel.solver.variables.integer.IntDomainVar;
+
+/**
+ * The variables are the due dates followed by the disjuncts of the problem (same order as its sparse index).
+ */
+public final class GlobalModifyDueDateManager extends MixedConstraintManager {
+
+	@Override
+	public SConstraint makeConstraint(Solver solver, Variable[] variables,
+			Object parameters, List<String> options) {
+		if (parameters instanceof Abstract1MachineProblem) {
+			final Abstract1MachineProblem problem = (Abstract1MachineProblem) parameters;
+			final int n = problem.getNbJobs();
+			final int[] rows = problem.getDisjunctRows();
+			final int[] columns = problem.getDisjunctColumns();
+			final int[] durations = new int[n];
+			for (int i = 0; i < n; i++) {
+				durations[i] = problem.jobs[i].getDuration();
+			}
+			final int[] origins = new int[columns.length];
+			for (int i = 0; i < n; i++) {
+				for (int idx = rows[i]; idx < rows[i+1]; idx++) {
+					origins[idx] = i;
+				}
+			}
+			final IntDomainVar[] dueDates = getIntVar(solver, variables, 0, n);
+			final IntDomainVar[] disjuncts = getIntVar(solver, variables, n, variables.length);
+			for (IntDomainVar dir : disjuncts) {
+				if( ! dir.hasBooleanDomain()) {
+					return fail("Global Modify Due Date");
+				}
+			}
+			return new GlobalModifyDueDateConstraint(solver.getEnvironment(), dueDates, disjuncts, 
+					durations, origins, columns, problem.getOrderings());
+		}
+		return fail("Global Modify Due Date");
+	}
+
+	@Override
+	public int[] getFavoriteDomains(List<String> options) {
+		return getBCFavoriteIntDomains();
+	}
+
+}
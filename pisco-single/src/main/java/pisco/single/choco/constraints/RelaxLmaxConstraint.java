@@ -6,23 +6,19 @@ import static choco.Choco.MIN_LOWER_BOUND;
 import static pisco.common.JobUtils.modifyDueDates;
 import gnu.trove.TIntArrayList;
 import gnu.trove.TIntProcedure;
-import gnu.trove.TLinkableAdapter;
-import gnu.trove.TLinkedList;
-import gnu.trove.TObjectProcedure;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 
 import pisco.common.ITJob;
+import pisco.common.IncLawler1Scheduler;
 import pisco.common.JobUtils;
 import pisco.common.PDR1Scheduler;
 import pisco.common.PJob;
 import pisco.common.Pmtn1Scheduler;
 import pisco.common.PDR1Scheduler.Proc1PrecLmax;
 import pisco.common.Pmtn1Scheduler.Proc1Lmax;
-import pisco.common.TCollections;
 import pisco.single.Abstract1MachineProblem;
 import pisco.single.SingleMachineSettings;
 import pisco.single.SingleMachineSettings.PropagagationLevel;
@@ -33,6 +29,8 @@ import choco.cp.solver.variables.integer.IntVarEvent;
 import choco.kernel.common.DottyBean;
 import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.common.util.iterators.DisposableIntIterator;
+import choco.kernel.memory.IStateBool;
+import choco.kernel.memory.IStateInt;
 import choco.kernel.solver.ContradictionException;
 import choco.kernel.solver.SolverException;
 import choco.kernel.solver.constraints.global.scheduling.AbstractTaskSConstraint;
@@ -60,9 +58,6 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 	private ITemporalSRelation[] disjunctList;
 
-	private final static int START = 0;
-	private final static int END = 1;
-
 	private int solutionStamp = -1;
 
 	private int backtrackStamp = -1;
@@ -71,6 +66,43 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 	private final IRelaxationFilter precRelaxation;
 
+	/**
+	 * incremental Lawler algorithm of the precedence relaxation (null if the relaxation is off).
+	 */
+	private IncLawler1Scheduler incScheduler;
+
+	/**
+	 * precedence relations of the disjuncts in the order of the variables (only if the new arcs are notified to the incremental scheduler).
+	 */
+	private ITemporalSRelation[] disjunctRelations;
+
+	/**
+	 * backtrackable flag: the schedule of the incremental scheduler is not feasible.
+	 * It is null if the propagation can not rely only on the notified arcs and due dates. 
+	 */
+	private IStateBool incInfeasible;
+
+	/**
+	 * schedule of the last preemptive relaxation which has not found a feasible schedule: start and completion times of the jobs.
+	 */
+	private int[] cachedStarts;
+
+	private int[] cachedEnds;
+
+	private int cachedLowerBound;
+
+	/**
+	 * a notified change is not respected by the cached schedule, or its lateness exceeds the cached lower bound.
+	 */
+	private boolean cachedScheduleChanged;
+
+	private int cacheCounter;
+
+	/**
+	 * backtrackable stamp of the cached data : they are valid only in the subtree of the node where they have been stored.
+	 */
+	private IStateInt cacheStamp;
+
 	public RelaxLmaxConstraint(Abstract1MachineProblem problem, TaskVar[] taskvars, IntDomainVar[] disjuncts, IntDomainVar lmax) {
 		super(taskvars, disjuncts, lmax);
 		this.problem = problem;
@@ -111,6 +143,15 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 	@Override
 	public void awakeOnInst(int idx) throws ContradictionException {
+		if(disjunctRelations != null) {
+			if(idx < startOffset) {
+				notifyReleaseDate(idx);
+			} else if(idx >= taskIntVarOffset + taskvars.length && idx < vars.length - 1) {
+				notifyDisjunct(idx - taskIntVarOffset - taskvars.length);
+			} else if(idx >= taskIntVarOffset && idx < taskIntVarOffset + taskvars.length) {
+				notifyDueDate(idx - taskIntVarOffset);
+			}
+		}
 		constAwake(false);
 	}
 
@@ -126,12 +167,18 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 	@Override
 	public void awakeOnInf(int varIdx) throws ContradictionException {
+		if(disjunctRelations != null && varIdx < startOffset) {
+			notifyReleaseDate(varIdx);
+		}
 		this.constAwake(false);
 	}
 
 
 	@Override
 	public void awakeOnSup(int varIdx) throws ContradictionException {
+		if(disjunctRelations != null && varIdx >= taskIntVarOffset && varIdx < taskIntVarOffset + taskvars.length) {
+			notifyDueDate(varIdx - taskIntVarOffset);
+		}
 		this.constAwake(false);
 	}
 
@@ -170,6 +217,33 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 		floydMarshallReduction(graph);
 		precReductionGraph = convertToLists(graph);
 		disjunctList = disjSMod.getEdges();
+		final PropagagationLevel pmtnLevel = pmtnRelaxation.getPropagagationLevel();
+		final PropagagationLevel precLevel = precRelaxation.getPropagagationLevel();
+		if(precLevel.isOn()) {
+			incScheduler = new IncLawler1Scheduler(problem.getSolver().getEnvironment(), jobs);
+		}
+		if(pmtnLevel.ordinal() <= PropagagationLevel.OBJ.ordinal() && 
+				precLevel.ordinal() <= PropagagationLevel.OBJ.ordinal() && savedDueDates == null) {
+			//the relaxations only filter the objective and only depend on the release dates, arcs and due dates notified by the events.
+			final IdentityHashMap<IntDomainVar, ITemporalSRelation> relations = new IdentityHashMap<IntDomainVar, ITemporalSRelation>();
+			for (ITemporalSRelation rel : disjunctList) {
+				relations.put(rel.getDirection(), rel);
+			}
+			final int offset = taskIntVarOffset + taskvars.length;
+			disjunctRelations = new ITemporalSRelation[vars.length - 1 - offset];
+			for (int i = 0; i < disjunctRelations.length; i++) {
+				disjunctRelations[i] = relations.get(vars[offset + i]);
+			}
+			if(precLevel.isOn()) {
+				incInfeasible = problem.getSolver().getEnvironment().makeBool(false);
+			}
+			if(pmtnLevel.isOn()) {
+				cachedStarts = new int[jobs.length];
+				cachedEnds = new int[jobs.length];
+				cacheStamp = problem.getSolver().getEnvironment().makeInt(cacheCounter);
+				cachedScheduleChanged = true;
+			}
+		}
 		super.awake();
 	}
 
@@ -192,13 +266,79 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 		@Override
 		public boolean execute(int arg0) {
-			jobs[origin].addSuccessor(jobs[arg0]);
+			addPrecedence(origin, arg0);
 			return true;
 		}
 	}
 
 	private TSuccprocedure succProc = new TSuccprocedure();
 
+	private void addPrecedence(int origin, int destination) {
+		jobs[origin].addSuccessor(jobs[destination]);
+		if(incScheduler != null) {
+			incScheduler.addPrecedence(origin, destination);
+		}
+	}
+
+	private void notifyReleaseDate(int job) {
+		if(cacheStamp != null && taskvars[job].getEST() > cachedStarts[job]) {
+			cachedScheduleChanged = true;
+		}
+	}
+
+	private void notifyDisjunct(int disjunct) {
+		final ITemporalSRelation rel = disjunctRelations[disjunct];
+		if(rel == null) {
+			if(incInfeasible != null) {
+				incScheduler.invalidate();
+			}
+			cachedScheduleChanged = true;
+		} else if(rel.getDirVal() == 1) {
+			notifyPrecedence(rel.getOrigin().getID(), rel.getDestination().getID());
+		} else {
+			notifyPrecedence(rel.getDestination().getID(), rel.getOrigin().getID());
+		}
+	}
+
+	private void notifyPrecedence(int origin, int destination) {
+		if(incInfeasible != null) {
+			incScheduler.addPrecedence(origin, destination);
+		}
+		if(cacheStamp != null && cachedEnds[origin] > cachedStarts[destination]) {
+			cachedScheduleChanged = true;
+		}
+	}
+
+	private void notifyDueDate(int job) {
+		final int dueDate = vars[taskIntVarOffset + job].getSup();
+		if(incInfeasible != null) {
+			jobs[job].setDueDate(dueDate);
+			incScheduler.updateDueDate(job);
+		}
+		if(cacheStamp != null && cachedEnds[job] - dueDate > cachedLowerBound) {
+			cachedScheduleChanged = true;
+		}
+	}
+
+	/**
+	 * The cached preemptive schedule is optimal in the subtree of its node as long as it respects the new release dates and arcs, 
+	 * and its lateness with the new due dates does not exceed the cached lower bound. 
+	 * Indeed, the relaxation is then still infeasible and its lower bound is unchanged.
+	 */
+	private boolean isPmtnScheduleUnchanged() {
+		return ! pmtnRelaxation.getPropagagationLevel().isOn() || 
+				( cacheStamp != null && ! cachedScheduleChanged && cacheStamp.get() == cacheCounter);
+	}
+
+	/**
+	 * If the notified arcs and due dates have not invalidated the Lawler sequence, the schedule and the lower bound of the precedence relaxation are unchanged.
+	 * The schedule remains infeasible in the subtree because the time windows only shrink.
+	 */
+	private boolean isSequenceUnchanged() {
+		return ! precRelaxation.getPropagagationLevel().isOn() || 
+				( incInfeasible != null && incInfeasible.get() && incScheduler.getDirtyPosition() < 0 );
+	}
+
 	private void buildPrecedence() {
 		//Add Reduced Precedence to jobs
 		for (int i = 0; i < precReductionGraph.length; i++) {
@@ -212,10 +352,10 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 			if(rel.isFixed()) {
 				if(rel.getDirVal() == 1) {
 					//forward
-					jobs[rel.getOrigin().getID()].addSuccessor(jobs[rel.getDestination().getID()]);
+					addPrecedence(rel.getOrigin().getID(), rel.getDestination().getID());
 				} else {
 					//backward
-					jobs[rel.getOrigin().getID()].addPredecessor(jobs[rel.getDestination().getID()]);
+					addPrecedence(rel.getDestination().getID(), rel.getOrigin().getID());
 				}
 			}
 		}
@@ -224,6 +364,17 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 	@Override
 	public void propagate() throws ContradictionException {
 		checkSolutionStamp();
+		if(isPmtnScheduleUnchanged() && isSequenceUnchanged()) {
+			if(cacheStamp != null) {
+				vars[vars.length-1].updateInf(cachedLowerBound, this, false);
+			}
+			if(incInfeasible != null) {
+				vars[vars.length-1].updateInf(incScheduler.getMaximalLateness(), this, false);
+			}
+			return;
+		}
+		//the cached schedule is overwritten by the preemptive relaxation
+		cachedScheduleChanged = true;
 		buildJobs();
 		buildPrecedence();
 		//VisuFactory.getDotManager().show(new DottyBean(jobs));
@@ -236,14 +387,27 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 				savedDueDates[i] = jobs[i].getDueDate();
 			}
 		} //else all (due date) constraints are not always revised and therefore some due dates entirely modified
+		if(incScheduler != null) {
+			incScheduler.updateDueDates();
+		}
 		////////////////
 		if(pmtnRelaxation.filterObjective() || precRelaxation.filterObjective()  ||
 				pmtnRelaxation.filterPrecedences() || precRelaxation.filterPrecedences()) {
 			//an optimal solution has been found during propagation
+			if(incInfeasible != null) {
+				incInfeasible.set(false);
+			}
 			recordSolution();
 		} else {
 			pmtnRelaxation.flushUpdateLists();
 			precRelaxation.flushUpdateLists();
+			if(incInfeasible != null) {
+				incInfeasible.set(true);
+			}
+			if(cacheStamp != null) {
+				cachedScheduleChanged = false;
+				cacheStamp.set(++cacheCounter);
+			}
 		}
 
 	}
@@ -340,7 +504,7 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 	}
 
 
-	final class PmtnRelaxationFilter extends AbstractRelaxationFilter implements TObjectProcedure<SweepEvent> {
+	final class PmtnRelaxationFilter extends AbstractRelaxationFilter {
 
 		private final Proc1Lmax procedure = new Proc1Lmax();
 		public PmtnRelaxationFilter(PropagagationLevel propLevel) {
@@ -352,6 +516,22 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 			return Pmtn1Scheduler.schedule1PrecLmax(tempJobs, procedure);
 		}
 
+		/**
+		 * Cache the preemptive schedule.
+		 */
+		@Override
+		public int doIncPropagate() {
+			final int lb = doPropagate();
+			if(cacheStamp != null) {
+				for (int i = 0; i < jobs.length; i++) {
+					cachedStarts[i] = jobs[i].getEST();
+					cachedEnds[i] = jobs[i].getLCT();
+				}
+				cachedLowerBound = lb;
+			}
+			return lb;
+		}
+
 
 		@Override
 		public boolean isFeasibleSchedule() {
@@ -377,6 +557,14 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 			return PDR1Scheduler.schedule1PrecLmax(tempJobs, procedure);
 		}
 
+		/**
+		 * Only reschedule the jobs affected by the new precedences and due dates.
+		 */
+		@Override
+		public int doIncPropagate() {
+			return incScheduler == null ? doPropagate() : incScheduler.schedule();
+		}
+
 		@Override
 		public boolean isFeasibleSchedule() {
 			return JobUtils.isScheduledInTimeWindows(jobs);
@@ -394,7 +582,7 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 	}
 
 
-	abstract class AbstractRelaxationFilter implements IRelaxationFilter, TObjectProcedure<SweepEvent> {
+	abstract class AbstractRelaxationFilter implements IRelaxationFilter {
 
 
 		public final PropagagationLevel propLevel;
@@ -402,24 +590,39 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 		private int lowerBound = MIN_LOWER_BOUND;
 		private int upperBound = MAX_UPPER_BOUND;
 
-		private final ArrayList<ITemporalSRelation> forwardUpdateList = new ArrayList<ITemporalSRelation>();
+		private ITemporalSRelation[] forwardUpdateList;
+
+		private int forwardUpdateCount;
 
-		private final ArrayList<ITemporalSRelation> backwardUpdateList = new ArrayList<ITemporalSRelation>();
+		private ITemporalSRelation[] backwardUpdateList;
 
-		private final SweepEvent[][] sweepEventMap;
+		private int backwardUpdateCount;
 
-		private final TLinkedList<SweepEvent> sweepEventList = new TLinkedList<SweepEvent>();
+		/**
+		 * sorted sweep events (see {@link SweepEvents}): the remaining events are between firstEvent and eventCount.
+		 */
+		private final long[] sweepEventList;
 
-		private final TLinkedList<SweepEvent> sweepCurrentList = new TLinkedList<SweepEvent>();
+		private int firstEvent;
+
+		private int eventCount;
+
+		/**
+		 * doubly-linked list of the started jobs in the order of their start events (the sentinel is jobs.length).
+		 */
+		private final int[] sweepCurrentNext;
+
+		private final int[] sweepCurrentPrev;
 
 		public AbstractRelaxationFilter(PropagagationLevel level) {
 			super();
 			this.propLevel = level;
-			sweepEventMap = new SweepEvent[jobs.length][2];
-			for (int i = 0; i < jobs.length; i++) {
-				sweepEventMap[i][START] = new SweepEvent(i, true);
-				sweepEventMap[i][END] = new SweepEvent(i, false);
-			}
+			forwardUpdateList = new ITemporalSRelation[jobs.length];
+			backwardUpdateList = new ITemporalSRelation[jobs.length];
+			sweepEventList = new long[2 * jobs.length];
+			sweepCurrentNext = new int[jobs.length + 1];
+			sweepCurrentPrev = new int[jobs.length + 1];
+			clearCurrentList();
 		}
 
 
@@ -431,13 +634,13 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 		public final void flushUpdateLists() throws ContradictionException {
 			vars[vars.length-1].updateSup(upperBound, RelaxLmaxConstraint.this, false);
-			for (ITemporalSRelation rel : forwardUpdateList) {
-				rel.getDirection().instantiate(1, RelaxLmaxConstraint.this, false);
-				//LOGGER.info("f "+rel.toString());
+			for (int i = 0; i < forwardUpdateCount; i++) {
+				forwardUpdateList[i].getDirection().instantiate(1, RelaxLmaxConstraint.this, false);
+				//LOGGER.info("f "+forwardUpdateList[i].toString());
 			}
-			for (ITemporalSRelation rel : backwardUpdateList) {
-				rel.getDirection().instantiate(0, RelaxLmaxConstraint.this, false);
-				//LOGGER.info("b "+rel.toString());
+			for (int i = 0; i < backwardUpdateCount; i++) {
+				backwardUpdateList[i].getDirection().instantiate(0, RelaxLmaxConstraint.this, false);
+				//LOGGER.info("b "+backwardUpdateList[i].toString());
 			}
 			//ChocoLogging.flushLogs();
 			clearUpdateLists();
@@ -448,37 +651,77 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 		public final void clearUpdateLists() {
 			lowerBound = MIN_LOWER_BOUND;
 			upperBound = MAX_UPPER_BOUND;
-			forwardUpdateList.clear();
-			backwardUpdateList.clear();
+			//release the relations
+			Arrays.fill(forwardUpdateList, 0, forwardUpdateCount, null);
+			Arrays.fill(backwardUpdateList, 0, backwardUpdateCount, null);
+			forwardUpdateCount = 0;
+			backwardUpdateCount = 0;
+		}
+
+		private void addForwardUpdate(ITemporalSRelation rel) {
+			if(forwardUpdateCount == forwardUpdateList.length) {
+				forwardUpdateList = Arrays.copyOf(forwardUpdateList, 2 * forwardUpdateCount);
+			}
+			forwardUpdateList[forwardUpdateCount++] = rel;
+		}
+
+		private void addBackwardUpdate(ITemporalSRelation rel) {
+			if(backwardUpdateCount == backwardUpdateList.length) {
+				backwardUpdateList = Arrays.copyOf(backwardUpdateList, 2 * backwardUpdateCount);
+			}
+			backwardUpdateList[backwardUpdateCount++] = rel;
 		}
 
+		private void clearCurrentList() {
+			sweepCurrentNext[jobs.length] = jobs.length;
+			sweepCurrentPrev[jobs.length] = jobs.length;
+		}
+
+		private void addCurrent(int job) {
+			final int last = sweepCurrentPrev[jobs.length];
+			sweepCurrentNext[last] = job;
+			sweepCurrentPrev[job] = last;
+			sweepCurrentNext[job] = jobs.length;
+			sweepCurrentPrev[jobs.length] = job;
+		}
+
+		private void removeCurrent(int job) {
+			sweepCurrentNext[sweepCurrentPrev[job]] = sweepCurrentNext[job];
+			sweepCurrentPrev[sweepCurrentNext[job]] = sweepCurrentPrev[job];
+		}
 
 		@Override
 		public final void clearEventLists() {
-			sweepCurrentList.clear();
-			sweepEventList.clear();
+			clearCurrentList();
+			firstEvent = 0;
+			eventCount = 0;
 		}
 
 
 		@Override
 		public final void buildEventLists() {
 			for (int i = 0; i < jobs.length; i++) {
-				sweepEventMap[i][START].setCoordinate(jobs[i].getEST());
-				sweepEventList.add(sweepEventMap[i][START]);
-				sweepEventMap[i][END].setCoordinate(jobs[i].getLCT());
-				sweepEventList.add(sweepEventMap[i][END]);
+				sweepEventList[eventCount++] = SweepEvents.makeStartEvent(i, jobs[i].getEST());
+				sweepEventList[eventCount++] = SweepEvents.makeEndEvent(i, jobs[i].getLCT());
 			}
-			TCollections.sort(sweepEventList);
+			Arrays.sort(sweepEventList, 0, eventCount);
 		}
 
 
 		public abstract int doPropagate();
 
+		/**
+		 * propagate the relaxation after a change of the problem (the default implementation is not incremental).
+		 */
+		public int doIncPropagate() {
+			return doPropagate();
+		}
+
 		@Override
 		public final boolean filterObjective() throws ContradictionException {
 			if(propLevel.isOn()) {
 				JobUtils.resetSchedule(tempJobs);
-				lowerBound = doPropagate();
+				lowerBound = doIncPropagate();
 				//LOGGER.info("LB "+lb + " -> "+vars[vars.length-1].pretty());
 				vars[vars.length-1].updateInf(lowerBound, RelaxLmaxConstraint.this, false);
 				if(isFeasibleSchedule()) return true;
@@ -508,9 +751,9 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 				final int idx1 = j1.getID();
 				final int idx2 = j2.getID();
 				if( disjSMod.containsConstraint(idx1, idx2)) {
-					backwardUpdateList.add(disjSMod.getConstraint(idx1, idx2));
+					addBackwardUpdate(disjSMod.getConstraint(idx1, idx2));
 				} else {
-					forwardUpdateList.add(disjSMod.getConstraint(idx2, idx1));
+					addForwardUpdate(disjSMod.getConstraint(idx2, idx1));
 				}
 			} else if(isFeasibleSchedule() ){
 				if(cost == vars[vars.length-1].getInf()) {
@@ -532,16 +775,16 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 		@Override
 		public final boolean swap() {
-			if( ! sweepEventList.isEmpty()) {
-				assert sweepEventList.getFirst().isStartEvent();
-				SweepEvent pred = sweepEventList.getFirst();
-				SweepEvent succ = pred;
-				while( ( succ = sweepEventList.getNext(succ) ) != null) {
-					if(succ.isStartEvent()) {
-						final ITemporalSRelation rel = disjSMod.getEdgeConstraint(pred.index, succ.index);
+			if( firstEvent < eventCount) {
+				assert SweepEvents.isStartEvent(sweepEventList[firstEvent]);
+				int pred = SweepEvents.getIndex(sweepEventList[firstEvent]);
+				for (int k = firstEvent + 1; k < eventCount; k++) {
+					if(SweepEvents.isStartEvent(sweepEventList[k])) {
+						final int succ = SweepEvents.getIndex(sweepEventList[k]);
+						final ITemporalSRelation rel = disjSMod.getEdgeConstraint(pred, succ);
 						if( rel != null && //Model stated precedence
 								! rel.isFixed()) { //Solver fixed precedence
-							Boolean b = propagatePrecedence(jobs[succ.index], jobs[pred.index]);
+							Boolean b = propagatePrecedence(jobs[succ], jobs[pred]);
 							if (b == Boolean.TRUE) {
 								return true;
 							}
@@ -560,23 +803,23 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 		//			//Par contre, on peut inverser deux jobs conscutifs quand ils sont tris par date de dbut (mme avec premption)
 		//			//on ne peut pas se heurter au problme de transitivit (au plus une precedence entre les deux taches)
 
-		private SweepEvent evt;
-
 		@Override
 		public final boolean sweep() {
-			if( ! sweepEventList.isEmpty()) {
-				assert sweepEventList.getFirst().isStartEvent();
-				do {
-					evt = sweepEventList.removeFirst();
-					if(evt.isStartEvent()) {
-						sweepCurrentList.add(evt);
-					} else {
-						sweepCurrentList.remove(sweepEventMap[evt.index][START]);
-						if ( ! sweepCurrentList.forEachValue(this)) {
+			assert firstEvent == eventCount || SweepEvents.isStartEvent(sweepEventList[firstEvent]);
+			while(firstEvent < eventCount) {
+				final long evt = sweepEventList[firstEvent++];
+				final int job = SweepEvents.getIndex(evt);
+				if(SweepEvents.isStartEvent(evt)) {
+					addCurrent(job);
+				} else {
+					removeCurrent(job);
+					for (int pred = sweepCurrentNext[jobs.length]; pred < jobs.length; pred = sweepCurrentNext[pred]) {
+						if( propagatePrecedence(jobs[pred], jobs[job]) == Boolean.TRUE ||
+								propagatePrecedence(jobs[job], jobs[pred]) == Boolean.TRUE) {
 							return true;
 						}
 					}
-				}while(! sweepEventList.isEmpty());
+				}
 			}
 			return false;
 		}
@@ -606,36 +849,31 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 			ITemporalSRelation decision = null;
 			int minDLateness = MIN_LOWER_BOUND;
 			int maxDLateness = MIN_LOWER_BOUND;
-			if( ! sweepEventList.isEmpty()) {
-				assert sweepEventList.getFirst().isStartEvent();
-				do {
-					evt = sweepEventList.removeFirst();
-					if(evt.isStartEvent()) {
-						sweepCurrentList.add(evt);							
-					} else {
-						sweepCurrentList.remove(sweepEventMap[evt.index][START]);
-						final Iterator<SweepEvent> iter = sweepCurrentList.iterator();
-						int predLateness;
-						int succLateness;
-						while(iter.hasNext()) {
-							final SweepEvent pevt = iter.next(); 
-							predLateness = jobs[pevt.index].getLateness();
-							succLateness = jobs[evt.index].getLateness();
-							if(succLateness > predLateness && 
-									succLateness > maxDLateness || 
-									(succLateness == maxDLateness && predLateness > minDLateness) ) {
-								minDLateness = predLateness;
-								maxDLateness = succLateness;
-								decision = disjSMod.getEdgeConstraint(taskvars[evt.index].getID(), taskvars[pevt.index].getID());
-							} else if(		predLateness > maxDLateness || 
-									(predLateness == maxDLateness && succLateness > minDLateness) ) {
-								minDLateness = succLateness;
-								maxDLateness = predLateness;
-								decision = disjSMod.getEdgeConstraint(taskvars[evt.index].getID(), taskvars[pevt.index].getID());
-							}
+			assert firstEvent == eventCount || SweepEvents.isStartEvent(sweepEventList[firstEvent]);
+			while(firstEvent < eventCount) {
+				final long evt = sweepEventList[firstEvent++];
+				final int job = SweepEvents.getIndex(evt);
+				if(SweepEvents.isStartEvent(evt)) {
+					addCurrent(job);
+				} else {
+					removeCurrent(job);
+					final int succLateness = jobs[job].getLateness();
+					for (int pred = sweepCurrentNext[jobs.length]; pred < jobs.length; pred = sweepCurrentNext[pred]) {
+						final int predLateness = jobs[pred].getLateness();
+						if(succLateness > predLateness && 
+								succLateness > maxDLateness || 
+								(succLateness == maxDLateness && predLateness > minDLateness) ) {
+							minDLateness = predLateness;
+							maxDLateness = succLateness;
+							decision = disjSMod.getEdgeConstraint(taskvars[job].getID(), taskvars[pred].getID());
+						} else if(		predLateness > maxDLateness || 
+								(predLateness == maxDLateness && succLateness > minDLateness) ) {
+							minDLateness = succLateness;
+							maxDLateness = predLateness;
+							decision = disjSMod.getEdgeConstraint(taskvars[job].getID(), taskvars[pred].getID());
 						}
 					}
-				}while(! sweepEventList.isEmpty());
+				}
 			}
 
 //			if(decision != null ) {
@@ -645,16 +883,9 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 		}
 
 
-		@Override
-		public final boolean execute(SweepEvent evt2) {
-			return propagatePrecedence(jobs[evt2.index], jobs[evt.index]) != Boolean.TRUE 
-					&& propagatePrecedence(jobs[evt.index], jobs[evt2.index]) != Boolean.TRUE;
-			//return propagatePrecedence(jobs[evt2.index], jobs[evt.index]) != Boolean.TRUE;
-		}
-
 		@Override
 		public boolean filterPrecedences() {
-			assert ( forwardUpdateList.isEmpty() && backwardUpdateList.isEmpty());
+			assert ( forwardUpdateCount == 0 && backwardUpdateCount == 0);
 			switch (propLevel) {
 			case SWAP: return swap();
 			case SWEEP : return swap() || sweep();
@@ -668,50 +899,44 @@ public class RelaxLmaxConstraint extends AbstractTaskSConstraint implements VarV
 
 }
 
-final class SweepEvent extends TLinkableAdapter implements Comparable<SweepEvent> {
-
-	private static final long serialVersionUID = -3804084435189896556L;
+/**
+ * A sweep event is packed into a long: the coordinate in the high bits, then the type (end events before start events) and the job index.
+ * So, the natural order of the longs is the order of the sweep.
+ */
+final class SweepEvents {
 
-	public final int index;
+	private static final long START_MASK = 1L << 31;
 
-	protected int coordinate;
+	private static final long INDEX_MASK = START_MASK - 1;
 
-	private final boolean startEvent;
-
-	public SweepEvent(int index, boolean startEvent) {
+	private SweepEvents() {
 		super();
-		this.index = index;
-		this.startEvent = startEvent;
 	}
 
-	public final int getIndex() {
-		return index;
+	public static long makeStartEvent(int index, int coordinate) {
+		return ( (long) coordinate << 32) | START_MASK | index;
 	}
 
-	public final int getCoordinate() {
-		return coordinate;
+	public static long makeEndEvent(int index, int coordinate) {
+		return ( (long) coordinate << 32) | index;
 	}
 
-	public final void setCoordinate(int coordinate) {
-		this.coordinate = coordinate;
+	public static int getIndex(long event) {
+		return (int) (event & INDEX_MASK);
 	}
 
-	public final boolean isStartEvent() {
-		return startEvent;
+	public static int getCoordinate(long event) {
+		return (int) (event >> 32);
 	}
 
-	@Override
-	public int compareTo(SweepEvent o) {
-		return coordinate< o.coordinate? -1 : coordinate== o.coordinate ?  ( startEvent ? ( o.startEvent ? 0 : 1) : -1) : 1;
+	public static boolean isStartEvent(long event) {
+		return (event & START_MASK) != 0;
 	}
 
-	@Override
-	public String toString() {
-		return (startEvent ? "S" : "E" )+"("+coordinate + "," + index + ")";
+	public static String toString(long event) {
+		return (isStartEvent(event) ? "S" : "E" )+"("+getCoordinate(event) + "," + getIndex(event) + ")";
 	}
 
-
-
 }
 
 
@@ -1,6 +1,7 @@
 package pisco.single.parsers;
 
 import parser.instances.AbstractTextParser;
+import pisco.common.ISetupTimes;
 import pisco.common.ITJob;
 
 public abstract class Abstract1MachineParser extends AbstractTextParser {
@@ -11,7 +12,7 @@ public abstract class Abstract1MachineParser extends AbstractTextParser {
 	public ITJob[] jobs;
 	public int[] earlinessPenalties;
 	public int[] tardinessPenalties;
-	public int[][] setupTimes;
+	public ISetupTimes setupTimes;
 
 	public Abstract1MachineParser() {
 		super();
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import parser.absconparseur.tools.UnsupportedConstraintException;
 import pisco.common.ITJob;
 import pisco.common.PJob;
+import pisco.common.SetupTimesBuilder;
 import choco.kernel.common.util.tools.MathUtils;
 
 public class AirlandParser extends Abstract1MachineParser {
@@ -61,8 +62,8 @@ public class AirlandParser extends Abstract1MachineParser {
 		jobs = new ITJob[nbJobs];
 		final double[] _earlinessPenalties = new double[nbJobs];
 		final double[] _tardinessPenalties = new double[nbJobs];
-		setupTimes = new int[nbJobs][nbJobs];
-		final int[] minSetupTimes = new int[nbJobs];
+		final SetupTimesBuilder builder = new SetupTimesBuilder(nbJobs);
+		final int[] row = new int[nbJobs];
 		for (int i = 0; i < nbJobs; i++) {
 			appearanceDates[i] = nextInt();  
 			jobs[i] = new PJob(i);
@@ -72,31 +73,31 @@ public class AirlandParser extends Abstract1MachineParser {
 			// TODO - convert from double to int - created 11 mars 2012 by A. Malapert
 			_earlinessPenalties[i] = nextDouble(); 
 			_tardinessPenalties[i] = nextDouble();
-			minSetupTimes[i]=Integer.MAX_VALUE;
+			int minSetupTime = Integer.MAX_VALUE;
 			for (int j = 0; j < nbJobs; j++) {
-				setupTimes[i][j] = nextInt();
-				if(minSetupTimes[i] > setupTimes[i][j]) {
-					minSetupTimes[i]=setupTimes[i][j];
+				row[j] = nextInt();
+				if(minSetupTime > row[j]) {
+					minSetupTime = row[j];
 				}
 			}
+			// Preprocess Data
+			preprocessProcessingTimes(jobs[i], row, minSetupTime);
+			builder.addRow(row);
 		}
 		close();
-		// Preprocess Data
-		preprocessProcessingTimes(minSetupTimes);
+		setupTimes = builder.build();
 		preprocessPenalties(_earlinessPenalties, _tardinessPenalties);
 			if(displayInstance) {
 			LOGGER.info(Arrays.toString(jobs));
 		}
 	}
 
-	private final void preprocessProcessingTimes(final int[] minSetupTimes) {
-		for (int i = 0; i < nbJobs; i++) {
-			jobs[i].setDuration(minSetupTimes[i]);
-			jobs[i].setDueDate( jobs[i].getDueDate() + minSetupTimes[i]);
-			jobs[i].setDeadline( jobs[i].getDeadline() + minSetupTimes[i]);
-			for (int j = 0; j < nbJobs; j++) {
-				setupTimes[i][j] -= minSetupTimes[i];
-			}
+	private final void preprocessProcessingTimes(final ITJob job, final int[] row, final int minSetupTime) {
+		job.setDuration(minSetupTime);
+		job.setDueDate( job.getDueDate() + minSetupTime);
+		job.setDeadline( job.getDeadline() + minSetupTime);
+		for (int j = 0; j < nbJobs; j++) {
+			row[j] -= minSetupTime;
 		}
 	}
 
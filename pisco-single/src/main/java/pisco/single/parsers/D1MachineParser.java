@@ -32,6 +32,7 @@ import java.util.Arrays;
 import parser.absconparseur.tools.UnsupportedConstraintException;
 import pisco.common.ITJob;
 import pisco.common.PJob;
+import pisco.common.SetupTimesFactory;
 
 public class D1MachineParser extends Abstract1MachineParser {
 
@@ -50,7 +51,7 @@ public class D1MachineParser extends Abstract1MachineParser {
 			throws UnsupportedConstraintException {
 		nbJobs = nextInt();
 		jobs = new ITJob[nbJobs];
-		setupTimes = new int[nbJobs][nbJobs];
+		setupTimes = SetupTimesFactory.makeZeroSetupTimes(nbJobs);
 		for (int i = 0; i < nbJobs; i++) {
 			jobs[i] = new PJob(i);
 			jobs[i].setReleaseDate(nextInt());
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import parser.absconparseur.tools.UnsupportedConstraintException;
 import pisco.common.ITJob;
 import pisco.common.PJob;
+import pisco.common.SetupTimesFactory;
 
 public class W1MachineParser extends Abstract1MachineParser {
 
@@ -53,7 +54,7 @@ public class W1MachineParser extends Abstract1MachineParser {
 		jobs = new ITJob[nbJobs];
 		earlinessPenalties = null;
 		tardinessPenalties =null;
-		setupTimes = new int[nbJobs][nbJobs];
+		setupTimes = SetupTimesFactory.makeZeroSetupTimes(nbJobs);
 		for (int i = 0; i < nbJobs; i++) {
 			jobs[i] = new PJob(i);
 			jobs[i].setReleaseDate(nextInt());
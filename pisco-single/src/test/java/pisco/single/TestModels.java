@@ -4,12 +4,19 @@ import static choco.Choco.constant;
 import static choco.Choco.makeBooleanVar;
 import static choco.Choco.makeIntVar;
 import static choco.kernel.common.util.tools.ArrayUtils.append;
+import static org.junit.Assert.assertEquals;
+import gnu.trove.TIntArrayList;
+
+import java.util.Arrays;
+import java.util.Random;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import pisco.common.SchedulingBranchingFactory;
+import pisco.single.choco.constraints.GlobalModifyDueDateConstraint;
+import pisco.single.choco.constraints.ModifyDueDateConstraint;
 import pisco.single.choco.constraints.ModifyDueDateManager;
 import choco.cp.model.CPModel;
 import choco.cp.solver.CPSolver;
@@ -20,6 +27,7 @@ import choco.kernel.model.constraints.ComponentConstraint;
 import choco.kernel.model.variables.integer.IntegerVariable;
 import choco.kernel.solver.ContradictionException;
 import choco.kernel.solver.Solver;
+import choco.kernel.solver.variables.integer.IntDomainVar;
 
 public class TestModels {
 
@@ -39,4 +47,121 @@ public class TestModels {
 		s.propagate();
 		//System.out.println(s.pretty());
 	}
+
+	private static boolean propagate(Solver solver) {
+		try {
+			solver.propagate();
+			return true;
+		} catch (ContradictionException e) {
+			return false;
+		}
+	}
+
+	private static void assertSameDomains(IntDomainVar[] expected, IntDomainVar[] actual) {
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].pretty(), expected[i].getInf(), actual[i].getInf());
+			assertEquals(expected[i].pretty(), expected[i].getSup(), actual[i].getSup());
+		}
+	}
+
+	/**
+	 * due dates, then disjuncts (a negative value is a free disjunct).
+	 */
+	private static IntDomainVar[] makeVars(CPSolver solver, int[] lowerBounds, int[] upperBounds, int[] disjuncts) {
+		final int n = lowerBounds.length;
+		final IntDomainVar[] vars = new IntDomainVar[n + disjuncts.length];
+		for (int i = 0; i < n; i++) {
+			vars[i] = solver.createBoundIntVar("D"+i, lowerBounds[i], upperBounds[i]);
+		}
+		for (int d = 0; d < disjuncts.length; d++) {
+			vars[n + d] = disjuncts[d] < 0 ? 
+					solver.createBoundIntVar("B"+d, 0, 1) : 
+						solver.createBoundIntVar("B"+d, disjuncts[d], disjuncts[d]);
+		}
+		return vars;
+	}
+
+	@Test
+	public void testGlobalModifyDueDate() throws ContradictionException {
+		final Random rnd = new Random(0);
+		for (int k = 0; k < 2000; k++) {
+			final int n = 2 + rnd.nextInt(7);
+			final int[] durations = new int[n];
+			for (int i = 0; i < n; i++) {
+				durations[i] = rnd.nextInt(4) == 0 ? 0 : rnd.nextInt(6);
+			}
+			final TIntArrayList pairs = new TIntArrayList();
+			final TIntArrayList orderingList = new TIntArrayList();
+			for (int i = 0; i < n; i++) {
+				for (int j = i + 1; j < n; j++) {
+					switch (rnd.nextInt(3)) {
+					case 0: pairs.add(i);pairs.add(j);break;
+					case 1: orderingList.add(i);orderingList.add(j);break;
+					default: break;
+					}
+				}
+			}
+			final int nbDisjuncts = pairs.size() / 2;
+			final int[] origins = new int[nbDisjuncts];
+			final int[] destinations = new int[nbDisjuncts];
+			final int[] disjuncts = new int[nbDisjuncts];
+			for (int d = 0; d < nbDisjuncts; d++) {
+				origins[d] = pairs.get(2 * d);
+				destinations[d] = pairs.get(2 * d + 1);
+				disjuncts[d] = rnd.nextInt(4) == 0 ? rnd.nextInt(2) : -1;
+			}
+			final int[] orderings = orderingList.toNativeArray();
+			final int[] lowerBounds = new int[n];
+			final int[] upperBounds = new int[n];
+			for (int i = 0; i < n; i++) {
+				lowerBounds[i] = rnd.nextInt(20) - 10;
+				upperBounds[i] = lowerBounds[i] + rnd.nextInt(40);
+			}
+			//global constraint
+			final CPSolver gsolver = new CPSolver();
+			final IntDomainVar[] gvars = makeVars(gsolver, lowerBounds, upperBounds, disjuncts);
+			gsolver.post(new GlobalModifyDueDateConstraint(gsolver.getEnvironment(), 
+					Arrays.copyOf(gvars, n), Arrays.copyOfRange(gvars, n, gvars.length), 
+					durations, origins, destinations, orderings));
+			//pairwise constraints
+			final CPSolver psolver = new CPSolver();
+			final IntDomainVar[] pvars = makeVars(psolver, lowerBounds, upperBounds, disjuncts);
+			for (int d = 0; d < nbDisjuncts; d++) {
+				psolver.post(new ModifyDueDateConstraint(pvars[origins[d]], durations[destinations[d]], 
+						pvars[destinations[d]], durations[origins[d]], pvars[n + d]));
+			}
+			for (int o = 0; o < orderings.length; o += 2) {
+				psolver.post(new ModifyDueDateConstraint(pvars[orderings[o]], durations[orderings[o + 1]], 
+						pvars[orderings[o + 1]], durations[orderings[o]], psolver.createBoundIntVar("O"+o, 1, 1)));
+			}
+			//initial propagation
+			final boolean feasible = propagate(psolver);
+			assertEquals(feasible, propagate(gsolver));
+			if(feasible) {
+				assertSameDomains(pvars, gvars);
+				//fix a disjunct and decrease a due date
+				int free = 0;
+				while(free < nbDisjuncts && pvars[n + free].isInstantiated()) {
+					free++;
+				}
+				final int job = rnd.nextInt(n);
+				final int dueDate = Math.max(pvars[job].getInf(), pvars[job].getSup() - rnd.nextInt(3));
+				psolver.worldPush();
+				gsolver.worldPush();
+				if(free < nbDisjuncts) {
+					final int val = rnd.nextInt(2);
+					pvars[n + free].instantiate(val, null, false);
+					gvars[n + free].instantiate(val, null, false);
+				}
+				pvars[job].updateSup(dueDate, null, false);
+				gvars[job].updateSup(dueDate, null, false);
+				final boolean incFeasible = propagate(psolver);
+				assertEquals(incFeasible, propagate(gsolver));
+				if(incFeasible) assertSameDomains(pvars, gvars);
+				psolver.worldPop();
+				gsolver.worldPop();
+				assertSameDomains(pvars, gvars);
+			}
+		}
+	}
 	}
@@ -1,12 +1,18 @@
 package pisco.single;
 
 import static choco.kernel.common.util.tools.ArrayUtils.append;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import pisco.common.DisjunctiveSettings;
 import pisco.common.SchedulingBranchingFactory;
+import pisco.single.SingleMachineSettings.PropagagationLevel;
+import pisco.single.parsers.D1MachineParser;
 import choco.kernel.common.logging.ChocoLogging;
 import choco.kernel.common.logging.Verbosity;
 
@@ -20,7 +26,7 @@ public class TestSingleMachine {
 
 	private final static String[] CONFS = {"basic", "pmtn", "pmtn-swap", "pmtn-sweep",
 		"prec", "prec-swap", "pmtn-prec-swaps", 
-		"clauses", "ordering", "mod-dd", "all"
+		"clauses", "ordering", "mod-dd", "all", "sparse"
 	};
 	
 //	private final static String[] CONFS = {"pmtn-sweep"};
@@ -95,5 +101,34 @@ public class TestSingleMachine {
 		cmd.doMain(arguments.split("\\s"));
 	}
 
-}
+	private static int solveLmax(String instance, PropagagationLevel pmtnLevel, PropagagationLevel precLevel) {
+		final SingleMachineSettings settings = new SingleMachineSettings();
+		settings.putEnum(SingleMachineSettings.RELAX_PMTN_PROPAGATION, pmtnLevel);
+		settings.putEnum(SingleMachineSettings.RELAX_PREC_PROPAGATION, precLevel);
+		settings.putEnum(DisjunctiveSettings.BRANCHING_TYPE, SchedulingBranchingFactory.Branching.LEX);
+		final SingleMachineLmax pb = new SingleMachineLmax(settings, new D1MachineParser());
+		pb.solveFile(new File(PATH + instance));
+		return pb.getSolver().getObjectiveValue().intValue();
+	}
+
+	@Test
+	public void testPmtnRelaxationCache() {
+		final String[] instances = {"p10_106.dat", "p20_2.dat", "p20_200.dat", "p20_205.dat", "p20_233.dat"};
+		for (String instance : instances) {
+			//the relaxations are not cached at level SWAP
+			final int lmax = solveLmax(instance, PropagagationLevel.SWAP, PropagagationLevel.NONE);
+			assertEquals(instance, lmax, solveLmax(instance, PropagagationLevel.OBJ, PropagagationLevel.NONE));
+			assertEquals(instance, lmax, solveLmax(instance, PropagagationLevel.OBJ, PropagagationLevel.OBJ));
+		}
+	}
+
+	@Test
+	public void testIncPrecRelaxation() {
+		final String[] instances = {"p10_106.dat", "p20_2.dat", "p20_200.dat", "p20_205.dat", "p20_233.dat"};
+		for (String instance : instances) {
+			assertEquals(instance, solveLmax(instance, PropagagationLevel.SWAP, PropagagationLevel.NONE), 
+					solveLmax(instance, PropagagationLevel.NONE, PropagagationLevel.OBJ));
+		}
+	}
 
+}